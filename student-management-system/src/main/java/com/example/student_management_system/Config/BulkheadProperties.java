@@ -0,0 +1,39 @@
+package com.example.student_management_system.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Concurrency limits per RouteGroup and the pool-pressure thresholds for shedding, e.g.
+//   app.bulkhead.max-concurrent.manager=10
+//   app.bulkhead.shed-at.teacher=2
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    private Map<RouteGroup, Integer> maxConcurrent = new EnumMap<>(Map.of(
+            RouteGroup.AUTH, 50,
+            RouteGroup.STUDENT, 100,
+            RouteGroup.TEACHER, 40,
+            RouteGroup.MANAGER, 10,
+            RouteGroup.OTHER, 20));
+
+    // Pressure level (see PoolPressureMonitor) from which a group is refused outright; 0 = never shed
+    private Map<RouteGroup, Integer> shedAt = new EnumMap<>(Map.of(
+            RouteGroup.AUTH, 0,
+            RouteGroup.STUDENT, 0,
+            RouteGroup.TEACHER, 2,
+            RouteGroup.MANAGER, 1,
+            RouteGroup.OTHER, 1));
+
+    // How long a request may wait for a free slot in its bulkhead
+    private long maxWaitMs = 50;
+
+    private int retryAfterSeconds = 2;
+}
@@ -0,0 +1,95 @@
+package com.example.student_management_system.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Samples the application's Hikari pools and condenses them into a pressure level:
+//   0  normal
+//   1  busy     active/max >= active-ratio, or recent mean connection wait >= wait-ms
+//   2  saturated  threads are queueing for connections and recent waits are >= 4 x wait-ms
+// The worst pool decides. BulkheadFilter sheds route groups by this level.
+@Component
+public class PoolPressureMonitor {
+
+    // The routing datasource unwraps to the primary pool as well, so dedupe by identity
+    private final Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final MeterRegistry meterRegistry;
+    private final double activeRatio;
+    private final double waitMs;
+    private volatile int level;
+    private double lastWaitTotalMs;
+    private long lastWaitCount;
+
+    @Autowired
+    public PoolPressureMonitor(Map<String, DataSource> dataSources,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.load-shedding.active-ratio:0.9}") double activeRatio,
+                               @Value("${app.load-shedding.wait-ms:100}") double waitMs) {
+        for (DataSource dataSource : dataSources.values()) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+                }
+            } catch (SQLException ignored) {
+                // not a pool
+            }
+        }
+        this.meterRegistry = meterRegistry;
+        this.activeRatio = activeRatio;
+        this.waitMs = waitMs;
+        Gauge.builder("loadshed.pressure", this, PoolPressureMonitor::getLevel).register(meterRegistry);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Scheduled(fixedDelayString = "${app.load-shedding.sample-interval-ms:250}")
+    public void sample() {
+        double recentWaitMs = recentMeanWaitMs();
+        int worst = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean == null) continue; // not started yet
+            double ratio = (double) bean.getActiveConnections() / Math.max(1, pool.getMaximumPoolSize());
+            int poolLevel = 0;
+            if (bean.getThreadsAwaitingConnection() > 0 && recentWaitMs >= 4 * waitMs) {
+                poolLevel = 2;
+            } else if (ratio >= activeRatio || recentWaitMs >= waitMs) {
+                poolLevel = 1;
+            }
+            worst = Math.max(worst, poolLevel);
+        }
+        level = worst;
+    }
+
+    // Mean connection acquire time since the previous sample, from Hikari's Micrometer timer (all pools)
+    private double recentMeanWaitMs() {
+        double totalMs = 0;
+        long count = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            count += timer.count();
+        }
+        double deltaMs = totalMs - lastWaitTotalMs;
+        long deltaCount = count - lastWaitCount;
+        lastWaitTotalMs = totalMs;
+        lastWaitCount = count;
+        return deltaCount > 0 ? deltaMs / deltaCount : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.student_management_system.Config;
+
+// Where the current thread's SQL comes from: the controller method handling the request and the
+// repository method being called. Set by QueryAttributionConfig, read by SlowQuerySampler.
+public final class QueryAttribution {
+
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+    private static final ThreadLocal<String> REPOSITORY = new ThreadLocal<>();
+
+    private QueryAttribution() {
+    }
+
+    public static String endpoint() {
+        return ENDPOINT.get();
+    }
+
+    public static String repository() {
+        return REPOSITORY.get();
+    }
+
+    static void setEndpoint(String endpoint) {
+        ENDPOINT.set(endpoint);
+    }
+
+    static void clearEndpoint() {
+        ENDPOINT.remove();
+    }
+
+    // Returns the enclosing repository call, to be restored by exitRepository (repositories may call each other)
+    static String enterRepository(String repository) {
+        String previous = REPOSITORY.get();
+        REPOSITORY.set(repository);
+        return previous;
+    }
+
+    static void exitRepository(String previous) {
+        if (previous == null) {
+            REPOSITORY.remove();
+        } else {
+            REPOSITORY.set(previous);
+        }
+    }
+}
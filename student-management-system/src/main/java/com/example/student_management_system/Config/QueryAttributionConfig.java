@@ -0,0 +1,84 @@
+package com.example.student_management_system.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records, per thread, which controller method and which repository method are running (see QueryAttribution)
+@Configuration
+public class QueryAttributionConfig implements WebMvcConfigurer {
+
+    // Keyed by type first: inherited methods (findById, save) are shared by every repository
+    private static final Map<Class<?>, Map<Method, String>> NAMES = new ConcurrentHashMap<>();
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod method) {
+                    QueryAttribution.setEndpoint(name(method.getBeanType(), method.getMethod()));
+                }
+                return true;
+            }
+
+            // An async handler (the exam SSE stream) hands the request thread back to the pool without
+            // afterCompletion running on it, so the endpoint is cleared here too
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) {
+                QueryAttribution.clearEndpoint();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                QueryAttribution.clearEndpoint();
+            }
+        });
+    }
+
+    // Adds an advice to every Spring Data repository proxy. Static so that registering the
+    // post-processor doesn't instantiate this configuration early.
+    @Bean
+    public static BeanPostProcessor repositoryAttribution() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                Class<?> repository = information.getRepositoryInterface();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    String previous = QueryAttribution.enterRepository(
+                                            name(repository, invocation.getMethod()));
+                                    try {
+                                        return invocation.proceed();
+                                    } finally {
+                                        QueryAttribution.exitRepository(previous);
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static String name(Class<?> type, Method method) {
+        return NAMES.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> type.getSimpleName() + "#" + m.getName());
+    }
+}
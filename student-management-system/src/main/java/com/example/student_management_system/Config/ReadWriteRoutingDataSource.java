@@ -0,0 +1,30 @@
+package com.example.student_management_system.Config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections for read-only transactions to the replica and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the lookup happens after the transaction's
+// read-only flag has been set.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagGuard.replicaUsable() ? REPLICA : PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            lagGuard.recordWrite();
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.student_management_system.Config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decides whether a read-only transaction may use the replica.
+// Reads fall back to the primary when the replica is too far behind (or unreachable),
+// and for a user who wrote recently enough that the replica may not have their change yet.
+public class ReplicaLagGuard {
+
+    // Time since the last replayed transaction only means lag while WAL is still waiting to be replayed: a replica
+    // that has replayed everything it received is current, however long the primary has been idle. A server not
+    // in recovery (e.g. a plain local instance) has no lag; null (no transaction replayed yet) is read as none too.
+    static final String LAG_QUERY = "SELECT CASE" +
+            " WHEN NOT pg_is_in_recovery() THEN 0" +
+            " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0" +
+            " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final JdbcTemplate replicaJdbc;
+    private final long maxLagMs;
+    private final long readYourWritesMs;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private volatile long replicaLagMs = Long.MAX_VALUE;
+
+    public ReplicaLagGuard(DataSource replica, long maxLagMs, long readYourWritesMs) {
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    public boolean replicaUsable() {
+        long lag = replicaLagMs;
+        if (lag > maxLagMs) {
+            return false;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return true;
+        }
+        Long lastWrite = lastWriteByUser.get(user);
+        return lastWrite == null || System.currentTimeMillis() - lastWrite > lag + readYourWritesMs;
+    }
+
+    public void recordWrite() {
+        String user = currentUser();
+        if (user != null) {
+            lastWriteByUser.put(user, System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-probe-interval-ms}")
+    public void probeLag() {
+        try {
+            Double lag = replicaJdbc.queryForObject(LAG_QUERY, Double.class);
+            replicaLagMs = lag == null ? 0 : Math.max(0, lag.longValue());
+        } catch (RuntimeException e) {
+            replicaLagMs = Long.MAX_VALUE;
+        }
+        long cutoff = System.currentTimeMillis() - maxLagMs - readYourWritesMs;
+        lastWriteByUser.values().removeIf(t -> t < cutoff);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? null : auth.getName();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.student_management_system.Config;
+
+import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.Filter.RoleMaskAuthentication;
+import com.example.student_management_system.Util.RoleMask;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+// hasRole as a single bit test on the role mask of the token. The mask already includes every role below
+// the caller's (RoleMask), so the hierarchy is not walked on each check. Other authentications (none are
+// issued today) fall back to reading their authorities.
+public final class RoleMaskAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final int required;
+
+    private RoleMaskAuthorizationManager(Role role) {
+        this.required = RoleMask.bit(role);
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasRole(Role role) {
+        return new RoleMaskAuthorizationManager<>(role);
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasRole(String role) {
+        return hasRole(Role.valueOf(role));
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) return DENIED;
+        int reachable = current instanceof RoleMaskAuthentication token
+                ? token.getReachableRoles()
+                : RoleMask.reachable(RoleMask.ofAuthorities(current.getAuthorities()));
+        return (reachable & required) != 0 ? GRANTED : DENIED;
+    }
+}
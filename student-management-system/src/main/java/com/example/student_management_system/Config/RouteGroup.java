@@ -0,0 +1,40 @@
+package com.example.student_management_system.Config;
+
+import org.springframework.util.AntPathMatcher;
+
+// URL groups by the role SecurityConfig requires for them. Also the unit for bulkheads and load shedding:
+// the higher a group's role sits in the hierarchy, the heavier its traffic and the earlier it is shed.
+public enum RouteGroup {
+    AUTH(null, "/api/auth/**"),
+    STUDENT("STUDENT", "/api/students/**", "/api/exams/**", "/api/subjects/**"),
+    TEACHER("TEACHER", "/api/teachers/**", "/api/leaderboards/**"),
+    MANAGER("MANAGER", "/api/managers/**"),
+    OTHER(null);
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final String role;
+    private final String[] patterns;
+
+    RouteGroup(String role, String... patterns) {
+        this.role = role;
+        this.patterns = patterns;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String[] getPatterns() {
+        return patterns;
+    }
+
+    public static RouteGroup of(String path) {
+        for (RouteGroup group : values()) {
+            for (String pattern : group.patterns) {
+                if (MATCHER.match(pattern, path)) return group;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.student_management_system.Config;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.internal.DefaultSchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Hibernate's ddl-auto=update does not recognise a partitioned table and tries to create it again. Once
+// db/exam-partitioning.sql has converted exam, schema updates skip that one table and keep maintaining the rest;
+// later changes to exam's columns go into schema.sql.
+@Configuration
+public class SchemaUpdateConfig {
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpdateConfig.class);
+
+    private static final List<String> PARTITIONABLE = List.of("exam");
+
+    @Bean
+    public HibernatePropertiesCustomizer partitionedTablesCustomizer(DataSource dataSource) {
+        Set<String> partitioned = partitionedTables(dataSource);
+        return properties -> {
+            if (partitioned.isEmpty()) return;
+            log.info("Schema update skips partitioned tables {}", partitioned);
+            properties.put(AvailableSettings.HBM2DDL_FILTER_PROVIDER, new SkipTables(partitioned));
+        };
+    }
+
+    private static Set<String> partitionedTables(DataSource dataSource) {
+        Set<String> partitioned = new HashSet<>();
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            for (String table : PARTITIONABLE) {
+                Integer count = jdbc.queryForObject("select count(*) from pg_partitioned_table p " +
+                        "join pg_class c on c.oid = p.partrelid where c.relname = ? and pg_table_is_visible(c.oid)",
+                        Integer.class, table);
+                if (count != null && count > 0) partitioned.add(table);
+            }
+        } catch (RuntimeException e) {
+            // Not PostgreSQL, or the database is not reachable yet; Hibernate reports the latter itself
+            log.debug("Could not look up partitioned tables", e);
+        }
+        return partitioned;
+    }
+
+    // Applies to ddl-auto=update only; create, drop, truncate and validate still see every table
+    static class SkipTables implements SchemaFilterProvider, SchemaFilter {
+        private final Set<String> skipped;
+
+        SkipTables(Set<String> skipped) {
+            this.skipped = skipped;
+        }
+
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !skipped.contains(table.getName().toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+
+        @Override
+        public SchemaFilter getCreateFilter() {
+            return DefaultSchemaFilter.INSTANCE;
+        }
+
+        @Override
+        public SchemaFilter getDropFilter() {
+            return DefaultSchemaFilter.INSTANCE;
+        }
+
+        @Override
+        public SchemaFilter getTruncatorFilter() {
+            return DefaultSchemaFilter.INSTANCE;
+        }
+
+        @Override
+        public SchemaFilter getMigrateFilter() {
+            return this;
+        }
+
+        @Override
+        public SchemaFilter getValidateFilter() {
+            return DefaultSchemaFilter.INSTANCE;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.student_management_system.Config;
 
+import com.example.student_management_system.Enum.Role;
 import com.example.student_management_system.Filter.JwtAuthFilter;
+import com.example.student_management_system.Util.RoleMask;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
@@ -18,6 +21,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static com.example.student_management_system.Config.RoleMaskAuthorizationManager.hasRole;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -45,15 +50,11 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    // Role hierarchy definition
+    // Role hierarchy definition (shared with RoleMask, which precomputes it for URL checks)
     @Bean
     public RoleHierarchyImpl roleHierarchy() {
         RoleHierarchyImpl hierarchy = new RoleHierarchyImpl();
-        hierarchy.setHierarchy(
-                "ROLE_SUPER_MANAGER > ROLE_MANAGER\n" +
-                        "ROLE_MANAGER > ROLE_TEACHER\n" +
-                        "ROLE_TEACHER > ROLE_STUDENT"
-        );
+        hierarchy.setHierarchy(RoleMask.HIERARCHY);
         return hierarchy;
     }
 
@@ -78,12 +79,18 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // The request was authorized when it started; this is the completion of a stream (SSE)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/login", "/api/auth/signup").permitAll()
+                        // Role checks test a bit of the token's role mask (RoleMaskAuthorizationManager)
+                        .requestMatchers("/api/auth/revoke").access(hasRole(Role.MANAGER))
+                        // Shows SQL text and plans of every school on the node
+                        .requestMatchers("/api/managers/slow-queries/**").access(hasRole(Role.SUPER_MANAGER))
 
-                        .requestMatchers("/api/managers/**").hasRole("MANAGER")
-                        .requestMatchers("/api/teachers/**").hasRole("TEACHER")
-                        .requestMatchers("/api/students/**").hasRole("STUDENT")
-                        .requestMatchers("/api/exams/**").hasRole("STUDENT")
+                        // Path groups live in RouteGroup, which the bulkheads share
+                        .requestMatchers(RouteGroup.MANAGER.getPatterns()).access(hasRole(RouteGroup.MANAGER.getRole()))
+                        .requestMatchers(RouteGroup.TEACHER.getPatterns()).access(hasRole(RouteGroup.TEACHER.getRole()))
+                        .requestMatchers(RouteGroup.STUDENT.getPatterns()).access(hasRole(RouteGroup.STUDENT.getRole()))
 
                         .anyRequest().authenticated()
                 )
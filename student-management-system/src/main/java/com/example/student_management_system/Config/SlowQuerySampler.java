@@ -0,0 +1,344 @@
+package com.example.student_management_system.Config;
+
+import com.example.student_management_system.DTOS.SlowQueryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Times every JDBC statement Hibernate runs (connections are wrapped by TenantConnectionProvider). Statements
+// slower than min-ms are grouped by shape (literals and IN lists folded) and attributed to the controller and
+// repository method that issued them (QueryAttribution). Stats cover the current and previous window, so the
+// ranking is rolling. A statement slower than explain-threshold-ms gets its plan captured in the background
+// with EXPLAIN (ANALYZE, BUFFERS), replaying its parameters in a rolled-back transaction; only plain reads are
+// explained, and each shape at most once per cooldown.
+@Component
+public class SlowQuerySampler {
+    private static final Logger log = LoggerFactory.getLogger(SlowQuerySampler.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WRITES = Pattern.compile(
+            "\\b(insert|update|delete|merge|truncate|nextval|setval)\\b|\\bfor\\s+(no\\s+key\\s+)?(update|share)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final int MAX_CALLERS = 10;
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record CapturedPlan(String plan, long durationMs, LocalDateTime capturedAt) {
+    }
+
+    private static final class ShapeStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final Map<String, LongAdder> callers = new ConcurrentHashMap<>();
+        volatile String slowestCaller;
+        volatile LocalDateTime lastSeen;
+    }
+
+    private final ObjectProvider<TenantConnectionProvider> connectionProvider;
+    private final long minNanos;
+    private final long explainNanos;
+    private final long explainCooldownMs;
+    private final long explainTimeoutMs;
+    private final int maxShapes;
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+        Thread thread = new Thread(runnable, "slow-query-explain");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private volatile Map<String, ShapeStats> current = new ConcurrentHashMap<>();
+    private volatile Map<String, ShapeStats> previous = new ConcurrentHashMap<>();
+    private final Map<String, CapturedPlan> plans = new ConcurrentHashMap<>();
+    private final Map<String, Long> explainedAt = new ConcurrentHashMap<>();
+    // Hibernate reuses its SQL strings, so the regex work is done once per statement text
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlowQuerySampler(ObjectProvider<TenantConnectionProvider> connectionProvider,
+                            @Value("${app.slow-query.min-ms}") long minMs,
+                            @Value("${app.slow-query.explain-threshold-ms}") long explainThresholdMs,
+                            @Value("${app.slow-query.explain-cooldown-ms}") long explainCooldownMs,
+                            @Value("${app.slow-query.explain-timeout-ms}") long explainTimeoutMs,
+                            @Value("${app.slow-query.max-shapes}") int maxShapes) {
+        this.connectionProvider = connectionProvider;
+        this.minNanos = TimeUnit.MILLISECONDS.toNanos(minMs);
+        this.explainNanos = TimeUnit.MILLISECONDS.toNanos(explainThresholdMs);
+        this.explainCooldownMs = explainCooldownMs;
+        this.explainTimeoutMs = explainTimeoutMs;
+        this.maxShapes = maxShapes;
+    }
+
+    public Connection wrap(Connection connection, String tenant) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, tenant));
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String tenant;
+
+        ConnectionHandler(Connection target, String tenant) {
+            this.target = target;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) return proxy == args[0];
+            Object result = call(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(statement, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(statement, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Statement statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql, tenant));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final String tenant;
+        private List<Binding> bindings = new ArrayList<>();
+        private boolean replayable = true;
+
+        StatementHandler(Statement target, String sql, String tenant) {
+            this.target = target;
+            this.sql = sql;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals") && method.getParameterCount() == 1) return proxy == args[0];
+            if (!name.startsWith("execute")) {
+                if (method.getDeclaringClass() == PreparedStatement.class && name.startsWith("set")) {
+                    bind(method, args);
+                } else if (name.equals("clearParameters")) {
+                    bindings = new ArrayList<>();
+                } else if (name.equals("addBatch")) {
+                    replayable = false;
+                }
+                return call(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return call(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= minNanos) {
+                    String statementSql = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                    if (statementSql != null) {
+                        record(statementSql, elapsed, sql != null && replayable ? bindings : null, tenant);
+                    }
+                }
+            }
+        }
+
+        private void bind(Method method, Object[] args) {
+            for (Object arg : args) {
+                if (arg instanceof InputStream || arg instanceof Reader) {
+                    replayable = false;
+                }
+            }
+            bindings.add(new Binding(method, args.clone()));
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void record(String sql, long nanos, List<Binding> bindings, String tenant) {
+        String shape = shapes.size() < 10_000 ? shapes.computeIfAbsent(sql, SlowQuerySampler::shapeOf) : shapeOf(sql);
+        Map<String, ShapeStats> window = current;
+        ShapeStats stats = window.get(shape);
+        if (stats == null) {
+            if (window.size() >= maxShapes) return;
+            stats = window.computeIfAbsent(shape, s -> new ShapeStats());
+        }
+        String caller = caller();
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        stats.lastSeen = LocalDateTime.now();
+        if (stats.maxNanos.accumulateAndGet(nanos, Math::max) == nanos) {
+            stats.slowestCaller = caller;
+        }
+        LongAdder calls = stats.callers.get(caller);
+        if (calls == null && stats.callers.size() < MAX_CALLERS) {
+            calls = stats.callers.computeIfAbsent(caller, c -> new LongAdder());
+        }
+        if (calls != null) {
+            calls.increment();
+        }
+        if (nanos >= explainNanos && bindings != null && !WRITES.matcher(sql).find()) {
+            scheduleExplain(shape, sql, bindings, tenant, nanos);
+        }
+    }
+
+    private static String caller() {
+        String endpoint = QueryAttribution.endpoint();
+        String repository = QueryAttribution.repository();
+        return (endpoint != null ? endpoint : "(background)") + " -> " + (repository != null ? repository : "(direct)");
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private void scheduleExplain(String shape, String sql, List<Binding> bindings, String tenant, long nanos) {
+        long now = System.currentTimeMillis();
+        Long last = explainedAt.get(shape);
+        if (last != null && now - last < explainCooldownMs) return;
+        if (explainedAt.compute(shape, (s, at) -> at == null || now - at >= explainCooldownMs ? now : at) != now) {
+            return; // another thread got there first
+        }
+        List<Binding> replay = List.copyOf(bindings);
+        explainer.execute(() -> plans.put(shape,
+                new CapturedPlan(explain(sql, replay, tenant), TimeUnit.NANOSECONDS.toMillis(nanos), LocalDateTime.now())));
+    }
+
+    // Runs on its own (unwrapped) connection for the statement's tenant, never in the caller's transaction
+    private String explain(String sql, List<Binding> bindings, String tenant) {
+        TenantConnectionProvider provider = connectionProvider.getObject();
+        String explainTenant = tenant != null ? tenant : TenantContext.ROOT;
+        try {
+            Connection connection = provider.openConnection(explainTenant);
+            try {
+                connection.setAutoCommit(false);
+                try (Statement timeout = connection.createStatement()) {
+                    timeout.execute("SET LOCAL statement_timeout = " + explainTimeoutMs);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                    for (Binding binding : bindings) {
+                        binding.method().invoke(statement, binding.args());
+                    }
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            plan.append(rows.getString(1)).append('\n');
+                        }
+                    }
+                }
+                return plan.toString();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                provider.releaseConnection(explainTenant, connection);
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            log.debug("Could not capture plan for {}", sql, e);
+            return "EXPLAIN failed: " + e;
+        }
+    }
+
+    // Rolls the window: the report always covers between one and two windows of history
+    @Scheduled(fixedDelayString = "${app.slow-query.window-ms}")
+    public void rotate() {
+        previous = current;
+        current = new ConcurrentHashMap<>();
+        plans.keySet().retainAll(previous.keySet());
+        explainedAt.keySet().retainAll(previous.keySet());
+        if (shapes.size() >= 10_000) {
+            shapes.clear();
+        }
+    }
+
+    // Slowest shapes first (by maximum duration)
+    public List<SlowQueryDTO> top(int limit) {
+        Map<String, SlowQueryDTO> merged = new HashMap<>();
+        for (Map<String, ShapeStats> window : List.of(previous, current)) {
+            for (Map.Entry<String, ShapeStats> entry : window.entrySet()) {
+                ShapeStats stats = entry.getValue();
+                SlowQueryDTO row = merged.computeIfAbsent(entry.getKey(), shape -> {
+                    SlowQueryDTO dto = new SlowQueryDTO();
+                    dto.setShape(shape);
+                    dto.setCallers(new HashMap<>());
+                    return dto;
+                });
+                long count = stats.count.sum();
+                double maxMs = stats.maxNanos.get() / 1e6;
+                row.setTotalMs(row.getTotalMs() + stats.totalNanos.sum() / 1e6);
+                row.setCount(row.getCount() + count);
+                if (maxMs >= row.getMaxMs()) {
+                    row.setMaxMs(maxMs);
+                    row.setSlowestCaller(stats.slowestCaller);
+                }
+                row.setLastSeen(stats.lastSeen);
+                stats.callers.forEach((caller, calls) -> row.getCallers().merge(caller, calls.sum(), Long::sum));
+            }
+        }
+        List<SlowQueryDTO> rows = new ArrayList<>(merged.values());
+        rows.sort(Comparator.comparingDouble(SlowQueryDTO::getMaxMs).reversed());
+        List<SlowQueryDTO> result = rows.subList(0, Math.min(limit, rows.size()));
+        for (SlowQueryDTO row : result) {
+            row.setMeanMs(row.getCount() == 0 ? 0 : row.getTotalMs() / row.getCount());
+            CapturedPlan plan = plans.get(row.getShape());
+            if (plan != null) {
+                row.setPlan(plan.plan());
+                row.setPlanSampleMs(plan.durationMs());
+                row.setPlanCapturedAt(plan.capturedAt());
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainer.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.student_management_system.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Where each tenant's data lives. Tenants not listed share the main database and schema and are
+// separated by the tenant_id column; a listed tenant can be given its own schema or its own database
+// (with its own connection pool) purely through configuration, e.g.
+//   app.tenancy.tenants.north-high.schema=north_high
+//   app.tenancy.tenants.city-college.url=jdbc:postgresql://db2:5432/city_college
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.tenancy")
+public class TenancyProperties {
+
+    private String defaultTenant = "default";
+    private Map<String, Placement> tenants = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Placement {
+        // Schema inside the main database
+        private String schema;
+        // Dedicated database
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+
+        public boolean dedicated() {
+            return schema != null || url != null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.student_management_system.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hands Hibernate a connection for the tenant's placement: the shared pool, the shared pool switched
+// to the tenant's schema, or the tenant's own pool on its own database. Connections are wrapped so
+// SlowQuerySampler can time the statements run on them.
+@Component
+public class TenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource sharedDataSource;
+    private final TenancyProperties properties;
+    private final SlowQuerySampler slowQuerySampler;
+    private final Map<String, HikariDataSource> dedicatedPools = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TenantConnectionProvider(DataSource sharedDataSource, TenancyProperties properties,
+                                    SlowQuerySampler slowQuerySampler) {
+        this.sharedDataSource = sharedDataSource;
+        this.properties = properties;
+        this.slowQuerySampler = slowQuerySampler;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return slowQuerySampler.wrap(sharedDataSource.getConnection(), null);
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        return slowQuerySampler.wrap(openConnection(tenant), tenant);
+    }
+
+    // Unwrapped connection for the tenant's placement, released through releaseConnection
+    public Connection openConnection(String tenant) throws SQLException {
+        TenancyProperties.Placement placement = properties.getTenants().get(tenant);
+        if (placement == null || !placement.dedicated()) {
+            return sharedDataSource.getConnection();
+        }
+        if (placement.getUrl() != null) {
+            return dedicatedPools.computeIfAbsent(tenant, t -> createPool(t, placement)).getConnection();
+        }
+        Connection connection = sharedDataSource.getConnection();
+        connection.setSchema(placement.getSchema());
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        TenancyProperties.Placement placement = properties.getTenants().get(tenant);
+        if (placement != null && placement.getSchema() != null && placement.getUrl() == null) {
+            connection.setSchema("public"); // don't hand a tenant schema back to the shared pool
+        }
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+
+    private HikariDataSource createPool(String tenant, TenancyProperties.Placement placement) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("tenant-" + tenant);
+        pool.setJdbcUrl(placement.getUrl());
+        pool.setUsername(placement.getUsername());
+        pool.setPassword(placement.getPassword());
+        if (placement.getMaximumPoolSize() != null) {
+            pool.setMaximumPoolSize(placement.getMaximumPoolSize());
+        }
+        if (placement.getSchema() != null) {
+            pool.setSchema(placement.getSchema());
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void close() {
+        dedicatedPools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.student_management_system.Config;
+
+import java.util.function.Supplier;
+
+// Tenant (school) of the current thread. Set from the JWT "tid" claim for each request (from the
+// X-Tenant-ID header only on login and signup); background work runs either as a specific tenant or as ROOT, which Hibernate lets
+// see every tenant stored in the shared database.
+public final class TenantContext {
+
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    // null when nothing was set; TenantIdentifierResolver then falls back to the default tenant
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    public static void runAs(String tenant, Runnable action) {
+        callAs(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
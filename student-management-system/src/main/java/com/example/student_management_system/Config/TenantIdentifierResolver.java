@@ -0,0 +1,33 @@
+package com.example.student_management_system.Config;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    private final TenancyProperties properties;
+
+    @Autowired
+    public TenantIdentifierResolver(TenancyProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : properties.getDefaultTenant();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    // ROOT reads across every tenant in the shared database and may assign tenant ids explicitly
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.student_management_system.Config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// The separate stores background jobs have to visit: the shared database (as ROOT, covering every
+// tenant kept there) plus each tenant that has its own schema or database.
+@Component
+public class TenantPartitions {
+
+    private final TenancyProperties properties;
+
+    @Autowired
+    public TenantPartitions(TenancyProperties properties) {
+        this.properties = properties;
+    }
+
+    public List<String> all() {
+        List<String> partitions = new ArrayList<>();
+        partitions.add(TenantContext.ROOT);
+        properties.getTenants().forEach((tenant, placement) -> {
+            if (placement.dedicated()) partitions.add(tenant);
+        });
+        return partitions;
+    }
+
+    public void forEach(Consumer<String> action) {
+        for (String partition : all()) {
+            TenantContext.runAs(partition, () -> action.accept(partition));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedExamDTO {
+    private Long examId;
+    private Long studentId;
+    private Long subjectId;
+    private Long teacherId;
+    private Long examSlotId;
+    private LocalDateTime examDate;
+    private Integer term;
+    private boolean passed;
+    private Double score;
+}
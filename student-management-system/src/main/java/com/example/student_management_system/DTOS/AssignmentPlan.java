@@ -0,0 +1,52 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentPlan {
+    private LocalDateTime solvedAt;
+    // True when only enrollment counts changed since the last run and the previous solution was repaired
+    private boolean incremental;
+    private long solveMillis;
+    private long cost;
+    private int sectionsNeeded;
+    private int sectionsUnassigned;
+    private int maxLoad;
+    private double meanLoad;
+    private boolean applied;
+    private List<Assignment> assignments;
+    // Subjects that could not be fully staffed
+    private List<Shortfall> shortfalls;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+        private Long teacherId;
+        private String teacherName;
+        private Long subjectId;
+        private String subjectName;
+        private int sections;
+        // false: covered by a teacher of the specialists' department
+        private boolean specialist;
+        // true: the teacher is not linked to this subject today
+        private boolean added;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shortfall {
+        private Long subjectId;
+        private String subjectName;
+        private int sectionsNeeded;
+        private int sectionsUnassigned;
+    }
+}
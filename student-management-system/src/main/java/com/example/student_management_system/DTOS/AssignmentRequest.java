@@ -0,0 +1,15 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Overrides of the app.assignment.* defaults; every field is optional
+@Getter
+@Setter
+public class AssignmentRequest {
+    // Students per section; a subject needs ceil(students / sectionSize) sections
+    private Integer sectionSize;
+    private Integer maxSectionsPerTeacher;
+    // Let teachers of a subject specialist's department cover it when specialists run out
+    private Boolean allowDepartmentFallback;
+}
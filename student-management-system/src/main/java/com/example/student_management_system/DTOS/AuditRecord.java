@@ -0,0 +1,34 @@
+package com.example.student_management_system.DTOS;
+
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+    private LocalDateTime at;
+    private AuditEntityType entity;
+    private Long entityId;
+    private AuditAction action;
+    private String tenantId;
+    // Username of the authenticated caller; null for scheduled jobs and outbox consumers
+    private String actor;
+    private List<Change> changes;
+
+    // Entity references are recorded by id, enums by name
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private String field;
+        private Object oldValue;
+        private Object newValue;
+    }
+}
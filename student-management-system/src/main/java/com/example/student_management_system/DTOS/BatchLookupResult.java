@@ -0,0 +1,17 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Multi-get response: found rows in the requested id order, plus the ids that matched nothing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResult {
+    private List<Map<String, Object>> items;
+    private List<Long> missing;
+}
@@ -0,0 +1,18 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResult {
+    private long approved;
+    // Enrollments approved by this call, in ascending order
+    private List<Long> approvedIds;
+    // Requested ids left unchanged: already approved (e.g. by an earlier attempt) or not found
+    private List<Long> skippedIds;
+}
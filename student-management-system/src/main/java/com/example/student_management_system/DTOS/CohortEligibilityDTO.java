@@ -0,0 +1,31 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// What the students of a level may enroll in next: not taken yet, every prerequisite passed, and below the
+// per-student subject limit
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortEligibilityDTO {
+    private int level;
+    private int students;
+    // Subjects at least one student may take, prerequisites first
+    private List<SubjectRow> subjects;
+    private Map<Long, List<Long>> eligibleByStudent;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubjectRow {
+        private Long subjectId;
+        private String name;
+        private Integer level;
+        private int eligibleStudents;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+    private List<LevelRow> levels;
+    private List<DepartmentRow> departments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LevelRow {
+        private int level;
+        private long students;
+    }
+
+    // department is "" for subjects without an assigned teacher and teachers without a department
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DepartmentRow {
+        private String department;
+        private long teachers;
+        private double salaryTotal;
+        private long enrollments;
+        private long pendingPayments;
+        private long passedEnrollments;
+        // passedEnrollments / enrollments, null without enrollments
+        private Double passRate;
+    }
+}
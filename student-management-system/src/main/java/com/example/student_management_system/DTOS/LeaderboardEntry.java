@@ -0,0 +1,17 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private int rank;
+    private Long studentId;
+    // Exam score for subject boards, GPA for level boards
+    private double value;
+    // Exam the score comes from; null on level boards
+    private Long examId;
+}
@@ -0,0 +1,17 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingPaymentDTO {
+    private Long studentSubjectId;
+    private Long studentId;
+    private String username;
+    private Integer level;
+    private Long subjectId;
+    private String subjectName;
+}
@@ -0,0 +1,16 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingPaymentsPage {
+    private List<PendingPaymentDTO> items;
+    // Pass as afterId to get the next page; null on the last page
+    private Long nextAfterId;
+}
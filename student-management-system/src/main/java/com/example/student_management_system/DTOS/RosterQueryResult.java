@@ -0,0 +1,18 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterQueryResult {
+    private long count;
+    // Student ids in ascending order; null when only the count was asked for
+    private List<Long> ids;
+    // Pass as afterId to get the next page; null on the last page
+    private Long nextAfterId;
+}
@@ -0,0 +1,26 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// One statement shape (literals replaced by ?) among the slow statements of the last one to two windows
+@Data
+@NoArgsConstructor
+public class SlowQueryDTO {
+    private String shape;
+    private long count;
+    private double totalMs;
+    private double meanMs;
+    private double maxMs;
+    // "Controller#method -> Repository#method" of each caller (capped), with how often it was slow
+    private Map<String, Long> callers;
+    private String slowestCaller;
+    private LocalDateTime lastSeen;
+    // EXPLAIN (ANALYZE, BUFFERS) of one slow execution, when one was captured
+    private String plan;
+    private Long planSampleMs;
+    private LocalDateTime planCapturedAt;
+}
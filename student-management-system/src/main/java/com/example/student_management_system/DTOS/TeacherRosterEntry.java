@@ -0,0 +1,20 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherRosterEntry {
+    private Long studentSubjectId;
+    private Long studentId;
+    private String name;
+    private String username;
+    private Integer level;
+    private Long subjectId;
+    private String subjectName;
+    private boolean paymentApproved;
+    private boolean examPassed;
+}
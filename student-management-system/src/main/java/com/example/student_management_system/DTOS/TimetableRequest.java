@@ -0,0 +1,26 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class TimetableRequest {
+    private String name;
+    private LocalDateTime firstSlotStart;
+    private Integer slotCount;
+    private Integer slotMinutes;
+    private Integer slotsPerDay;
+    // Rooms available in every slot
+    private List<Room> rooms;
+
+    @Getter
+    @Setter
+    public static class Room {
+        private String name;
+        private Integer capacity;
+    }
+}
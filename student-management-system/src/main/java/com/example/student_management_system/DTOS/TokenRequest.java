@@ -0,0 +1,11 @@
+package com.example.student_management_system.DTOS;
+
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TokenRequest {
+    private String token;
+}
@@ -0,0 +1,14 @@
+package com.example.student_management_system.DTOS;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 409 body of the PATCH endpoints; currentVersion is null if the row no longer exists
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionConflictDTO {
+    private String message;
+    private Long currentVersion;
+}
@@ -0,0 +1,8 @@
+package com.example.student_management_system.Enum;
+
+// Stored by ordinal in the audit log: only ever append new values
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
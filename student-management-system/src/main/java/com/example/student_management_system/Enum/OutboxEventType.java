@@ -0,0 +1,17 @@
+package com.example.student_management_system.Enum;
+
+public enum OutboxEventType {
+    EXAM_CREATED,
+    ENROLLMENT_CREATED,
+    PAYMENT_APPROVED,
+    STUDENT_SAVED,
+    STUDENT_PROMOTED,
+    STUDENT_DELETED,
+    STUDENT_ARCHIVED,
+    STUDENT_REACTIVATED,
+    ENROLLMENT_PASSED,
+    TEACHER_SAVED,
+    TEACHER_DELETED,
+    PREREQUISITES_CHANGED,
+    TEACHER_SUBJECTS_CHANGED
+}
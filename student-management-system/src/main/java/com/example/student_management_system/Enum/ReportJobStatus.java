@@ -0,0 +1,9 @@
+package com.example.student_management_system.Enum;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,6 @@
+package com.example.student_management_system.Enum;
+
+public enum ReportType {
+    TRANSCRIPTS,
+    ROSTERS
+}
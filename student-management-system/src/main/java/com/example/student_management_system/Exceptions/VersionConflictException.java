@@ -0,0 +1,15 @@
+package com.example.student_management_system.Exceptions;
+
+// The row was changed since the client read it; currentVersion is what it should re-read and retry with
+public class VersionConflictException extends RuntimeException {
+    private final Long currentVersion;
+
+    public VersionConflictException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
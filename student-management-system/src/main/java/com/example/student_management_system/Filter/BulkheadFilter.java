@@ -0,0 +1,95 @@
+package com.example.student_management_system.Filter;
+
+import com.example.student_management_system.Config.BulkheadProperties;
+import com.example.student_management_system.Config.PoolPressureMonitor;
+import com.example.student_management_system.Config.RouteGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Gives each RouteGroup its own concurrency limit, so a burst of manager reports can't take every
+// Tomcat thread and connection away from logins. Under pool pressure, low-priority groups are refused
+// before they reach the database. Both cases answer 503 with Retry-After.
+// Metrics: bulkhead.active / bulkhead.limit (gauges) and bulkhead.rejected (counter, reason=full|shed), by group.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadProperties properties;
+    private final PoolPressureMonitor pressureMonitor;
+    private final Map<RouteGroup, Semaphore> permits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejectedFull = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejectedShed = new EnumMap<>(RouteGroup.class);
+
+    @Autowired
+    public BulkheadFilter(BulkheadProperties properties, PoolPressureMonitor pressureMonitor, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pressureMonitor = pressureMonitor;
+        for (RouteGroup group : RouteGroup.values()) {
+            int limit = properties.getMaxConcurrent().getOrDefault(group, Integer.MAX_VALUE);
+            Semaphore semaphore = new Semaphore(limit);
+            permits.put(group, semaphore);
+            String tag = group.name().toLowerCase();
+            Gauge.builder("bulkhead.active", semaphore, s -> limit - s.availablePermits()).tag("group", tag).register(meterRegistry);
+            Gauge.builder("bulkhead.limit", () -> limit).tag("group", tag).register(meterRegistry);
+            rejectedFull.put(group, meterRegistry.counter("bulkhead.rejected", "group", tag, "reason", "full"));
+            rejectedShed.put(group, meterRegistry.counter("bulkhead.rejected", "group", tag, "reason", "shed"));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = RouteGroup.of(request.getRequestURI().substring(request.getContextPath().length()));
+
+        int shedAt = properties.getShedAt().getOrDefault(group, 0);
+        if (shedAt > 0 && pressureMonitor.getLevel() >= shedAt) {
+            rejectedShed.get(group).increment();
+            reject(response, "Service is shedding load, retry later");
+            return;
+        }
+
+        Semaphore semaphore = permits.get(group);
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(properties.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedFull.get(group).increment();
+            reject(response, "Too many concurrent requests, retry later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType("text/plain");
+        response.getWriter().write(message);
+    }
+}
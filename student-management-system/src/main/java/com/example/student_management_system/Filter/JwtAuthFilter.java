@@ -1,12 +1,14 @@
 package com.example.student_management_system.Filter;
 
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
 import com.example.student_management_system.Util.JwtUtil;
+import com.example.student_management_system.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,23 +16,27 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
+
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TenancyProperties tenancyProperties;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                         TokenRevocationService tokenRevocationService, TenancyProperties tenancyProperties) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.tenancyProperties = tenancyProperties;
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        return path.matches("^/api/auth/(signup|login)$");
+        return path.matches(TenantFilter.AUTH_ENTRY_PATHS);
     }
 
     @Override
@@ -46,23 +52,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String jwtToken = authHeader.substring(7);
-        if (!jwtUtil.validateToken(jwtToken)) {
+        Claims claims = jwtUtil.parseValidToken(jwtToken);
+        if (claims == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = jwtUtil.getUsernameFromToken(jwtToken);
+        // Revoked (logged out) tokens are treated as anonymous
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String username = claims.getSubject();
+
+        // The token alone decides the tenant; tokens without a tid claim (issued before it existed, or for a
+        // user without a tenant) belong to the default tenant
+        String tenant = claims.get("tid", String.class);
+        TenantContext.set(tenant != null ? tenant : tenancyProperties.getDefaultTenant());
 
         // If already authenticated, continue
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Prefer roles from token (single source of truth for stateless auth)
-            List<String> roles = jwtUtil.getRolesFromToken(jwtToken);
-            var authorities = roles.stream()
-                    .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
-                    .collect(Collectors.toList());
-
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
+            // Roles come from the token (single source of truth for stateless auth), as a bitmask whose
+            // expanded authorities are shared between requests
+            int roleMask = jwtUtil.getRoleMask(claims);
+
+            RoleMaskAuthentication authToken = new RoleMaskAuthentication(username, roleMask);
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
@@ -0,0 +1,20 @@
+package com.example.student_management_system.Filter;
+
+import com.example.student_management_system.Util.RoleMask;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+// Authentication built from a token: the principal is the username, the authorities are the shared
+// pre-expanded set of the token's roles, and the reachable role mask is kept for RoleMaskAuthorizationManager
+public class RoleMaskAuthentication extends UsernamePasswordAuthenticationToken {
+
+    private final int reachableRoles;
+
+    public RoleMaskAuthentication(String username, int roleMask) {
+        super(username, null, RoleMask.authorities(roleMask));
+        this.reachableRoles = RoleMask.reachable(roleMask);
+    }
+
+    public int getReachableRoles() {
+        return reachableRoles;
+    }
+}
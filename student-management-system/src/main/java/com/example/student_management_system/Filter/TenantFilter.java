@@ -0,0 +1,40 @@
+package com.example.student_management_system.Filter;
+
+import com.example.student_management_system.Config.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Runs before the security chain. Takes the tenant from X-Tenant-ID only on signup and login (needed for
+// tenants on their own database); every other request gets its tenant from the token in JwtAuthFilter, so
+// the header can't switch an authenticated caller to another school. Always clears the context when done.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+    // The unauthenticated entry points; JwtAuthFilter skips them
+    public static final String AUTH_ENTRY_PATHS = "^/api/auth/(signup|login)$";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String tenant = request.getServletPath().matches(AUTH_ENTRY_PATHS) ? request.getHeader(TENANT_HEADER) : null;
+        if (tenant != null && !tenant.isBlank() && !TenantContext.ROOT.equals(tenant.trim())) {
+            TenantContext.set(tenant.trim());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
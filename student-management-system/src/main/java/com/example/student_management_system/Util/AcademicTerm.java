@@ -0,0 +1,38 @@
+package com.example.student_management_system.Util;
+
+import java.time.LocalDate;
+
+// Terms are encoded as year * 10 + half: 20251 is January-June 2025, 20252 is July-December 2025.
+// The encoding orders naturally, which is what exam table range partitioning relies on.
+public final class AcademicTerm {
+
+    private AcademicTerm() {
+    }
+
+    public static int of(LocalDate date) {
+        return date.getYear() * 10 + (date.getMonthValue() >= 7 ? 2 : 1);
+    }
+
+    public static int current() {
+        return of(LocalDate.now());
+    }
+
+    public static int next(int term) {
+        return term % 10 == 1 ? term + 1 : (term / 10 + 1) * 10 + 1;
+    }
+
+    public static int previous(int term) {
+        return term % 10 == 2 ? term - 1 : (term / 10 - 1) * 10 + 2;
+    }
+
+    public static int minus(int term, int terms) {
+        for (int i = 0; i < terms; i++) {
+            term = previous(term);
+        }
+        return term;
+    }
+
+    public static boolean isValid(int term) {
+        return term % 10 == 1 || term % 10 == 2;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -21,12 +22,15 @@ public class JwtUtil {
         this.jwtExpirationMs = jwtExpirationMs;
     }
 
-    public String generateToken(String username, List<String> roles) {
+    // Roles go in as a bitmask ("rm", see RoleMask) rather than a list of names
+    public String generateToken(String username, List<String> roles, String tenant) {
         Claims claims = Jwts.claims().setSubject(username);
-        claims.put("roles", roles);
+        claims.put("rm", RoleMask.of(roles));
+        claims.put("tid", tenant);
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -38,15 +42,31 @@ public class JwtUtil {
                 .parseClaimsJws(token).getBody().getSubject();
     }
 
-    @SuppressWarnings("unchecked")
-    public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
+    public Claims getClaimsFromToken(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build()
                 .parseClaimsJws(token).getBody();
-        Object rolesObj = claims.get("roles");
-        if (rolesObj instanceof List) {
-            return (List<String>) rolesObj;
+    }
+
+    // Verifies and parses in one pass; null for an invalid or expired token
+    public Claims parseValidToken(String token) {
+        try {
+            return getClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Tokens issued before the "rm" claim carry a "roles" list of names
+    public int getRoleMask(Claims claims) {
+        Number mask = claims.get("rm", Number.class);
+        if (mask != null) {
+            return mask.intValue();
+        }
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> names) {
+            return RoleMask.of(names.stream().map(String::valueOf).toList());
         }
-        return List.of();
+        return 0;
     }
 
     public boolean validateToken(String token) {
@@ -0,0 +1,87 @@
+package com.example.student_management_system.Util;
+
+import com.example.student_management_system.Enum.Role;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Roles as a bitmask, one bit per Role ordinal; that is what the "rm" token claim carries. Everything the
+// hierarchy implies is worked out once per possible mask, so a request needs no parsing of role names, no
+// authority objects of its own and no hierarchy walk.
+public final class RoleMask {
+
+    public static final String HIERARCHY = """
+            ROLE_SUPER_MANAGER > ROLE_MANAGER
+            ROLE_MANAGER > ROLE_TEACHER
+            ROLE_TEACHER > ROLE_STUDENT""";
+
+    private static final Role[] ROLES = Role.values();
+    private static final int[] REACHABLE = new int[1 << ROLES.length];
+    private static final List<List<GrantedAuthority>> AUTHORITIES = new ArrayList<>(REACHABLE.length);
+
+    static {
+        RoleHierarchyImpl hierarchy = new RoleHierarchyImpl();
+        hierarchy.setHierarchy(HIERARCHY);
+        int[] reachableByRole = new int[ROLES.length];
+        for (Role role : ROLES) {
+            reachableByRole[role.ordinal()] = ofAuthorities(hierarchy.getReachableGrantedAuthorities(
+                    List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
+        }
+        for (int mask = 0; mask < REACHABLE.length; mask++) {
+            int reachable = 0;
+            for (Role role : ROLES) {
+                if ((mask & bit(role)) != 0) reachable |= reachableByRole[role.ordinal()];
+            }
+            REACHABLE[mask] = reachable;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : ROLES) {
+                if ((reachable & bit(role)) != 0) authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+            }
+            AUTHORITIES.add(List.copyOf(authorities));
+        }
+    }
+
+    private RoleMask() {
+    }
+
+    public static int bit(Role role) {
+        return 1 << role.ordinal();
+    }
+
+    // Role names without the ROLE_ prefix; unknown names are ignored
+    public static int of(Collection<String> roles) {
+        int mask = 0;
+        for (String name : roles) {
+            for (Role role : ROLES) {
+                if (role.name().equals(name)) mask |= bit(role);
+            }
+        }
+        return mask;
+    }
+
+    public static int ofAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name == null || !name.startsWith("ROLE_")) continue;
+            for (Role role : ROLES) {
+                if (name.length() == role.name().length() + 5 && name.endsWith(role.name())) mask |= bit(role);
+            }
+        }
+        return mask;
+    }
+
+    // The mask plus every role below those in it
+    public static int reachable(int mask) {
+        return REACHABLE[mask & (REACHABLE.length - 1)];
+    }
+
+    // Shared, immutable authorities of reachable(mask)
+    public static List<GrantedAuthority> authorities(int mask) {
+        return AUTHORITIES.get(mask & (REACHABLE.length - 1));
+    }
+}
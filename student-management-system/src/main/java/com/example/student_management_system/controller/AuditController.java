@@ -0,0 +1,39 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Enum.AuditEntityType;
+import com.example.student_management_system.service.AuditLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/managers/audit")
+public class AuditController {
+    private static final int MAX_LIMIT = 5000;
+
+    private final AuditLog auditLog;
+
+    @Autowired
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    // Audit trail recorded on this node, e.g. ?entity=ENROLLMENT&id=42&from=2025-01-01T00:00:00
+    @GetMapping
+    public ResponseEntity<?> getRecords(@RequestParam(required = false) AuditEntityType entity,
+                                        @RequestParam(required = false) Long id,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(defaultValue = "500") int limit) {
+        if (id != null && entity == null) {
+            return ResponseEntity.badRequest().body("entity is required when filtering by id");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(auditLog.query(entity, id, from, to, limit));
+    }
+}
@@ -2,10 +2,18 @@ package com.example.student_management_system.controller;
 
 import com.example.student_management_system.DTOS.UserDto;
 import com.example.student_management_system.DTOS.AuthResponse;
+import com.example.student_management_system.DTOS.TokenRequest;
 import com.example.student_management_system.Enum.Role;
 import com.example.student_management_system.Util.JwtUtil;
 import com.example.student_management_system.model.AppUser;
 import com.example.student_management_system.repositiory.UserRepository;
+import com.example.student_management_system.service.AuthService;
+import com.example.student_management_system.service.TenantUser;
+import com.example.student_management_system.service.TokenRevocationService;
+import com.example.student_management_system.service.UsernameFilterService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,13 +33,22 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameFilterService usernameFilterService;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthService authService;
 
     public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil,
-                          UserRepository userRepository, PasswordEncoder passwordEncoder) {
+                          UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          UsernameFilterService usernameFilterService,
+                          TokenRevocationService tokenRevocationService,
+                          AuthService authService) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameFilterService = usernameFilterService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authService = authService;
     }
 
     @PostMapping("/signup")
@@ -40,7 +57,8 @@ public class AuthController {
             return ResponseEntity.badRequest().body("username and password required");
         }
 
-        if (userRepository.existsByUsername(request.getUsername())) {
+        // Only go to the database when the filter says the name might be taken
+        if (usernameFilterService.isTaken(request.getUsername())) {
             return ResponseEntity.badRequest().body("Username already exists");
         }
 
@@ -59,7 +77,12 @@ public class AuthController {
             }
         }
         user.setRole(role);
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // lost a race with a concurrent signup; the unique constraint decides
+            return ResponseEntity.badRequest().body("Username already exists");
+        }
 
         return ResponseEntity.ok("User registered successfully");
     }
@@ -78,7 +101,9 @@ public class AuthController {
                     .map(a -> a.getAuthority().replace("ROLE_", ""))
                     .collect(Collectors.toList());
 
-            String token = jwtUtil.generateToken(userDetails.getUsername(), roles);
+            String tenant = userDetails instanceof TenantUser tenantUser ? tenantUser.getTenantId() : null;
+            String token = jwtUtil.generateToken(userDetails.getUsername(), roles, tenant);
+            authService.recordLogin(userDetails.getUsername());
 
             return ResponseEntity.ok(new AuthResponse(token));
         } catch (AuthenticationException e) {
@@ -86,4 +111,36 @@ public class AuthController {
         }
     }
 
+    // Revokes the caller's own token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader) {
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Bearer token required");
+        }
+        return revokeToken(authHeader.substring(7), "Logged out successfully");
+    }
+
+    // Revokes any token, e.g. a leaked one (manager only, see SecurityConfig)
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revoke(@RequestBody TokenRequest request) {
+        if (request.getToken() == null) {
+            return ResponseEntity.badRequest().body("token required");
+        }
+        return revokeToken(request.getToken(), "Token revoked");
+    }
+
+    private ResponseEntity<?> revokeToken(String token, String message) {
+        Claims claims;
+        try {
+            claims = jwtUtil.getClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid or expired token");
+        }
+        if (claims.getId() == null) {
+            return ResponseEntity.badRequest().body("Token has no id and cannot be revoked");
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration().getTime());
+        return ResponseEntity.ok(message);
+    }
+
 }
@@ -0,0 +1,30 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.DTOS.DashboardDTO;
+import com.example.student_management_system.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/managers/dashboard")
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public DashboardDTO getDashboard() {
+        return dashboardService.getDashboard();
+    }
+
+    // Recompute the summaries from the base tables, e.g. after loading data outside the application
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        dashboardService.rebuildAll();
+        return ResponseEntity.ok("Dashboard rebuilt");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.service.ExamArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/managers/exam-archive")
+public class ExamArchiveController {
+    private final ExamArchiveService examArchiveService;
+
+    @Autowired
+    public ExamArchiveController(ExamArchiveService examArchiveService) {
+        this.examArchiveService = examArchiveService;
+    }
+
+    // Archive a closed term now instead of waiting for the scheduled run
+    @PostMapping("/terms/{term}")
+    public ResponseEntity<?> archiveTerm(@PathVariable int term) {
+        try {
+            return ResponseEntity.ok(Map.of("term", term, "archived", examArchiveService.archiveTerm(term)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.DTOS.ArchivedExamDTO;
 import com.example.student_management_system.model.Exam;
+import com.example.student_management_system.service.ExamArchiveService;
+import com.example.student_management_system.service.EventStreamService;
 import com.example.student_management_system.service.ExamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -12,23 +18,47 @@ import java.util.List;
 public class ExamController {
 
     private final ExamService examService;
+    private final ExamArchiveService examArchiveService;
+    private final EventStreamService eventStreamService;
 
     @Autowired
-    public ExamController(ExamService examService) {
+    public ExamController(ExamService examService, ExamArchiveService examArchiveService,
+                          EventStreamService eventStreamService) {
         this.examService = examService;
+        this.examArchiveService = examArchiveService;
+        this.eventStreamService = eventStreamService;
     }
     @PostMapping("/create")
     public Exam createExam(@RequestParam Long studentId,
                            @RequestParam Long subjectId,
                            @RequestParam Long teacherId,
                            @RequestParam boolean passed,
-                           @RequestParam Double score) {
-        return examService.createExam(studentId, subjectId, teacherId, passed, score);
+                           @RequestParam Double score,
+                           @RequestParam(required = false) Long examSlotId) {
+        return examService.createExam(studentId, subjectId, teacherId, passed, score, examSlotId);
     }
 
 
     @GetMapping
-    public List<Exam> getExams(@RequestParam Long studentId, @RequestParam Long subjectId) {
-        return examService.getExamsForStudentSubject(studentId, subjectId);
+    public List<Exam> getExams(@RequestParam Long studentId, @RequestParam Long subjectId,
+                               @RequestParam(required = false) Integer term) {
+        return examService.getExamsForStudentSubject(studentId, subjectId, term);
+    }
+
+    // Exams of archived terms; slower than the live query since whole segments are decompressed
+    @GetMapping("/archive")
+    public List<ArchivedExamDTO> getArchivedExams(@RequestParam Long studentId,
+                                                  @RequestParam(required = false) Long subjectId,
+                                                  @RequestParam(required = false) Integer term) {
+        return examArchiveService.findArchived(studentId, subjectId, term);
+    }
+
+    // Push alternative to polling GET /api/exams: exam results, enrollment changes and promotions the caller may see.
+    // Reconnecting with Last-Event-ID resumes after the last event received.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication,
+                             @RequestParam(required = false) Long subjectId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventStreamService.subscribe(authentication.getName(), subjectId, lastEventId);
     }
 }
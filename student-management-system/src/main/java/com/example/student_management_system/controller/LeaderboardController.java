@@ -0,0 +1,41 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Served from memory (see LeaderboardService)
+@RestController
+@RequestMapping("/api/leaderboards")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // Best score per student in the subject; term defaults to the current one
+    @GetMapping("/subjects/{subjectId}")
+    public ResponseEntity<?> topForSubject(@PathVariable Long subjectId,
+                                           @RequestParam(required = false) Integer term,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.topForSubject(subjectId, term, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Students currently at the level, by GPA
+    @GetMapping("/levels/{level}")
+    public ResponseEntity<?> topForLevel(@PathVariable int level,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.topForLevel(level, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
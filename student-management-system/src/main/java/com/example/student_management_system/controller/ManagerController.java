@@ -1,12 +1,18 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.DTOS.VersionConflictDTO;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.Exceptions.VersionConflictException;
 import com.example.student_management_system.model.Manager;
 import com.example.student_management_system.service.ManagerService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -35,6 +41,20 @@ public class ManagerController {
     public Manager updateManager(@PathVariable Long id, @RequestBody Manager updatedManager){
         return managerService.updateManager(id, updatedManager);
     }
+    // Partial update: {"version": <last read>, ...fields to change}. 409 with the current version if the
+    // manager was saved by someone else in the meantime.
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchManager(@PathVariable Long id, @RequestBody JsonNode changes) {
+        try {
+            return ResponseEntity.ok(managerService.patchManager(id, changes));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new VersionConflictDTO(e.getMessage(), e.getCurrentVersion()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     @DeleteMapping("/{id}")
     public void deleteManager(@PathVariable Long id){
         managerService.deleteManager(id);
@@ -0,0 +1,79 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.StudentSubject;
+import com.example.student_management_system.service.PaymentApprovalService;
+import com.example.student_management_system.service.StudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/managers/payments")
+public class PaymentApprovalController {
+    private final PaymentApprovalService paymentApprovalService;
+    private final StudentService studentService;
+
+    @Autowired
+    public PaymentApprovalController(PaymentApprovalService paymentApprovalService, StudentService studentService) {
+        this.paymentApprovalService = paymentApprovalService;
+        this.studentService = studentService;
+    }
+
+    // Unapproved enrollments in id order; pass nextAfterId back as afterId for the next page
+    @GetMapping("/pending")
+    public ResponseEntity<?> pending(@RequestParam(required = false) Long afterId,
+                                     @RequestParam(required = false) Long subjectId,
+                                     @RequestParam(required = false) Integer level,
+                                     @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(paymentApprovalService.pending(afterId, subjectId, level, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{studentSubjectId}/approve")
+    public StudentSubject approve(@PathVariable Long studentSubjectId) {
+        return studentService.approvePayment(studentSubjectId);
+    }
+
+    // Body: a JSON array of enrollment (student_subject) ids
+    @PostMapping("/approve")
+    public ResponseEntity<?> approveIds(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(paymentApprovalService.approveIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/approve/subjects/{subjectId}")
+    public ResponseEntity<?> approveSubject(@PathVariable Long subjectId) {
+        try {
+            return ResponseEntity.ok(paymentApprovalService.approveSubject(subjectId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/approve/levels/{level}")
+    public ResponseEntity<?> approveLevel(@PathVariable int level) {
+        try {
+            return ResponseEntity.ok(paymentApprovalService.approveLevel(level));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/approve/departments/{department}")
+    public ResponseEntity<?> approveDepartment(@PathVariable String department) {
+        try {
+            return ResponseEntity.ok(paymentApprovalService.approveDepartment(department));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
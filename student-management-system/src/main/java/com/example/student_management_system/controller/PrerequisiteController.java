@@ -0,0 +1,60 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.service.PrerequisiteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/managers")
+public class PrerequisiteController {
+    private final PrerequisiteService prerequisiteService;
+
+    @Autowired
+    public PrerequisiteController(PrerequisiteService prerequisiteService) {
+        this.prerequisiteService = prerequisiteService;
+    }
+
+    // Ids of the subjects to pass first; ?transitive=true includes their prerequisites too
+    @GetMapping("/subjects/{subjectId}/prerequisites")
+    public ResponseEntity<?> getPrerequisites(@PathVariable Long subjectId,
+                                              @RequestParam(defaultValue = "false") boolean transitive) {
+        try {
+            return ResponseEntity.ok(prerequisiteService.getPrerequisites(subjectId, transitive));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // 400 if the prerequisite (transitively) requires the subject already
+    @PostMapping("/subjects/{subjectId}/prerequisites/{prerequisiteId}")
+    public ResponseEntity<?> addPrerequisite(@PathVariable Long subjectId, @PathVariable Long prerequisiteId) {
+        try {
+            return ResponseEntity.ok(prerequisiteService.addPrerequisite(subjectId, prerequisiteId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/subjects/{subjectId}/prerequisites/{prerequisiteId}")
+    public ResponseEntity<?> removePrerequisite(@PathVariable Long subjectId, @PathVariable Long prerequisiteId) {
+        try {
+            prerequisiteService.removePrerequisite(subjectId, prerequisiteId);
+            return ResponseEntity.noContent().build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // What the students of a level may enroll in next
+    @GetMapping("/cohorts/{level}/eligible-subjects")
+    public ResponseEntity<?> getEligibleSubjects(@PathVariable int level) {
+        if (level < 1 || level >= 6) {
+            return ResponseEntity.badRequest().body("level must be between 1 and 5");
+        }
+        return ResponseEntity.ok(prerequisiteService.cohortEligibility(level));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Enum.ReportType;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.ReportJob;
+import com.example.student_management_system.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/managers/reports")
+public class ReportJobController {
+    private final ReportJobService reportJobService;
+
+    @Autowired
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    // Queues transcripts of a level (?type=TRANSCRIPTS&level=3) or enrollment rosters (?type=ROSTERS, level optional)
+    @PostMapping
+    public ResponseEntity<?> submit(Authentication authentication,
+                                    @RequestParam ReportType type,
+                                    @RequestParam(required = false) Integer level) {
+        try {
+            ReportJob job = reportJobService.submit(type, level, authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(reportJobService.getJob(id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<?> download(@PathVariable Long id) {
+        try {
+            Path path = reportJobService.download(id);
+            String fileName = reportJobService.fileName(reportJobService.getJob(id));
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                    .contentType(new MediaType("text", "csv"))
+                    .body(new FileSystemResource(path));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        try {
+            boolean cancelled = reportJobService.cancel(id);
+            return ResponseEntity.ok(Map.of("id", id, "status", cancelled ? "CANCELLED" : "CANCELLING"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.service.RosterIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/teachers/roster-index")
+public class RosterIndexController {
+    private final RosterIndexService rosterIndexService;
+
+    @Autowired
+    public RosterIndexController(RosterIndexService rosterIndexService) {
+        this.rosterIndexService = rosterIndexService;
+    }
+
+    // e.g. GET /api/teachers/roster-index/query?q=subject:1 %26 subject:2 %26 !passed:3&countOnly=true
+    @GetMapping("/query")
+    public ResponseEntity<?> query(@RequestParam("q") String expression,
+                                   @RequestParam(defaultValue = "false") boolean countOnly,
+                                   @RequestParam(required = false) Long afterId,
+                                   @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(rosterIndexService.query(expression, countOnly, afterId, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
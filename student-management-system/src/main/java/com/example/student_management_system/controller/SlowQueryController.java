@@ -0,0 +1,28 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Config.SlowQuerySampler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/managers/slow-queries")
+public class SlowQueryController {
+    private static final int MAX_LIMIT = 200;
+
+    private final SlowQuerySampler slowQuerySampler;
+
+    @Autowired
+    public SlowQueryController(SlowQuerySampler slowQuerySampler) {
+        this.slowQuerySampler = slowQuerySampler;
+    }
+
+    // Slowest statement shapes seen by this node, with their callers and captured plans
+    @GetMapping
+    public ResponseEntity<?> getSlowQueries(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(slowQuerySampler.top(limit));
+    }
+}
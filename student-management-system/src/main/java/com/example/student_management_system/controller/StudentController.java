@@ -1,9 +1,16 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.DTOS.VersionConflictDTO;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.Exceptions.VersionConflictException;
 import com.example.student_management_system.model.Student;
 import com.example.student_management_system.model.StudentSubject;
+import com.example.student_management_system.service.SparseFieldsetService;
 import com.example.student_management_system.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,16 +19,37 @@ import java.util.List;
 @RequestMapping("/api/students")
 public class StudentController {
     private final StudentService service;
+    private final SparseFieldsetService sparseFieldsetService;
     @Autowired
 
-    public StudentController(StudentService service) {
+    public StudentController(StudentService service, SparseFieldsetService sparseFieldsetService) {
         this.service = service;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
     @GetMapping
     public List<Student> getAllStudents(){
         return  service.getAllStudents();
 
     }
+    // GET /api/students?ids=1,2,3&fields=name,level
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getStudentsByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        try {
+            return ResponseEntity.ok(sparseFieldsetService.findByIds(Student.class, ids, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getStudent(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        try {
+            return sparseFieldsetService.findById(Student.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     @PostMapping
     public Student createStudent(@RequestBody Student student) {
         return service.createStudent(student);
@@ -39,6 +67,20 @@ public class StudentController {
     public Student updateStudent(@PathVariable Long id, @RequestBody Student updatedStudent) {
         return service.updateStudent(id, updatedStudent);
     }
+    // Partial update: {"version": <last read>, ...fields to change}. 409 with the current version if the
+    // student was saved by someone else in the meantime.
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchStudent(@PathVariable Long id, @RequestBody JsonNode changes) {
+        try {
+            return ResponseEntity.ok(service.patchStudent(id, changes));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new VersionConflictDTO(e.getMessage(), e.getCurrentVersion()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     @PostMapping("/{studentId}/subjects/{subjectId}")
     public StudentSubject addSubjectToStudent(@PathVariable Long studentId, @PathVariable Long subjectId) {
         return service.addSubjectToStudent(studentId, subjectId);
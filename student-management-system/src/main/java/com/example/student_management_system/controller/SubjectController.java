@@ -0,0 +1,41 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.service.SparseFieldsetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/subjects")
+public class SubjectController {
+    private final SparseFieldsetService sparseFieldsetService;
+
+    @Autowired
+    public SubjectController(SparseFieldsetService sparseFieldsetService) {
+        this.sparseFieldsetService = sparseFieldsetService;
+    }
+
+    // GET /api/subjects?ids=1,2,3&fields=name
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getSubjectsByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        try {
+            return ResponseEntity.ok(sparseFieldsetService.findByIds(Subject.class, ids, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSubject(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        try {
+            return sparseFieldsetService.findById(Subject.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
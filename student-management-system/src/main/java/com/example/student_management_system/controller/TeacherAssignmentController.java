@@ -0,0 +1,36 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.DTOS.AssignmentPlan;
+import com.example.student_management_system.DTOS.AssignmentRequest;
+import com.example.student_management_system.service.TeacherAssignmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/managers/teacher-assignments")
+public class TeacherAssignmentController {
+    private final TeacherAssignmentService teacherAssignmentService;
+
+    @Autowired
+    public TeacherAssignmentController(TeacherAssignmentService teacherAssignmentService) {
+        this.teacherAssignmentService = teacherAssignmentService;
+    }
+
+    // Computes a balanced assignment from current enrollments; ?apply=true also writes it to teacher_subject
+    @PostMapping
+    public ResponseEntity<?> optimize(@RequestBody(required = false) AssignmentRequest request,
+                                      @RequestParam(defaultValue = "false") boolean apply) {
+        AssignmentPlan plan;
+        try {
+            plan = teacherAssignmentService.optimize(request != null ? request : new AssignmentRequest());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (apply) {
+            teacherAssignmentService.apply(plan);
+            plan.setApplied(true);
+        }
+        return ResponseEntity.ok(plan);
+    }
+}
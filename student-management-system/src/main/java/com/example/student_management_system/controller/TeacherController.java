@@ -1,8 +1,15 @@
 package com.example.student_management_system.controller;
 
+import com.example.student_management_system.DTOS.VersionConflictDTO;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.Exceptions.VersionConflictException;
 import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.service.SparseFieldsetService;
 import com.example.student_management_system.service.TeacherService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -11,18 +18,55 @@ import java.util.Optional;
 @RequestMapping("/api/teachers")
 public class TeacherController {
     private  final TeacherService teacherService;
+    private final SparseFieldsetService sparseFieldsetService;
     @Autowired
-    public TeacherController(TeacherService teacherService) {
+    public TeacherController(TeacherService teacherService, SparseFieldsetService sparseFieldsetService) {
         this.teacherService = teacherService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
     @GetMapping
     public List<Teacher> getAllTeachers() {
         return teacherService.getAllTeachers();
     }
+    // GET /api/teachers?ids=1,2,3&fields=name,department
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getTeachersByIds(@RequestParam List<Long> ids, @RequestParam(required = false) String fields) {
+        try {
+            return ResponseEntity.ok(sparseFieldsetService.findByIds(Teacher.class, ids, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     @GetMapping("/{id}")
     public Optional<Teacher> getTeacherByID(@PathVariable Long id){
         return teacherService.getTeacherById(id);
     }
+    // Only the requested columns are selected
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<?> getTeacherFields(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return sparseFieldsetService.findById(Teacher.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // GET /api/teachers/7/roster?subjectId=3&passed=false&afterId=1200&size=500
+    @GetMapping("/{id}/roster")
+    public ResponseEntity<?> getRoster(@PathVariable Long id,
+                                       @RequestParam(required = false) Long afterId,
+                                       @RequestParam(required = false) Long subjectId,
+                                       @RequestParam(required = false) Boolean passed,
+                                       @RequestParam(defaultValue = "500") int size) {
+        try {
+            return ResponseEntity.ok(teacherService.getRoster(id, afterId, subjectId, passed, size));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     @PostMapping
     public Teacher addTeacher(@RequestBody Teacher teacher)
     {
@@ -36,5 +80,19 @@ public class TeacherController {
     public Teacher updateTeacher(@PathVariable Long id, @RequestBody Teacher updatedTeacher) {
         return teacherService.updateTeacher(id, updatedTeacher);
     }
+    // Partial update: {"version": <last read>, ...fields to change}. 409 with the current version if the
+    // teacher was saved by someone else in the meantime.
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchTeacher(@PathVariable Long id, @RequestBody JsonNode changes) {
+        try {
+            return ResponseEntity.ok(teacherService.patchTeacher(id, changes));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new VersionConflictDTO(e.getMessage(), e.getCurrentVersion()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
 }
@@ -0,0 +1,41 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.DTOS.TimetableRequest;
+import com.example.student_management_system.model.ExamSlot;
+import com.example.student_management_system.model.ExamTimetable;
+import com.example.student_management_system.service.TimetableService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/managers/timetables")
+public class TimetableController {
+    private final TimetableService timetableService;
+
+    @Autowired
+    public TimetableController(TimetableService timetableService) {
+        this.timetableService = timetableService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> generateTimetable(@RequestBody TimetableRequest request) {
+        try {
+            return ResponseEntity.ok(timetableService.generate(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ExamTimetable getTimetable(@PathVariable Long id) {
+        return timetableService.getTimetable(id);
+    }
+
+    @GetMapping("/{id}/slots")
+    public List<ExamSlot> getSlots(@PathVariable Long id) {
+        return timetableService.getSlots(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.student_management_system.controller;
+
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.ArchivedUser;
+import com.example.student_management_system.service.UserArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/managers/archive")
+public class UserArchiveController {
+    private final UserArchiveService userArchiveService;
+
+    @Autowired
+    public UserArchiveController(UserArchiveService userArchiveService) {
+        this.userArchiveService = userArchiveService;
+    }
+
+    @GetMapping("/users")
+    public List<ArchivedUser> getArchivedUsers(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "100") int size) {
+        return userArchiveService.getArchivedUsers(page, size);
+    }
+
+    // Run the archival now instead of waiting for the scheduled run
+    @PostMapping("/run")
+    public Map<String, Long> archiveNow() {
+        return Map.of("archived", userArchiveService.archiveEligible());
+    }
+
+    // 409 when another user has taken the username since the user was archived
+    @PostMapping("/users/{id}/reactivate")
+    public ResponseEntity<?> reactivate(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(userArchiveService.reactivate(id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
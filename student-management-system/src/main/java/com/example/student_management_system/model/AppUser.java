@@ -1,14 +1,22 @@
 package com.example.student_management_system.model;
 
 import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.service.UsernameFilterListener;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "app_user")
+@Table(name = "app_user", indexes = @Index(columnList = "tenant_id, user_type"))
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "user_type")
+@EntityListeners(UsernameFilterListener.class)
+// UPDATE statements list only the changed columns; not inherited, so each subclass repeats it
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +27,11 @@ public  class AppUser {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
     @Column(nullable = false)
     private String name;
 
@@ -31,4 +44,16 @@ public  class AppUser {
     @Enumerated(EnumType.STRING)
     @Column(nullable = true)
     private Role role;
+
+    // Last sign-in (or account creation); users idle for long enough are moved to app_user_archive
+    private LocalDateTime lastActiveAt;
+
+    // Optimistic lock: updates carry "where version = ?" and fail if someone else saved first
+    @Version
+    private Long version;
+
+    @PrePersist
+    void initLastActive() {
+        if (lastActiveAt == null) lastActiveAt = LocalDateTime.now();
+    }
 }
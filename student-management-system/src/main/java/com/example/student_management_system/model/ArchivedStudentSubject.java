@@ -0,0 +1,33 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+// A student_subject row of an archived student, kept with its original id
+@Entity
+@Table(name = "student_subject_archive", indexes = @Index(columnList = "student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedStudentSubject {
+
+    @Id
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    private boolean paymentApproved;
+
+    private boolean examPassed;
+}
@@ -0,0 +1,67 @@
+package com.example.student_management_system.model;
+
+import com.example.student_management_system.Enum.Role;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// A user moved out of app_user (graduated or inactive). Mirrors the app_user columns so the row
+// can be moved back unchanged, keeping its original id.
+@Entity
+@Table(name = "app_user_archive", indexes = {
+        @Index(columnList = "tenant_id, user_type"),
+        @Index(columnList = "username")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedUser {
+
+    @Id
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(name = "user_type", nullable = false)
+    private String userType;
+
+    private String name;
+
+    private String username;
+
+    @ToString.Exclude
+    @JsonIgnore
+    private String password;
+
+    @Enumerated(EnumType.STRING)
+    private Role role;
+
+    private String gpa;
+
+    private Integer level;
+
+    private Double salary;
+
+    private String department;
+
+    private String subject;
+
+    @Column(name = "reports_to_id")
+    private Long reportsToId;
+
+    private LocalDateTime lastActiveAt;
+
+    private Long version;
+
+    private LocalDateTime archivedAt;
+
+    // GRADUATED or INACTIVE
+    private String reason;
+}
@@ -0,0 +1,32 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+// Manager dashboard summary: teacher headcount and salary total per department ('' = no department)
+@Entity
+@Table(name = "dashboard_department_stat", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "department"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardDepartmentStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private String department;
+
+    @Column(nullable = false)
+    private long teachers;
+
+    @Column(nullable = false)
+    private double salaryTotal;
+}
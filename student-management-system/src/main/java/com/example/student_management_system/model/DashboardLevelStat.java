@@ -0,0 +1,29 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+// Manager dashboard summary: students currently at each level. Maintained by DashboardService.
+@Entity
+@Table(name = "dashboard_level_stat", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "level"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardLevelStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Integer level;
+
+    @Column(nullable = false)
+    private long students;
+}
@@ -0,0 +1,41 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+// Manager dashboard summary: enrollment counts per subject. The department is taken from the teachers
+// assigned to the subject ('' when none) so the dashboard can roll subjects up by department.
+@Entity
+@Table(name = "dashboard_subject_stat", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "subject_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSubjectStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(nullable = false)
+    private String department;
+
+    @Column(nullable = false)
+    private long enrollments;
+
+    // Enrollments whose payment is not yet approved
+    @Column(nullable = false)
+    private long pendingPayments;
+
+    // Enrollments whose exam has been passed
+    @Column(nullable = false)
+    private long passedEnrollments;
+}
@@ -2,11 +2,12 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "exam")
+@Table(name = "exam", indexes = @Index(columnList = "term, student_id, subject_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +18,11 @@ public class Exam {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
     // The student taking the exam
     @ManyToOne
     @JoinColumn(name = "student_id")
@@ -32,9 +38,17 @@ public class Exam {
     @JoinColumn(name = "teacher_id")
     private Teacher teacher;
 
+    // Timetable slot the exam was sat in, if it was scheduled
+    @ManyToOne
+    @JoinColumn(name = "exam_slot_id")
+    private ExamSlot examSlot;
+
     // Date and time of exam
     private LocalDateTime examDate;
 
+    // Academic term of examDate (see AcademicTerm); the exam table is range-partitioned on it
+    private Integer term;
+
     // Result of exam: passed or not
     private boolean passed;
     private Double score;
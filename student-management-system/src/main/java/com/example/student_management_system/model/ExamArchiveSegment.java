@@ -0,0 +1,44 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// A gzip-compressed block of archived exam rows from one closed term, covering a contiguous range of
+// student ids so a lookup by student only has to inflate the segments whose range contains it
+@Entity
+@Table(name = "exam_archive_segment", indexes = @Index(columnList = "term, min_student_id, max_student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Integer term;
+
+    @Column(name = "min_student_id", nullable = false)
+    private Long minStudentId;
+
+    @Column(name = "max_student_id", nullable = false)
+    private Long maxStudentId;
+
+    private Integer rowCount;
+
+    private LocalDateTime createdAt;
+
+    @ToString.Exclude
+    @Column(nullable = false)
+    private byte[] data;
+}
@@ -0,0 +1,44 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// When and where a subject's exam sits in a timetable
+@Entity
+@Table(name = "exam_slot", indexes = @Index(columnList = "timetable_id, slotIndex"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @ManyToOne
+    @JoinColumn(name = "timetable_id")
+    private ExamTimetable timetable;
+
+    @ManyToOne
+    @JoinColumn(name = "subject_id")
+    private Subject subject;
+
+    private Integer slotIndex;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    private String room;
+    private Integer roomCapacity;
+
+    // Students enrolled in the subject when the timetable was built
+    private Integer studentCount;
+}
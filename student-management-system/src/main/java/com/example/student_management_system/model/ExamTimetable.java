@@ -0,0 +1,35 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "exam_timetable")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamTimetable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    private String name;
+
+    private LocalDateTime createdAt;
+
+    // Start of the first slot; later slots follow every slotMinutes, slotsPerDay per day
+    private LocalDateTime firstSlotStart;
+    private Integer slotMinutes;
+    private Integer slotsPerDay;
+    private Integer slotCount;
+}
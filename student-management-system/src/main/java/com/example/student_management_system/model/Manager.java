@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +15,7 @@ import java.util.Set;
 
 @Entity
 @DiscriminatorValue("MANAGER")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @SuperBuilder
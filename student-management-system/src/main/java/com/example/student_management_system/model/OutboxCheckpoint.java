@@ -0,0 +1,28 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Last outbox event id a durable consumer has fully processed
+@Entity
+@Table(name = "outbox_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxCheckpoint {
+
+    @Id
+    private String consumer;
+
+    @Column(nullable = false)
+    private Long lastEventId;
+
+    private LocalDateTime updatedAt;
+
+    // Ids below lastEventId not seen yet, see OutboxGaps
+    @Column(columnDefinition = "TEXT")
+    private String gaps;
+}
@@ -0,0 +1,62 @@
+package com.example.student_management_system.model;
+
+import com.example.student_management_system.Enum.ReportJobStatus;
+import com.example.student_management_system.Enum.ReportType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// A cohort-wide report generated in the background by ReportJobService. The output is a CSV file on the node
+// that accepted the job; lastStudentId and bytesWritten are the checkpoint of the last chunk appended to it,
+// so a job interrupted by a restart continues from there.
+@Entity
+@Table(name = "report_job", indexes = @Index(columnList = "node, status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReportJobStatus status;
+
+    // Student level for transcripts, subject level for rosters (null: every subject)
+    private Integer level;
+
+    // Username of the manager who submitted it
+    private String requestedBy;
+
+    // Node that runs the job and holds its file
+    @Column(nullable = false, length = 128)
+    private String node;
+
+    // Checkpoint: students up to this id are in the file, which is bytesWritten long
+    private Long lastStudentId;
+    private long bytesWritten;
+    private long rowsWritten;
+
+    // Set by a cancel while running; the worker stops before its next chunk
+    private boolean cancelRequested;
+
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
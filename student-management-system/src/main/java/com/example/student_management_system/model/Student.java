@@ -3,11 +3,13 @@ package com.example.student_management_system.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Set;
 
 @Entity
 @DiscriminatorValue("STUDENT")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,9 +2,10 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "student_subject")
+@Table(name = "student_subject", indexes = @Index(columnList = "tenant_id, subject_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +16,11 @@ public class StudentSubject {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
     // Student taking this subject
     @ManyToOne
     @JoinColumn(name = "student_id")
@@ -2,9 +2,10 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "subject")
+@Table(name = "subject", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "name"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,7 +15,13 @@ public class Subject {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    // Unique within a school
+    @Column(nullable = false)
     private String name;
     private Integer level;  // <-- Add this field
 
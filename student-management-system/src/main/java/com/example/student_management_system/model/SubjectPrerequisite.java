@@ -0,0 +1,32 @@
+package com.example.student_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+// subject requires prerequisite to be passed before enrolling; the edges form a DAG (checked on write)
+@Entity
+@Table(name = "subject_prerequisite",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "subject_id", "prerequisite_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubjectPrerequisite {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "subject_id")
+    private Subject subject;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "prerequisite_id")
+    private Subject prerequisite;
+}
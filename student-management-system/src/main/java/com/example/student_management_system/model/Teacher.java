@@ -3,6 +3,7 @@ package com.example.student_management_system.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +14,7 @@ import java.util.Set;
 
 @Entity
 @DiscriminatorValue("TEACHER")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
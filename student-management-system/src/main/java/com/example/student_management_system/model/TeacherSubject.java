@@ -2,9 +2,10 @@ package com.example.student_management_system.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "teacher_subject")
+@Table(name = "teacher_subject", indexes = @Index(columnList = "tenant_id, teacher_id, subject_id, level"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +15,11 @@ public class TeacherSubject {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning school; set and filtered on by Hibernate from the current tenant
+    @TenantId
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "teacher_id")
     private Teacher teacher;
@@ -24,4 +30,7 @@ public class TeacherSubject {
 
     @Column(nullable = false)
     private Integer level; // 1 to 5
+
+    // Sections (groups of up to app.assignment.section-size students) taught; null for links made by hand
+    private Integer sections;
 }
@@ -2,11 +2,26 @@ package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 @Repository
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUsername(String username);
     boolean existsByUsername(String username); // add this
+
+    // Native, so it bypasses the @TenantId filter: app_user.username is unique across every school
+    @Query(nativeQuery = true, value = "SELECT EXISTS (SELECT 1 FROM app_user WHERE username = :username)")
+    boolean existsUsernameInAnySchool(String username);
+
+    // Only writes when the stored value is older than staleBefore, so most logins don't update the row
+    @Transactional
+    @Modifying
+    @Query("update AppUser u set u.lastActiveAt = :now where u.username = :username " +
+            "and (u.lastActiveAt is null or u.lastActiveAt < :staleBefore)")
+    int touchLastActive(String username, LocalDateTime now, LocalDateTime staleBefore);
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.ArchivedUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The move statements delete and insert in one statement, so a user is never in both tables or in neither.
+// :tenant is '*' for a store-wide run.
+public interface ArchivedUserRepository extends JpaRepository<ArchivedUser, Long> {
+
+    List<ArchivedUser> findAllByOrderByArchivedAtDesc(Pageable pageable);
+
+    // An archived user keeps their username so they can be restored. Checked across every school, like the
+    // unique constraint on app_user.username.
+    @Query(nativeQuery = true, value = "SELECT EXISTS (SELECT 1 FROM app_user_archive WHERE username = :username)")
+    boolean existsArchivedUsername(String username);
+
+    // Consume inside a transaction
+    @Query("select a.username from ArchivedUser a")
+    Stream<String> streamAllUsernames();
+
+    // Moves up to :batchSize graduated or inactive students, with their enrollments, into the archive tables.
+    // Students that still have exams in the hot exam table wait until those terms are archived.
+    // Returns {id, tenant_id, reason, level, enrollments as a JSON array} per archived student.
+    @Query(nativeQuery = true, value = "WITH picked AS (" +
+            "  SELECT u.id FROM app_user u" +
+            "  WHERE u.user_type = 'STUDENT' AND (:tenant = '*' OR u.tenant_id = :tenant)" +
+            "    AND (u.level >= :graduatedLevel OR u.last_active_at < :inactiveBefore)" +
+            "    AND NOT EXISTS (SELECT 1 FROM exam e WHERE e.student_id = u.id)" +
+            "  ORDER BY u.id LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+            "), enrollments AS (" +
+            "  DELETE FROM student_subject s USING picked p WHERE s.student_id = p.id" +
+            "  RETURNING s.id, s.tenant_id, s.student_id, s.subject_id, s.payment_approved, s.exam_passed" +
+            "), archived_enrollments AS (" +
+            "  INSERT INTO student_subject_archive (id, tenant_id, student_id, subject_id, payment_approved, exam_passed)" +
+            "  SELECT id, tenant_id, student_id, subject_id, payment_approved, exam_passed FROM enrollments" +
+            "), moved AS (" +
+            "  DELETE FROM app_user u USING picked p WHERE u.id = p.id RETURNING u.*" +
+            ") " +
+            "INSERT INTO app_user_archive (id, tenant_id, user_type, name, username, password, role, gpa, level, salary," +
+            "  department, subject, reports_to_id, last_active_at, version, archived_at, reason) " +
+            "SELECT id, tenant_id, user_type, name, username, password, role, gpa, level, salary," +
+            "  department, subject, reports_to_id, last_active_at, version, now()," +
+            "  CASE WHEN level >= :graduatedLevel THEN 'GRADUATED' ELSE 'INACTIVE' END FROM moved " +
+            "RETURNING id, tenant_id, reason, level, (SELECT COALESCE(json_agg(json_build_object(" +
+            "  'subjectId', e.subject_id, 'paymentApproved', e.payment_approved, 'examPassed', e.exam_passed)), '[]')::text" +
+            "  FROM enrollments e WHERE e.student_id = app_user_archive.id)")
+    List<Object[]> archiveStudents(String tenant, int graduatedLevel, LocalDateTime inactiveBefore, int batchSize);
+
+    // Moves one archived user back into app_user. Returns {id, tenant_id, level, gpa}, or nothing if not archived.
+    @Query(nativeQuery = true, value = "WITH moved AS (" +
+            "  DELETE FROM app_user_archive a WHERE a.id = :id AND (:tenant = '*' OR a.tenant_id = :tenant) RETURNING a.*" +
+            ") " +
+            "INSERT INTO app_user (id, tenant_id, user_type, name, username, password, role, gpa, level, salary," +
+            "  department, subject, reports_to_id, last_active_at, version) " +
+            "SELECT id, tenant_id, user_type, name, username, password, role, gpa, level, salary," +
+            "  department, subject, reports_to_id, now(), COALESCE(version, 0) + 1 FROM moved " +
+            "RETURNING id, tenant_id, level, gpa")
+    List<Object[]> restoreUser(Long id, String tenant);
+
+    // Returns {id, subject_id, payment_approved, exam_passed} per restored enrollment
+    @Query(nativeQuery = true, value = "WITH moved AS (" +
+            "  DELETE FROM student_subject_archive s WHERE s.student_id = :studentId" +
+            "    AND (:tenant = '*' OR s.tenant_id = :tenant) RETURNING s.*" +
+            ") " +
+            "INSERT INTO student_subject (id, tenant_id, student_id, subject_id, payment_approved, exam_passed) " +
+            "SELECT id, tenant_id, student_id, subject_id, payment_approved, exam_passed FROM moved " +
+            "RETURNING id, subject_id, payment_approved, exam_passed")
+    List<Object[]> restoreEnrollments(Long studentId, String tenant);
+}
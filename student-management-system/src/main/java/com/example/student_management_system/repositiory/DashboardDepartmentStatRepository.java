@@ -0,0 +1,27 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.DashboardDepartmentStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface DashboardDepartmentStatRepository extends JpaRepository<DashboardDepartmentStat, Long> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_department_stat (tenant_id, department, teachers, salary_total) " +
+            "VALUES (:tenant, :department, :teachers, :salary) ON CONFLICT (tenant_id, department) DO UPDATE SET " +
+            "teachers = dashboard_department_stat.teachers + EXCLUDED.teachers, " +
+            "salary_total = dashboard_department_stat.salary_total + EXCLUDED.salary_total")
+    void addTeachers(String tenant, String department, long teachers, double salary);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM dashboard_department_stat WHERE (:tenant = '*' OR tenant_id = :tenant)")
+    void deleteForRebuild(String tenant);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_department_stat (tenant_id, department, teachers, salary_total) " +
+            "SELECT tenant_id, COALESCE(department, ''), count(*), COALESCE(sum(salary), 0) FROM app_user " +
+            "WHERE user_type = 'TEACHER' AND (:tenant = '*' OR tenant_id = :tenant) " +
+            "GROUP BY tenant_id, COALESCE(department, '')")
+    void rebuild(String tenant);
+}
@@ -0,0 +1,31 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.DashboardLevelStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface DashboardLevelStatRepository extends JpaRepository<DashboardLevelStat, Long> {
+
+    List<DashboardLevelStat> findAllByOrderByLevelAsc();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_level_stat (tenant_id, level, students) " +
+            "VALUES (:tenant, :level, :delta) ON CONFLICT (tenant_id, level) " +
+            "DO UPDATE SET students = dashboard_level_stat.students + EXCLUDED.students")
+    void addStudents(String tenant, int level, long delta);
+
+    // :tenant is '*' to rebuild every tenant of the store
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM dashboard_level_stat WHERE (:tenant = '*' OR tenant_id = :tenant)")
+    void deleteForRebuild(String tenant);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_level_stat (tenant_id, level, students) " +
+            "SELECT tenant_id, level, count(*) FROM app_user " +
+            "WHERE user_type = 'STUDENT' AND level IS NOT NULL AND (:tenant = '*' OR tenant_id = :tenant) " +
+            "GROUP BY tenant_id, level")
+    void rebuild(String tenant);
+}
@@ -0,0 +1,54 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.DashboardSubjectStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface DashboardSubjectStatRepository extends JpaRepository<DashboardSubjectStat, Long> {
+
+    // A subject's department is that of its assigned teachers. A subject taught from several departments is counted
+    // under the first of them alphabetically, and '' when it has no teacher. StudentSubjectRepository's
+    // approvePaymentsByDepartment applies the same rule.
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_subject_stat " +
+            "(tenant_id, subject_id, department, enrollments, pending_payments, passed_enrollments) " +
+            "VALUES (:tenant, :subjectId, COALESCE((SELECT min(t.department) FROM teacher_subject ts " +
+            "JOIN app_user t ON t.id = ts.teacher_id WHERE ts.subject_id = :subjectId), ''), :enrollments, :pending, :passed) " +
+            "ON CONFLICT (tenant_id, subject_id) DO UPDATE SET " +
+            "enrollments = dashboard_subject_stat.enrollments + EXCLUDED.enrollments, " +
+            "pending_payments = dashboard_subject_stat.pending_payments + EXCLUDED.pending_payments, " +
+            "passed_enrollments = dashboard_subject_stat.passed_enrollments + EXCLUDED.passed_enrollments")
+    void addCounts(String tenant, long subjectId, long enrollments, long pending, long passed);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE dashboard_subject_stat d SET department = " +
+            "COALESCE((SELECT min(t.department) FROM teacher_subject ts " +
+            "JOIN app_user t ON t.id = ts.teacher_id WHERE ts.subject_id = d.subject_id), '') " +
+            "WHERE d.tenant_id = :tenant AND d.subject_id IN (SELECT ts.subject_id FROM teacher_subject ts WHERE ts.teacher_id = :teacherId)")
+    void refreshDepartmentsForTeacher(String tenant, long teacherId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE dashboard_subject_stat d SET department = " +
+            "COALESCE((SELECT min(t.department) FROM teacher_subject ts " +
+            "JOIN app_user t ON t.id = ts.teacher_id WHERE ts.subject_id = d.subject_id), '') " +
+            "WHERE d.tenant_id = :tenant AND d.subject_id = :subjectId")
+    void refreshDepartment(String tenant, long subjectId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM dashboard_subject_stat WHERE (:tenant = '*' OR tenant_id = :tenant)")
+    void deleteForRebuild(String tenant);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO dashboard_subject_stat " +
+            "(tenant_id, subject_id, department, enrollments, pending_payments, passed_enrollments) " +
+            "SELECT s.tenant_id, s.id, COALESCE((SELECT min(t.department) FROM teacher_subject ts " +
+            "JOIN app_user t ON t.id = ts.teacher_id WHERE ts.subject_id = s.id), ''), " +
+            "COALESCE(e.enrollments, 0), COALESCE(e.pending, 0), COALESCE(e.passed, 0) FROM subject s " +
+            "LEFT JOIN (SELECT subject_id, count(*) AS enrollments, " +
+            "  count(*) FILTER (WHERE NOT payment_approved) AS pending, count(*) FILTER (WHERE exam_passed) AS passed " +
+            "  FROM student_subject WHERE (:tenant = '*' OR tenant_id = :tenant) GROUP BY subject_id) e ON e.subject_id = s.id " +
+            "WHERE (:tenant = '*' OR s.tenant_id = :tenant)")
+    void rebuild(String tenant);
+}
@@ -0,0 +1,18 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.ExamArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ExamArchiveSegmentRepository extends JpaRepository<ExamArchiveSegment, Long> {
+
+    @Query("select s from ExamArchiveSegment s where s.minStudentId <= :studentId and s.maxStudentId >= :studentId " +
+            "and (:term is null or s.term = :term) order by s.term, s.id")
+    List<ExamArchiveSegment> findCovering(Long studentId, Integer term);
+
+    @Query("select s from ExamArchiveSegment s where s.minStudentId <= :toId and s.maxStudentId >= :fromId " +
+            "order by s.term, s.id")
+    List<ExamArchiveSegment> findOverlapping(Long fromId, Long toId);
+}
@@ -1,12 +1,66 @@
 package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.Exam;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ExamRepository extends JpaRepository<Exam, Long> {
 
     boolean existsByStudentIdAndSubjectIdAndPassedTrue(Long studentId, Long subjectId);
 
     List<Exam> findByStudentIdAndSubjectId(Long studentId, Long subjectId);
+
+    // Term-qualified lookups; the term predicate lets PostgreSQL prune to a single partition
+    List<Exam> findByTermAndStudentIdAndSubjectId(Integer term, Long studentId, Long subjectId);
+
+    boolean existsByTermGreaterThanEqualAndStudentIdAndSubjectIdAndPassedTrue(Integer fromTerm, Long studentId, Long subjectId);
+
+    // Passed subjects of a student; StudentSubject.examPassed catches up asynchronously (ExamPassedConsumer)
+    @Query("select distinct e.subject.id from Exam e where e.student.id = :studentId and e.passed = true")
+    List<Long> findPassedSubjectIds(Long studentId);
+
+    // (studentId, subjectId) of every passed exam of the students at a level
+    @Query("select distinct e.student.id, e.subject.id from Exam e where e.passed = true and e.student.level = :level")
+    List<Object[]> findPassedSubjectIdsByLevel(int level);
+
+    @Query("select distinct e.term from Exam e where e.term < :term order by e.term")
+    List<Integer> findTermsBefore(Integer term);
+
+    // Flat rows of a term for archiving: {id, tenantId, studentId, subjectId, teacherId, examSlotId, examDate, passed, score}.
+    // Ordered by tenant and student so each archive segment covers a narrow student range.
+    @Query("select e.id, e.tenantId, st.id, su.id, t.id, sl.id, e.examDate, e.passed, e.score from Exam e " +
+            "left join e.student st left join e.subject su left join e.teacher t left join e.examSlot sl " +
+            "where e.term = :term order by e.tenantId, st.id, e.id")
+    List<Object[]> findArchiveBatch(Integer term, Pageable pageable);
+
+    long countByTerm(Integer term);
+
+    // (id, studentId, subjectId, score, term, tenantId) of scored exams from fromTerm on; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select e.id, e.student.id, e.subject.id, e.score, e.term, e.tenantId from Exam e " +
+            "where e.score is not null and e.term >= :fromTerm")
+    Stream<Object[]> streamScoresFromTerm(Integer fromTerm);
+
+    // (id, student_id, score) of each student's best exam in one subject and term, best first; the term prunes
+    // to one partition
+    @Query(nativeQuery = true, value = "SELECT id, student_id, score FROM (" +
+            "SELECT DISTINCT ON (student_id) id, student_id, score FROM exam " +
+            "WHERE tenant_id = :tenant AND subject_id = :subjectId AND term = :term AND score IS NOT NULL " +
+            "ORDER BY student_id, score DESC, id) best " +
+            "ORDER BY score DESC, student_id LIMIT :limit")
+    List<Object[]> findBestScores(String tenant, Long subjectId, Integer term, int limit);
+
+    // (studentId, subjectId, term, examDate, score, passed) of the given students' exams
+    @Query("select e.student.id, e.subject.id, e.term, e.examDate, e.score, e.passed from Exam e " +
+            "where e.student.id in :studentIds order by e.student.id, e.examDate, e.id")
+    List<Object[]> findResultsForStudents(Collection<Long> studentIds);
 }
@@ -0,0 +1,11 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.ExamSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ExamSlotRepository extends JpaRepository<ExamSlot, Long> {
+
+    List<ExamSlot> findByTimetableIdOrderBySlotIndexAsc(Long timetableId);
+}
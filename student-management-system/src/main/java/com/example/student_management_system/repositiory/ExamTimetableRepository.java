@@ -0,0 +1,7 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.ExamTimetable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExamTimetableRepository extends JpaRepository<ExamTimetable, Long> {
+}
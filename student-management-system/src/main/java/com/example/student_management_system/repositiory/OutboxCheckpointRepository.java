@@ -0,0 +1,28 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.OutboxCheckpoint;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+
+public interface OutboxCheckpointRepository extends JpaRepository<OutboxCheckpoint, String> {
+
+    // SKIP LOCKED: if another node is draining this consumer, this node leaves it alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from OutboxCheckpoint c where c.consumer = :consumer")
+    Optional<OutboxCheckpoint> lockByConsumer(String consumer);
+
+    // Waits for a draining node to finish its batch; used to take a consumer offline for a rebuild
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from OutboxCheckpoint c where c.consumer = :consumer")
+    Optional<OutboxCheckpoint> lockByConsumerWaiting(String consumer);
+
+    @Query("select coalesce(min(c.lastEventId), 0) from OutboxCheckpoint c")
+    long findMinLastEventId();
+}
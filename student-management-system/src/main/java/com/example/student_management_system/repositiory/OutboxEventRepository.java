@@ -0,0 +1,34 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long id, LocalDateTime createdBefore, Pageable pageable);
+
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e where e.createdAt < :createdBefore")
+    long findMaxIdCreatedBefore(LocalDateTime createdBefore);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long findMaxId();
+
+    @Query("select e.id from OutboxEvent e where e.id > :afterId and e.id <= :maxId order by e.id")
+    List<Long> findIdsBetween(long afterId, long maxId);
+
+    @Query("select e.id from OutboxEvent e where e.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id <= :id and e.createdAt < :createdBefore")
+    int deleteProcessed(long id, LocalDateTime createdBefore);
+}
@@ -0,0 +1,47 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.Enum.ReportJobStatus;
+import com.example.student_management_system.model.ReportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// The status updates are conditional so a worker, a cancel and a restart racing on the same job
+// can tell from the update count which of them got there first
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    List<ReportJob> findByNodeAndStatusOrderByIdAsc(String node, ReportJobStatus status, Pageable pageable);
+
+    long countByStatusIn(Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByNodeAndFinishedAtBefore(String node, LocalDateTime finishedBefore);
+
+    @Modifying
+    @Query("update ReportJob j set j.status = :running, j.startedAt = coalesce(j.startedAt, :now) " +
+            "where j.id = :id and j.status = :queued")
+    int claim(Long id, ReportJobStatus queued, ReportJobStatus running, LocalDateTime now);
+
+    // Moves the checkpoint forward unless the job was cancelled meanwhile
+    @Modifying
+    @Query("update ReportJob j set j.lastStudentId = :lastStudentId, j.bytesWritten = :bytes, j.rowsWritten = :rows " +
+            "where j.id = :id and j.status = :running and j.cancelRequested = false")
+    int checkpoint(Long id, ReportJobStatus running, Long lastStudentId, long bytes, long rows);
+
+    @Modifying
+    @Query("update ReportJob j set j.status = :to, j.error = :error, j.finishedAt = :now where j.id = :id and j.status = :from")
+    int finish(Long id, ReportJobStatus from, ReportJobStatus to, String error, LocalDateTime now);
+
+    @Modifying
+    @Query("update ReportJob j set j.cancelRequested = true where j.id = :id and j.status = :running")
+    int requestCancel(Long id, ReportJobStatus running);
+
+    // Jobs that were running when the node stopped
+    @Modifying
+    @Query("update ReportJob j set j.status = :queued where j.node = :node and j.status = :running")
+    int requeue(String node, ReportJobStatus running, ReportJobStatus queued);
+}
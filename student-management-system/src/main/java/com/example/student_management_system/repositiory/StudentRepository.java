@@ -1,9 +1,36 @@
 package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.Student;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    // (id, level, tenantId) for every student; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select s.id, s.level, s.tenantId from Student s")
+    Stream<Object[]> streamIdAndLevel();
+
+    // (id, level, gpa, tenantId) for every student; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select s.id, s.level, s.gpa, s.tenantId from Student s")
+    Stream<Object[]> streamLevelAndGpa();
+
+    @Query("select s.id from Student s where s.level = :level order by s.id")
+    List<Long> findIdsByLevel(int level);
+
+    // (id, username, level, gpa) of the next students after afterId, optionally of one level
+    @Query("select s.id, s.username, s.level, s.gpa from Student s " +
+            "where s.id > :afterId and (:level is null or s.level = :level) order by s.id")
+    List<Object[]> findReportChunk(Long afterId, Integer level, Pageable pageable);
 }
\ No newline at end of file
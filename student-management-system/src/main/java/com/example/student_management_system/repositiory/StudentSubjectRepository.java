@@ -3,15 +3,97 @@ package com.example.student_management_system.repositiory;
 import com.example.student_management_system.model.Student;
 import com.example.student_management_system.model.Subject;
 import com.example.student_management_system.model.StudentSubject;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface StudentSubjectRepository extends JpaRepository<StudentSubject, Long> {
 
     Optional<StudentSubject> findByStudentAndSubject(Student student, Subject subject);
 
+    Optional<StudentSubject> findByStudentIdAndSubjectId(Long studentId, Long subjectId);
+
     long countByStudentId(Long studentId);
 
     boolean existsByStudentAndSubject(Student student, Subject subject);
+
+    boolean existsByStudentIdAndSubjectIdAndExamPassedTrue(Long studentId, Long subjectId);
+
+    // (studentId, subjectId) for every enrollment whose exam is not passed yet; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select ss.student.id, ss.subject.id from StudentSubject ss where ss.examPassed = false")
+    Stream<Object[]> streamUnpassedEnrollmentPairs();
+
+    // (studentId, subjectId, paymentApproved, examPassed, tenantId) for every enrollment; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select ss.student.id, ss.subject.id, ss.paymentApproved, ss.examPassed, ss.tenantId from StudentSubject ss")
+    Stream<Object[]> streamEnrollmentStates();
+
+    // (subjectId, students) of enrollments still being taught, i.e. whose exam is not passed yet
+    @Query("select ss.subject.id, count(ss) from StudentSubject ss where ss.examPassed = false group by ss.subject.id")
+    List<Object[]> countOpenEnrollmentsBySubject();
+
+    // (subjectId, examPassed) of one student's enrollments
+    @Query("select ss.subject.id, ss.examPassed from StudentSubject ss where ss.student.id = :studentId")
+    List<Object[]> findSubjectStates(Long studentId);
+
+    // (studentId, subjectId, examPassed) of the enrollments of every student at a level
+    @Query("select ss.student.id, ss.subject.id, ss.examPassed from StudentSubject ss where ss.student.level = :level")
+    List<Object[]> findSubjectStatesByLevel(int level);
+
+    // (studentId, subjectId, paymentApproved, examPassed) of the given students' enrollments
+    @Query("select ss.student.id, ss.subject.id, ss.paymentApproved, ss.examPassed from StudentSubject ss " +
+            "where ss.student.id in :studentIds order by ss.student.id, ss.subject.id")
+    List<Object[]> findSubjectStatesForStudents(Collection<Long> studentIds);
+
+    // (studentSubjectId, studentId, username, level, subjectId, subjectName) of the next unapproved enrollments
+    // after afterId; served by the partial indexes on unapproved rows (schema.sql)
+    @Query("select ss.id, st.id, st.username, st.level, su.id, su.name from StudentSubject ss " +
+            "join ss.student st join ss.subject su where ss.paymentApproved = false and ss.id > :afterId " +
+            "and (:subjectId is null or su.id = :subjectId) and (:level is null or st.level = :level) order by ss.id")
+    List<Object[]> findPendingPayments(long afterId, Long subjectId, Integer level, Pageable pageable);
+
+    // Bulk payment approval: each statement approves up to :batchSize unapproved enrollments of the school that match
+    // its filter, lowest id first, and writes their PAYMENT_APPROVED outbox events in the same statement.
+    // Approved rows never match again, so a retry only approves what is left. :createdAt is the application's clock,
+    // like OutboxService.publish, since the dispatcher compares it with that clock. Returns the approved ids.
+    String APPROVE_PICK = "WITH picked AS (" +
+            "  SELECT ss.id FROM student_subject ss WHERE ss.tenant_id = :tenant AND NOT ss.payment_approved AND ";
+    String APPROVE_APPLY = " ORDER BY ss.id LIMIT :batchSize FOR UPDATE" +
+            "), approved AS (" +
+            "  UPDATE student_subject ss SET payment_approved = true FROM picked p WHERE ss.id = p.id" +
+            "  RETURNING ss.id, ss.tenant_id, ss.student_id, ss.subject_id, ss.exam_passed" +
+            "), published AS (" +
+            "  INSERT INTO outbox_event (tenant_id, aggregate_id, event_type, payload, created_at)" +
+            "  SELECT tenant_id, student_id, 'PAYMENT_APPROVED', json_build_object('studentSubjectId', id," +
+            "    'studentId', student_id, 'subjectId', subject_id, 'paymentApproved', true, 'examPassed', exam_passed)::text," +
+            "    :createdAt FROM approved ORDER BY id" +
+            ") " +
+            "SELECT id FROM approved ORDER BY id";
+
+    @Query(nativeQuery = true, value = APPROVE_PICK + "ss.id IN (:ids)" + APPROVE_APPLY)
+    List<Long> approvePaymentsByIds(String tenant, Collection<Long> ids, int batchSize, LocalDateTime createdAt);
+
+    @Query(nativeQuery = true, value = APPROVE_PICK + "ss.subject_id = :subjectId" + APPROVE_APPLY)
+    List<Long> approvePaymentsBySubject(String tenant, Long subjectId, int batchSize, LocalDateTime createdAt);
+
+    @Query(nativeQuery = true, value = APPROVE_PICK + "ss.student_id IN (SELECT u.id FROM app_user u " +
+            "WHERE u.user_type = 'STUDENT' AND u.tenant_id = :tenant AND u.level = :level)" + APPROVE_APPLY)
+    List<Long> approvePaymentsByLevel(String tenant, int level, int batchSize, LocalDateTime createdAt);
+
+    // A subject's department is that of its teachers, as on the dashboard: the first alphabetically when its teachers
+    // come from several departments, so such a subject is approved with that department only (or by subject id)
+    @Query(nativeQuery = true, value = APPROVE_PICK + "(SELECT min(t.department) FROM teacher_subject ts " +
+            "JOIN app_user t ON t.id = ts.teacher_id WHERE ts.subject_id = ss.subject_id) = :department" + APPROVE_APPLY)
+    List<Long> approvePaymentsByDepartment(String tenant, String department, int batchSize, LocalDateTime createdAt);
 }
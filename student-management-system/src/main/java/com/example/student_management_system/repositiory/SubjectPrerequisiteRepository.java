@@ -0,0 +1,23 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.SubjectPrerequisite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubjectPrerequisiteRepository extends JpaRepository<SubjectPrerequisite, Long> {
+
+    // (subjectId, prerequisiteId) of every edge
+    @Query("select p.subject.id, p.prerequisite.id from SubjectPrerequisite p")
+    List<Object[]> findEdges();
+
+    Optional<SubjectPrerequisite> findBySubjectIdAndPrerequisiteId(Long subjectId, Long prerequisiteId);
+
+    // Serializes prerequisite writes of a school until commit, so two concurrent edges can't close a cycle
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(hashtext(:key))) l", nativeQuery = true)
+    long lockGraph(String key);
+}
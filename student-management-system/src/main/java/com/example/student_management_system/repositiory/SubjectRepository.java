@@ -2,6 +2,7 @@ package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +10,8 @@ import java.util.List;
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     List<Subject> findByLevel(int level);  // useful for filtering subjects by level
+
+    // (id, level, name) of every subject
+    @Query("select s.id, s.level, s.name from Subject s")
+    List<Object[]> findSummaries();
 }
@@ -2,8 +2,18 @@ package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
-}
\ No newline at end of file
+
+    @Query("select ts.subject.id from TeacherSubject ts where ts.teacher.id = :teacherId")
+    List<Long> findSubjectIds(Long teacherId);
+
+    // (id, name, department, subject) of every teacher, for the assignment optimizer
+    @Query("select t.id, t.name, t.department, t.subject from Teacher t order by t.id")
+    List<Object[]> findAssignmentProfiles();
+}
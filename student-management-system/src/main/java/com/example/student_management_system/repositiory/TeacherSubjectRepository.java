@@ -0,0 +1,41 @@
+package com.example.student_management_system.repositiory;
+
+import com.example.student_management_system.model.TeacherSubject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TeacherSubjectRepository extends JpaRepository<TeacherSubject, Long> {
+
+    // (teacherId, subjectId) of every link
+    @Query("select ts.teacher.id, ts.subject.id from TeacherSubject ts")
+    List<Object[]> findLinks();
+
+    @Query("select distinct ts.subject.id from TeacherSubject ts where ts.teacher.id = :teacherId")
+    List<Long> findSubjectIdsByTeacherId(Long teacherId);
+
+    void deleteByTeacherId(Long teacherId);
+
+    // Teacher roster: (studentSubjectId, studentId, name, username, level, subjectId, subjectName, paymentApproved,
+    // examPassed) of enrollments in a subject the teacher teaches at the student's level, after afterId in id order.
+    // Driven from the teacher's links: each distinct (subject, level) reads at most :limit enrollments from the
+    // (tenant_id, subject_id, id) roster index in id order, and the outer sort only merges those short lists.
+    // A link recorded twice is read once; links at different levels never share a student.
+    @Query(nativeQuery = true, value = "SELECT r.id, r.student_id, r.name, r.username, r.level, r.subject_id, su.name, " +
+            "r.payment_approved, r.exam_passed FROM (" +
+            "  SELECT DISTINCT ts.tenant_id, ts.subject_id, ts.level FROM app_user t " +
+            "  JOIN teacher_subject ts ON ts.tenant_id = t.tenant_id AND ts.teacher_id = t.id " +
+            "  WHERE t.id = :teacherId AND (:tenant = '*' OR t.tenant_id = :tenant) " +
+            "  AND (CAST(:subjectId AS bigint) IS NULL OR ts.subject_id = :subjectId)" +
+            ") l CROSS JOIN LATERAL (" +
+            "  SELECT ss.id, ss.student_id, st.name, st.username, st.level, ss.subject_id, ss.payment_approved, ss.exam_passed " +
+            "  FROM student_subject ss JOIN app_user st ON st.id = ss.student_id " +
+            "  WHERE ss.tenant_id = l.tenant_id AND ss.subject_id = l.subject_id AND ss.id > :afterId " +
+            "  AND st.level = l.level AND (CAST(:passed AS boolean) IS NULL OR ss.exam_passed = :passed) " +
+            "  ORDER BY ss.id LIMIT :limit" +
+            ") r JOIN subject su ON su.id = r.subject_id ORDER BY r.id LIMIT :limit")
+    List<Object[]> findRoster(String tenant, Long teacherId, long afterId, Long subjectId, Boolean passed, int limit);
+}
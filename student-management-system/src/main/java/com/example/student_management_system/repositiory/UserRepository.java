@@ -1,13 +1,28 @@
 package com.example.student_management_system.repositiory;
 
 import com.example.student_management_system.model.AppUser;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUsername(String username);
     boolean existsByUsername(String username); // ✅ here
+
+    // Native, so it bypasses the @TenantId filter: app_user.username is unique across every school
+    @Query(nativeQuery = true, value = "SELECT EXISTS (SELECT 1 FROM app_user WHERE username = :username)")
+    boolean existsUsernameInAnySchool(String username);
+
+    // Must be consumed inside a transaction so the driver streams with a cursor
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from AppUser u")
+    Stream<String> streamAllUsernames();
 }
@@ -0,0 +1,368 @@
+package com.example.student_management_system.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Assigns teaching sections of each subject to qualified teachers as a min-cost flow:
+// source -> subject (capacity = sections needed) -> teacher (cost = how good a fit) -> sink.
+// Each teacher reaches the sink through one unit arc per section it can take, the k-th costing
+// loadWeight * (2k + 1), so a teacher carrying k sections costs loadWeight * k^2 and spreading sections
+// evenly is always cheaper than piling them on a few teachers. The flow is solved with primal-dual:
+// Dijkstra on reduced costs, then blocking flows (Dinic) over the zero-reduced-cost arcs, so one shortest
+// path search serves many augmentations. The residual graph is kept, so a change in demand is applied to
+// the existing optimum and repaired instead of solved from scratch.
+class AssignmentSolver {
+
+    private static final int SOURCE = 0;
+    private static final int SINK = 1;
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final int subjectCount;
+    private final int teacherCount;
+    private final int nodeCount;
+    private final int[][] candidates;
+
+    // Arcs in pairs: e forward, e ^ 1 its reverse; cap is the residual capacity
+    private final int[] head;
+    private final int[] next;
+    private final int[] to;
+    private final int[] cap;
+    private final long[] cost;
+    private int arcCount;
+
+    private final int[] sourceArc;        // per subject
+    private final int[] firstCandidateArc; // per subject, candidates[s].length consecutive pairs
+    private final int[] firstSinkArc;     // per teacher, capacity consecutive pairs in increasing cost
+    private final int[] capacity;
+    private int[] demand;
+
+    private final long[] potential;
+    private final long[] dist;
+    private final int[] level;
+    private final int[] currentArc;
+    private final int[] path;
+
+    AssignmentSolver(int[] demand, int[] capacity, int[][] candidates, int[][] candidateCosts, int loadWeight) {
+        this.subjectCount = demand.length;
+        this.teacherCount = capacity.length;
+        this.nodeCount = 2 + subjectCount + teacherCount;
+        this.candidates = candidates;
+        this.capacity = capacity;
+        this.demand = new int[subjectCount];
+
+        int arcs = subjectCount;
+        for (int[] teachers : candidates) arcs += teachers.length;
+        for (int c : capacity) arcs += c;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        this.next = new int[arcs * 2];
+        this.to = new int[arcs * 2];
+        this.cap = new int[arcs * 2];
+        this.cost = new long[arcs * 2];
+
+        this.sourceArc = new int[subjectCount];
+        this.firstCandidateArc = new int[subjectCount];
+        for (int s = 0; s < subjectCount; s++) {
+            sourceArc[s] = addArc(SOURCE, subjectNode(s), 0, 0);
+        }
+        for (int s = 0; s < subjectCount; s++) {
+            firstCandidateArc[s] = arcCount;
+            for (int i = 0; i < candidates[s].length; i++) {
+                int t = candidates[s][i];
+                addArc(subjectNode(s), teacherNode(t), capacity[t], candidateCosts[s][i]);
+            }
+        }
+        this.firstSinkArc = new int[teacherCount];
+        for (int t = 0; t < teacherCount; t++) {
+            firstSinkArc[t] = arcCount;
+            for (int k = 0; k < capacity[t]; k++) {
+                addArc(teacherNode(t), SINK, 1, (long) loadWeight * (2 * k + 1));
+            }
+        }
+
+        this.potential = new long[nodeCount];
+        this.dist = new long[nodeCount];
+        this.level = new int[nodeCount];
+        this.currentArc = new int[nodeCount];
+        this.path = new int[nodeCount];
+        setDemand(demand);
+    }
+
+    private int subjectNode(int s) {
+        return 2 + s;
+    }
+
+    private int teacherNode(int t) {
+        return 2 + subjectCount + t;
+    }
+
+    private int addArc(int from, int target, int capacity, long arcCost) {
+        int e = arcCount;
+        to[e] = target;
+        cap[e] = capacity;
+        cost[e] = arcCost;
+        next[e] = head[from];
+        head[from] = e;
+        to[e + 1] = from;
+        cap[e + 1] = 0;
+        cost[e + 1] = -arcCost;
+        next[e + 1] = head[target];
+        head[target] = e + 1;
+        arcCount += 2;
+        return e;
+    }
+
+    private int flow(int e) {
+        return cap[e ^ 1];
+    }
+
+    private void push(int e, int amount) {
+        cap[e] -= amount;
+        cap[e ^ 1] += amount;
+    }
+
+    // From zero flow; all costs are non-negative, so zero potentials are valid
+    void solve() {
+        augment();
+    }
+
+    // Applies new sections-needed counts to the current optimum. Removed sections give back their most
+    // expensive load unit; the flow is then made optimal again by cancelling negative cycles, and the
+    // added sections are routed by shortest paths. Returns false if the repair gave up (too many cycles);
+    // the caller then solves from scratch.
+    boolean updateDemand(int[] newDemand, int maxCycles) {
+        for (int s = 0; s < subjectCount; s++) {
+            int excess = flow(sourceArc[s]) - newDemand[s];
+            for (int i = 0; i < candidates[s].length && excess > 0; i++) {
+                int e = firstCandidateArc[s] + 2 * i;
+                int release = Math.min(flow(e), excess);
+                for (int u = 0; u < release; u++) {
+                    push(e ^ 1, 1);
+                    push(mostExpensiveLoadArc(candidates[s][i]) ^ 1, 1);
+                    push(sourceArc[s] ^ 1, 1);
+                }
+                excess -= release;
+            }
+        }
+        setDemand(newDemand);
+        int cycles = 0;
+        while (cancelNegativeCycle()) {
+            if (++cycles > maxCycles) return false;
+        }
+        // cancelNegativeCycle left shortest distances from a virtual root in dist: valid potentials
+        System.arraycopy(dist, 0, potential, 0, nodeCount);
+        augment();
+        return true;
+    }
+
+    private void setDemand(int[] newDemand) {
+        this.demand = newDemand.clone();
+        for (int s = 0; s < subjectCount; s++) {
+            int e = sourceArc[s];
+            cap[e] = demand[s] - flow(e);
+        }
+    }
+
+    private int mostExpensiveLoadArc(int teacher) {
+        for (int k = capacity[teacher] - 1; k >= 0; k--) {
+            int e = firstSinkArc[teacher] + 2 * k;
+            if (flow(e) > 0) return e;
+        }
+        throw new IllegalStateException("Teacher " + teacher + " carries no load");
+    }
+
+    // Bellman-Ford from a virtual root connected to every node at distance 0. A cycle among the parent
+    // pointers means a negative cycle; it is cancelled and true returned. Otherwise dist holds distances.
+    private boolean cancelNegativeCycle() {
+        Arrays.fill(dist, 0);
+        int[] parentArc = new int[nodeCount];
+        Arrays.fill(parentArc, -1);
+        for (int round = 0; round < nodeCount; round++) {
+            boolean relaxed = false;
+            for (int u = 0; u < nodeCount; u++) {
+                for (int e = head[u]; e >= 0; e = next[e]) {
+                    if (cap[e] > 0 && dist[u] + cost[e] < dist[to[e]]) {
+                        dist[to[e]] = dist[u] + cost[e];
+                        parentArc[to[e]] = e;
+                        relaxed = true;
+                    }
+                }
+            }
+            if (!relaxed) return false;
+            int onCycle = findParentCycle(parentArc);
+            if (onCycle >= 0) {
+                cancelCycle(onCycle, parentArc);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int findParentCycle(int[] parentArc) {
+        int[] seenIn = new int[nodeCount];
+        Arrays.fill(seenIn, -1);
+        for (int start = 0; start < nodeCount; start++) {
+            int v = start;
+            while (v >= 0 && seenIn[v] < 0) {
+                seenIn[v] = start;
+                v = parentArc[v] >= 0 ? to[parentArc[v] ^ 1] : -1;
+            }
+            if (v >= 0 && seenIn[v] == start) return v;
+        }
+        return -1;
+    }
+
+    private void cancelCycle(int onCycle, int[] parentArc) {
+        int amount = Integer.MAX_VALUE;
+        int v = onCycle;
+        do {
+            amount = Math.min(amount, cap[parentArc[v]]);
+            v = to[parentArc[v] ^ 1];
+        } while (v != onCycle);
+        do {
+            push(parentArc[v], amount);
+            v = to[parentArc[v] ^ 1];
+        } while (v != onCycle);
+    }
+
+    private void augment() {
+        while (shortestPaths()) {
+            for (int v = 0; v < nodeCount; v++) {
+                if (dist[v] < INF) potential[v] += dist[v];
+            }
+            while (levels()) {
+                System.arraycopy(head, 0, currentArc, 0, nodeCount);
+                while (blockingPath()) {
+                    // one augmenting path per call; keep going until the level graph is blocked
+                }
+            }
+        }
+    }
+
+    private long reducedCost(int e, int from) {
+        return cost[e] + potential[from] - potential[to[e]];
+    }
+
+    // Dijkstra on reduced costs from the source; false when the sink can't be reached
+    private boolean shortestPaths() {
+        Arrays.fill(dist, INF);
+        dist[SOURCE] = 0;
+        long[] heap = new long[arcCount + 1];
+        int size = 0;
+        heap[size++] = SOURCE;
+        while (size > 0) {
+            long top = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+            int u = (int) (top & 0x3FFFFF);
+            long d = top >>> 22;
+            if (d > dist[u]) continue;
+            for (int e = head[u]; e >= 0; e = next[e]) {
+                if (cap[e] == 0) continue;
+                long candidate = d + reducedCost(e, u);
+                if (candidate < dist[to[e]]) {
+                    dist[to[e]] = candidate;
+                    heap[size++] = candidate << 22 | to[e];
+                    siftUp(heap, size - 1);
+                }
+            }
+        }
+        return dist[SINK] < INF;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] <= heap[i]) return;
+            long swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) smallest = left;
+            if (right < size && heap[right] < heap[smallest]) smallest = right;
+            if (smallest == i) return;
+            long swap = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = swap;
+            i = smallest;
+        }
+    }
+
+    // BFS levels over admissible arcs (residual, zero reduced cost); false when the sink is not reached
+    private boolean levels() {
+        Arrays.fill(level, -1);
+        level[SOURCE] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(SOURCE);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = head[u]; e >= 0; e = next[e]) {
+                int v = to[e];
+                if (cap[e] > 0 && level[v] < 0 && reducedCost(e, u) == 0) {
+                    level[v] = level[u] + 1;
+                    queue.add(v);
+                }
+            }
+        }
+        return level[SINK] >= 0;
+    }
+
+    // Iterative DFS along the level graph; pushes one path's bottleneck. Dead ends are pruned by
+    // advancing currentArc, so a phase costs O(arcs) plus the length of the paths found.
+    private boolean blockingPath() {
+        int depth = 0;
+        int u = SOURCE;
+        while (true) {
+            if (u == SINK) {
+                int amount = Integer.MAX_VALUE;
+                for (int i = 0; i < depth; i++) amount = Math.min(amount, cap[path[i]]);
+                for (int i = 0; i < depth; i++) push(path[i], amount);
+                return true;
+            }
+            int e = currentArc[u];
+            while (e >= 0 && !(cap[e] > 0 && level[to[e]] == level[u] + 1 && reducedCost(e, u) == 0)) {
+                e = next[e];
+            }
+            currentArc[u] = e;
+            if (e >= 0) {
+                path[depth++] = e;
+                u = to[e];
+            } else {
+                if (depth == 0) return false;
+                level[u] = -1; // dead end
+                int back = path[--depth];
+                u = to[back ^ 1];
+                currentArc[u] = next[currentArc[u]];
+            }
+        }
+    }
+
+    int sections(int subject, int candidate) {
+        return flow(firstCandidateArc[subject] + 2 * candidate);
+    }
+
+    int unassigned(int subject) {
+        return demand[subject] - flow(sourceArc[subject]);
+    }
+
+    long totalCost() {
+        long total = 0;
+        for (int e = 0; e < arcCount; e += 2) total += flow(e) * cost[e];
+        return total;
+    }
+
+    int load(int teacher) {
+        int load = 0;
+        for (int k = 0; k < capacity[teacher]; k++) load += flow(firstSinkArc[teacher] + 2 * k);
+        return load;
+    }
+}
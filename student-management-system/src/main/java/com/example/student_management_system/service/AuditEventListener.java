@@ -0,0 +1,156 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+import com.example.student_management_system.model.AppUser;
+import com.example.student_management_system.model.Exam;
+import com.example.student_management_system.model.StudentSubject;
+import com.example.student_management_system.model.Subject;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Feeds the audit log from Hibernate's post-commit events, so only committed changes are recorded and the
+// old values come from the state Hibernate loaded. Bulk/native statements bypass these events; the ones in
+// this code base only move rows between live and archive tables, except bulk payment approval, which appends
+// its own records (PaymentApprovalService).
+@Component
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private static final Logger log = LoggerFactory.getLogger(AuditEventListener.class);
+
+    private static final Map<Class<?>, AuditEntityType> ENTITIES = Map.of(
+            Exam.class, AuditEntityType.EXAM,
+            StudentSubject.class, AuditEntityType.ENROLLMENT,
+            AppUser.class, AuditEntityType.USER);
+
+    // Audited properties; updates are recorded only when one of them changed
+    private static final Map<AuditEntityType, List<String>> FIELDS = Map.of(
+            AuditEntityType.EXAM, List.of("student", "subject", "teacher", "score", "passed"),
+            AuditEntityType.ENROLLMENT, List.of("student", "subject", "paymentApproved", "examPassed"),
+            AuditEntityType.USER, List.of("role", "level"));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public AuditEventListener(EntityManagerFactory entityManagerFactory, AuditLog auditLog) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditLog = auditLog;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return entityType(persister) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.CREATE, null, event.getState());
+    }
+
+    // oldState is null when a detached entity was updated without being loaded; every audited field is recorded then
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.UPDATE, event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.DELETE, event.getDeletedState(), null);
+    }
+
+    // Rolled back: nothing changed, nothing to audit
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void record(EntityPersister persister, Object id, AuditAction action, Object[] oldState, Object[] newState) {
+        AuditEntityType entity = entityType(persister);
+        if (entity == null || !(id instanceof Number entityId)) return;
+        String[] names = persister.getPropertyNames();
+        List<AuditRecord.Change> changes = new ArrayList<>();
+        for (String field : FIELDS.get(entity)) {
+            int i = indexOf(names, field);
+            if (i < 0) continue;
+            Object before = oldState == null ? null : value(oldState[i]);
+            Object after = newState == null ? null : value(newState[i]);
+            if (action != AuditAction.UPDATE || oldState == null || !Objects.equals(before, after)) {
+                changes.add(new AuditRecord.Change(field, before, after));
+            }
+        }
+        if (action == AuditAction.UPDATE && changes.isEmpty()) return;
+
+        int tenantIndex = indexOf(names, "tenantId");
+        Object[] state = newState != null ? newState : oldState;
+        String tenantId = tenantIndex >= 0 && state != null ? (String) state[tenantIndex] : null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : null;
+        try {
+            auditLog.append(entity, entityId.longValue(), action, tenantId, actor, changes);
+        } catch (RuntimeException e) {
+            // The change itself is already committed; losing its audit record must not fail the request
+            log.error("Could not append audit record for {} {}", entity, entityId, e);
+        }
+    }
+
+    private static AuditEntityType entityType(EntityPersister persister) {
+        for (Class<?> type = persister.getMappedClass(); type != null; type = type.getSuperclass()) {
+            AuditEntityType entity = ENTITIES.get(type);
+            if (entity != null) return entity;
+        }
+        return null;
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // References to other entities are recorded by id
+    private static Object value(Object value) {
+        if (value instanceof AppUser user) return user.getId();
+        if (value instanceof Subject subject) return subject.getId();
+        return value;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Append-only audit trail kept in memory-mapped segment files on local disk instead of the database.
+// Appending is lock-free: a writer reserves its slot with one getAndAdd on the segment's position and
+// copies the record in; only rolling to a new segment takes a lock. Segments are fsynced every
+// fsync-interval-ms and rolled when full or every roll-interval-ms; a rolled segment is sealed (end offset
+// written, file trimmed) once its last writer has finished. Sealed segments are deleted once they are older
+// than retention-days, or oldest first while the directory is over max-total-bytes.
+@Service
+public class AuditLog {
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    // Position of a sealed segment: every later reservation overflows
+    private static final long SEALED = Long.MAX_VALUE / 2;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int retentionDays;
+    private final long maxTotalBytes;
+    private final TenancyProperties tenancyProperties;
+    private final Queue<Segment> sealing = new ConcurrentLinkedQueue<>();
+    private volatile Segment current;
+    private long lastBaseMillis;
+
+    @Autowired
+    public AuditLog(@Value("${app.audit.dir}") String dir,
+                    @Value("${app.audit.segment-bytes}") int segmentBytes,
+                    @Value("${app.audit.retention-days}") int retentionDays,
+                    @Value("${app.audit.max-total-bytes}") long maxTotalBytes,
+                    TenancyProperties tenancyProperties) {
+        this.dir = Paths.get(dir);
+        this.segmentBytes = Math.max(segmentBytes, 1 << 20);
+        this.retentionDays = retentionDays;
+        this.maxTotalBytes = maxTotalBytes;
+        this.tenancyProperties = tenancyProperties;
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final AtomicLong position = new AtomicLong(AuditLogFormat.FIRST_RECORD);
+        final AtomicInteger writers = new AtomicInteger();
+        volatile int end;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        int written() {
+            return (int) Math.min(position.get(), buffer.capacity());
+        }
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        Files.createDirectories(dir);
+        for (Path path : AuditLogReader.listSegments(dir)) {
+            recover(path);
+            lastBaseMillis = Math.max(lastBaseMillis, AuditLogReader.baseMillis(path));
+        }
+        current = openSegment();
+    }
+
+    // A segment that was never sealed (the node stopped abruptly) is trimmed to its last complete record
+    private void recover(Path path) throws IOException {
+        ByteBuffer buffer = AuditLogReader.map(path, FileChannel.MapMode.READ_WRITE);
+        if (!AuditLogFormat.isSegment(buffer) || buffer.getLong(AuditLogFormat.END_OFFSET) != 0) return;
+        int end = AuditLogFormat.recoverEnd(buffer);
+        buffer.putLong(AuditLogFormat.END_OFFSET, end);
+        ((MappedByteBuffer) buffer).force();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(end);
+        }
+        log.info("Recovered audit segment {} ({} bytes)", path.getFileName(), end);
+    }
+
+    public void append(AuditEntityType entity, long entityId, AuditAction action, String tenantId, String actor,
+                       List<AuditRecord.Change> changes) {
+        ByteBuffer record = AuditLogFormat.encode(System.currentTimeMillis(), entity, entityId, action,
+                tenantId, actor, changes);
+        int size = record.limit();
+        while (true) {
+            Segment segment = current;
+            if (segment == null) {
+                throw new IllegalStateException("Audit log is closed");
+            }
+            segment.writers.incrementAndGet();
+            try {
+                long offset = segment.position.getAndAdd(size);
+                if (offset + size <= segment.buffer.capacity()) {
+                    AuditLogFormat.write(segment.buffer, (int) offset, record);
+                    return;
+                }
+            } finally {
+                segment.writers.decrementAndGet();
+            }
+            roll(segment);
+        }
+    }
+
+    // Called by every writer that overflowed; only the first one against the current segment rolls it
+    private synchronized void roll(Segment full) {
+        if (current != full) return;
+        current = openSegment();
+        seal(full);
+    }
+
+    private void seal(Segment segment) {
+        segment.end = (int) Math.min(segment.position.getAndSet(SEALED), segment.buffer.capacity());
+        sealing.add(segment);
+    }
+
+    private Segment openSegment() {
+        long base = Math.max(System.currentTimeMillis(), lastBaseMillis + 1);
+        lastBaseMillis = base;
+        Path path = dir.resolve(AuditLogReader.segmentName(base));
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            AuditLogFormat.writeSegmentHeader(buffer, base);
+            return new Segment(path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.fsync-interval-ms}")
+    public void flush() {
+        Segment segment = current;
+        if (segment != null) {
+            segment.buffer.force();
+        }
+        for (Segment rolled : sealing) {
+            if (rolled.writers.get() == 0) {
+                finish(rolled);
+                sealing.remove(rolled);
+            }
+        }
+    }
+
+    // Time-based roll, so each segment covers a bounded time range and range queries can skip it
+    @Scheduled(fixedDelayString = "${app.audit.roll-interval-ms}", initialDelayString = "${app.audit.roll-interval-ms}")
+    public void rollIfUsed() {
+        Segment segment = current;
+        if (segment != null && segment.position.get() > AuditLogFormat.FIRST_RECORD) {
+            roll(segment);
+        }
+    }
+
+    // Segments are listed oldest first and the live ones are the newest, so deletion stops at the first segment
+    // that has to stay
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purge() {
+        List<Path> segments = AuditLogReader.listSegments(dir);
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+        long total = 0;
+        long[] sizes = new long[segments.size()];
+        for (int i = 0; i < segments.size(); i++) {
+            sizes[i] = sizeOf(segments.get(i));
+            total += sizes[i];
+        }
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (liveSegment(path) != null) break;
+            // A segment's records end where the next segment begins
+            boolean expired = retentionDays > 0 && AuditLogReader.baseMillis(segments.get(i + 1)) <= cutoff;
+            boolean overLimit = maxTotalBytes > 0 && total > maxTotalBytes;
+            if (!expired && !overLimit) break;
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete audit segment {}", path.getFileName(), e);
+                break;
+            }
+            total -= sizes[i];
+            log.info("Deleted audit segment {} ({})", path.getFileName(), expired ? "past retention" : "over size limit");
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private synchronized void finish(Segment segment) {
+        if (!segment.channel.isOpen()) return;
+        try {
+            segment.buffer.force();
+            segment.buffer.putLong(AuditLogFormat.END_OFFSET, segment.end);
+            segment.buffer.force();
+            segment.channel.truncate(segment.end);
+            segment.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Records of the caller's school (all schools for the root tenant), oldest first
+    public List<AuditRecord> query(AuditEntityType entity, Long entityId, LocalDateTime from, LocalDateTime to,
+                                   int limit) {
+        String tenant = currentTenant();
+        String tenantFilter = TenantContext.ROOT.equals(tenant) ? null : tenant;
+        long fromMillis = from == null ? Long.MIN_VALUE : from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        List<Path> segments = AuditLogReader.listSegments(dir);
+        List<AuditRecord> out = new ArrayList<>();
+        for (int i = 0; i < segments.size() && out.size() < limit; i++) {
+            if (!AuditLogReader.overlaps(segments, i, fromMillis, toMillis)) continue;
+            Path path = segments.get(i);
+            Segment live = liveSegment(path);
+            if (live != null) {
+                int end = live.end > 0 ? live.end : live.written();
+                AuditLogFormat.scan(live.buffer, end, entity, entityId, tenantFilter, fromMillis, toMillis, limit, out);
+            } else {
+                AuditLogReader.scanFile(path, entity, entityId, tenantFilter, fromMillis, toMillis, limit, out);
+            }
+        }
+        out.sort(Comparator.comparing(AuditRecord::getAt));
+        return out;
+    }
+
+    private Segment liveSegment(Path path) {
+        Segment segment = current;
+        if (segment != null && segment.path.equals(path)) return segment;
+        for (Segment rolled : sealing) {
+            if (rolled.path.equals(path)) return rolled;
+        }
+        return null;
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        Segment segment = current;
+        if (segment == null) return;
+        current = null;
+        seal(segment);
+        for (Segment rolled : sealing) {
+            finish(rolled);
+        }
+        sealing.clear();
+    }
+}
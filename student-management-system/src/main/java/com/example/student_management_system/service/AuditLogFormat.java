@@ -0,0 +1,208 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary layout of audit log segments (little endian, everything 8-byte aligned):
+//   segment header: magic, base time millis, end offset (0 until the segment is sealed)
+//   record:         header word (RECORD_MAGIC << 32 | padded length), timestamp millis, entity id,
+//                   entity type, action, tenant, actor, change count, then per change field, old, new
+// The header word is written last with release semantics, so a reader that sees it also sees the body.
+// Strings are length-prefixed UTF-8 cut to at most 255 bytes and records keep at most MAX_CHANGES changes, so
+// every record fits in MAX_RECORD.
+final class AuditLogFormat {
+
+    static final long SEGMENT_MAGIC = 0x5344554154494431L;
+    static final long RECORD_MAGIC = 0xA0D17EC0L;
+    static final int END_OFFSET = 16;
+    static final int FIRST_RECORD = 24;
+
+    // Offsets inside a record
+    private static final int TIMESTAMP = 8;
+    private static final int ENTITY_ID = 16;
+    private static final int ENTITY_TYPE = 24;
+    private static final int BODY = 26;
+
+    private static final int MAX_CHANGES = 32;
+    private static final int MAX_STRING_BYTES = 255;
+    // Tenant, actor, change count, then per change a field name and two values tagged as strings
+    static final int MAX_RECORD = (BODY + 2 * (1 + MAX_STRING_BYTES) + 1
+            + MAX_CHANGES * (3 * (1 + MAX_STRING_BYTES) + 2) + 7) & ~7;
+    private static final byte NULL = 0, LONG = 1, DOUBLE = 2, FALSE = 3, TRUE = 4, STRING = 5;
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAX_RECORD).order(ByteOrder.LITTLE_ENDIAN));
+
+    private AuditLogFormat() {
+    }
+
+    static void writeSegmentHeader(ByteBuffer segment, long baseMillis) {
+        segment.putLong(0, SEGMENT_MAGIC);
+        segment.putLong(8, baseMillis);
+        segment.putLong(END_OFFSET, 0L);
+    }
+
+    static boolean isSegment(ByteBuffer segment) {
+        return segment.capacity() >= FIRST_RECORD && segment.getLong(0) == SEGMENT_MAGIC;
+    }
+
+    // Returns the encoded record in a per-thread buffer, valid until the thread's next encode()
+    static ByteBuffer encode(long atMillis, AuditEntityType entity, long entityId, AuditAction action,
+                             String tenantId, String actor, List<AuditRecord.Change> changes) {
+        ByteBuffer out = SCRATCH.get().clear();
+        out.putLong(0L); // header word, set by write()
+        out.putLong(atMillis);
+        out.putLong(entityId);
+        out.put((byte) entity.ordinal());
+        out.put((byte) action.ordinal());
+        putString(out, tenantId);
+        putString(out, actor);
+        int count = Math.min(changes.size(), MAX_CHANGES);
+        out.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            AuditRecord.Change change = changes.get(i);
+            putString(out, change.getField());
+            putValue(out, change.getOldValue());
+            putValue(out, change.getNewValue());
+        }
+        while ((out.position() & 7) != 0) {
+            out.put((byte) 0);
+        }
+        return out.flip();
+    }
+
+    // Copies the body into its reserved slot, then publishes the header word
+    static void write(ByteBuffer segment, int offset, ByteBuffer record) {
+        int length = record.limit();
+        segment.put(offset + 8, record, 8, length - 8);
+        WORDS.setRelease(segment, offset, RECORD_MAGIC << 32 | length);
+    }
+
+    // Record length at offset, or 0 if there is no complete record there
+    static int recordLength(ByteBuffer segment, int offset, int end) {
+        if (offset + BODY > end) return 0;
+        long header = (long) WORDS.getAcquire(segment, offset);
+        int length = (int) header;
+        if (header >>> 32 != RECORD_MAGIC || length < BODY || (length & 7) != 0 || offset + length > end) {
+            return 0;
+        }
+        return length;
+    }
+
+    // Scans [FIRST_RECORD, end) and adds matching records to out. Entity, id and time are checked at fixed
+    // offsets before anything is decoded. Slots without a complete record (a writer still busy, or one that
+    // died mid-write) are stepped over a word at a time.
+    static void scan(ByteBuffer segment, int end, AuditEntityType entity, Long entityId, String tenantId,
+                     long fromMillis, long toMillis, int limit, List<AuditRecord> out) {
+        int offset = FIRST_RECORD;
+        while (offset < end && out.size() < limit) {
+            int length = recordLength(segment, offset, end);
+            if (length == 0) {
+                offset += 8;
+                continue;
+            }
+            long at = segment.getLong(offset + TIMESTAMP);
+            if (at >= fromMillis && at < toMillis
+                    && (entity == null || segment.get(offset + ENTITY_TYPE) == entity.ordinal())
+                    && (entityId == null || segment.getLong(offset + ENTITY_ID) == entityId)) {
+                AuditRecord record = decode(segment, offset);
+                if (tenantId == null || tenantId.equals(record.getTenantId())) {
+                    out.add(record);
+                }
+            }
+            offset += length;
+        }
+    }
+
+    // End of the last complete record, for segments that were never sealed (e.g. after a crash)
+    static int recoverEnd(ByteBuffer segment) {
+        int end = segment.capacity();
+        int last = FIRST_RECORD;
+        int offset = FIRST_RECORD;
+        while (offset < end) {
+            int length = recordLength(segment, offset, end);
+            if (length == 0) {
+                offset += 8;
+            } else {
+                offset += length;
+                last = offset;
+            }
+        }
+        return last;
+    }
+
+    private static AuditRecord decode(ByteBuffer segment, int offset) {
+        ByteBuffer in = segment.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(offset + TIMESTAMP);
+        long at = in.getLong();
+        long entityId = in.getLong();
+        AuditEntityType entity = AuditEntityType.values()[in.get()];
+        AuditAction action = AuditAction.values()[in.get()];
+        String tenantId = getString(in);
+        String actor = getString(in);
+        int count = in.get();
+        List<AuditRecord.Change> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            changes.add(new AuditRecord.Change(getString(in), getValue(in), getValue(in)));
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(at), ZoneId.systemDefault());
+        return new AuditRecord(time, entity, entityId, action, tenantId, actor, changes);
+    }
+
+    private static void putValue(ByteBuffer out, Object value) {
+        if (value == null) {
+            out.put(NULL);
+        } else if (value instanceof Boolean b) {
+            out.put(b ? TRUE : FALSE);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.put(DOUBLE).putDouble(((Number) value).doubleValue());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            out.put(LONG).putLong(((Number) value).longValue());
+        } else {
+            out.put(STRING);
+            putString(out, value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+    }
+
+    private static Object getValue(ByteBuffer in) {
+        return switch (in.get()) {
+            case LONG -> in.getLong();
+            case DOUBLE -> in.getDouble();
+            case FALSE -> false;
+            case TRUE -> true;
+            case STRING -> getString(in);
+            default -> null;
+        };
+    }
+
+    // Longer strings are cut at a character boundary, so they still decode
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length > MAX_STRING_BYTES) {
+            length = MAX_STRING_BYTES;
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+        }
+        out.put((byte) length).put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Byte.toUnsignedInt(in.get());
+        if (length == 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
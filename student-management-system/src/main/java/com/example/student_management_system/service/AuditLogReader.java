@@ -0,0 +1,107 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.Enum.AuditEntityType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Read side of the audit log. Segments are named after their base time, so a time range only opens the
+// segments that can overlap it. Also usable offline against a copied log directory:
+//   java -cp target/classes com.example.student_management_system.service.AuditLogReader <dir> [entity] [id]
+public final class AuditLogReader {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditLogReader() {
+    }
+
+    static String segmentName(long baseMillis) {
+        return String.format("%s%013d%s", PREFIX, baseMillis, SUFFIX);
+    }
+
+    static long baseMillis(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Segment files in time order
+    static List<Path> listSegments(Path dir) {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ByteBuffer map(Path segment, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(segment, options)) {
+            return channel.map(mode, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    // Scans closed segments on disk; live segments are handled by AuditLog, which knows where they end
+    static void scanFile(Path segment, AuditEntityType entity, Long entityId, String tenantId,
+                         long fromMillis, long toMillis, int limit, List<AuditRecord> out) {
+        try {
+            ByteBuffer buffer = map(segment, FileChannel.MapMode.READ_ONLY);
+            if (!AuditLogFormat.isSegment(buffer)) return;
+            long end = buffer.getLong(AuditLogFormat.END_OFFSET);
+            int limitOffset = end > 0 ? (int) Math.min(end, buffer.capacity()) : buffer.capacity();
+            AuditLogFormat.scan(buffer, limitOffset, entity, entityId, tenantId, fromMillis, toMillis, limit, out);
+        } catch (NoSuchFileException e) {
+            // deleted by retention after the directory was listed
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Segment i holds records from its base time up to the next segment's base time
+    static boolean overlaps(List<Path> segments, int i, long fromMillis, long toMillis) {
+        long start = baseMillis(segments.get(i));
+        long nextStart = i + 1 < segments.size() ? baseMillis(segments.get(i + 1)) : Long.MAX_VALUE;
+        return start < toMillis && nextStart > fromMillis;
+    }
+
+    public static List<AuditRecord> read(Path dir, AuditEntityType entity, Long entityId, int limit) {
+        List<Path> segments = listSegments(dir);
+        List<AuditRecord> out = new ArrayList<>();
+        for (Path segment : segments) {
+            scanFile(segment, entity, entityId, null, Long.MIN_VALUE, Long.MAX_VALUE, limit, out);
+        }
+        return out;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: AuditLogReader <dir> [EXAM|ENROLLMENT|USER] [entityId]");
+            System.exit(2);
+        }
+        AuditEntityType entity = args.length > 1 ? AuditEntityType.valueOf(args[1].toUpperCase()) : null;
+        Long entityId = args.length > 2 ? Long.valueOf(args[2]) : null;
+        for (AuditRecord record : read(Paths.get(args[0]), entity, entityId, Integer.MAX_VALUE)) {
+            System.out.println(record);
+        }
+    }
+}
@@ -1,17 +1,19 @@
 package com.example.student_management_system.service;
 
+import com.example.student_management_system.Config.TenantContext;
 import com.example.student_management_system.model.AppUser;
 import com.example.student_management_system.repositiory.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,32 +21,53 @@ import java.util.Optional;
 public class AuthService implements UserDetailsService {
     private final AppUserRepository appUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameFilterService usernameFilterService;
 
     @Autowired
-    public AuthService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder,
+                       UsernameFilterService usernameFilterService) {
         this.appUserRepository = appUserRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameFilterService = usernameFilterService;
     }
 
     public AppUser signup(AppUser user) {
-        if (appUserRepository.existsByUsername(user.getUsername())) {
+        if (usernameFilterService.isTaken(user.getUsername())) {
             throw new RuntimeException("Username already taken");
         }
         if (user.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return appUserRepository.save(user);
+        try {
+            return appUserRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Username already taken");
+        }
+    }
+
+    // Keeps the user out of the inactive-user archival (see UserArchiveService)
+    public void recordLogin(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusDays(1);
+        if (TenantContext.get() != null) {
+            appUserRepository.touchLastActive(username, now, staleBefore);
+        } else {
+            TenantContext.callAs(TenantContext.ROOT, () -> appUserRepository.touchLastActive(username, now, staleBefore));
+        }
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<AppUser> appUser = appUserRepository.findByUsername(username);
+        // Usernames are unique across the shared database, so without an explicit tenant look the user up as ROOT
+        Optional<AppUser> appUser = TenantContext.get() != null
+                ? appUserRepository.findByUsername(username)
+                : TenantContext.callAs(TenantContext.ROOT, () -> appUserRepository.findByUsername(username));
         if (appUser.isEmpty()) {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
         AppUser user = appUser.get();
         String roleName = user.getRole() != null ? user.getRole().name() : "STUDENT";
         List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + roleName));
-        return new User(user.getUsername(), user.getPassword(), authorities);
+        return new TenantUser(user.getUsername(), user.getPassword(), authorities, user.getTenantId());
     }
 }
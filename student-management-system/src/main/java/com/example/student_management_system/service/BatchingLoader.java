@@ -0,0 +1,156 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// DataLoader-style lookup by id. Callers asking for an id that is already being fetched wait on the same
+// query; distinct ids requested within the batch window are fetched together with one IN query.
+// Results are detached entities shared between callers and must not be modified.
+// load() blocks until a scheduler thread has run the query on a connection of its own, so callers must not hold
+// one (be inside a transaction) while they wait, or a burst of callers can drain the pool.
+class BatchingLoader<T> {
+
+    private record Key(String tenant, Long id) {
+    }
+
+    private final Function<Collection<Long>, List<T>> fetch;
+    private final Function<T, Long> idOf;
+    private final Supplier<String> tenant;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final long timeoutMs;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Optional<T>>> inFlight = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private Map<String, List<Long>> pending = new HashMap<>();
+    private int pendingCount;
+    private boolean flushScheduled;
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final Counter queries;
+
+    BatchingLoader(String entity,
+                   Function<Collection<Long>, List<T>> fetch,
+                   Function<T, Long> idOf,
+                   Supplier<String> tenant,
+                   TransactionTemplate transactionTemplate,
+                   ScheduledExecutorService scheduler,
+                   long windowMicros, int maxBatch, long timeoutMs,
+                   MeterRegistry meterRegistry) {
+        this.fetch = fetch;
+        this.idOf = idOf;
+        this.tenant = tenant;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduler = scheduler;
+        this.windowMicros = windowMicros;
+        this.maxBatch = maxBatch;
+        this.timeoutMs = timeoutMs;
+        this.requests = meterRegistry.counter("entity.loader.requests", "entity", entity);
+        this.coalesced = meterRegistry.counter("entity.loader.coalesced", "entity", entity);
+        this.queries = meterRegistry.counter("entity.loader.queries", "entity", entity);
+        // Queries a plain findById per call would have issued, minus the ones actually run
+        FunctionCounter.builder("entity.loader.queries.saved", this,
+                        loader -> loader.requests.count() - loader.queries.count())
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+
+    Optional<T> load(Long id) {
+        requests.increment();
+        Key key = new Key(tenant.get(), id);
+        CompletableFuture<Optional<T>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<T>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        enqueue(key);
+        return await(created);
+    }
+
+    private void enqueue(Key key) {
+        boolean flushNow = false;
+        synchronized (pendingLock) {
+            pending.computeIfAbsent(key.tenant(), t -> new ArrayList<>()).add(key.id());
+            pendingCount++;
+            if (pendingCount >= maxBatch) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (flushNow) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        Map<String, List<Long>> batch;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new HashMap<>();
+            pendingCount = 0;
+            flushScheduled = false;
+        }
+        batch.forEach(this::fetchBatch);
+    }
+
+    private void fetchBatch(String tenantId, List<Long> ids) {
+        Map<Long, T> byId = new HashMap<>();
+        try {
+            queries.increment();
+            // Read-write template on purpose: a replica could still miss a row the caller just created
+            List<T> rows = TenantContext.callAs(tenantId, () -> transactionTemplate.execute(status -> fetch.apply(ids)));
+            if (rows != null) {
+                rows.forEach(row -> byId.put(idOf.apply(row), row));
+            }
+        } catch (RuntimeException e) {
+            for (Long id : ids) {
+                CompletableFuture<Optional<T>> future = inFlight.remove(new Key(tenantId, id));
+                if (future != null) future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Long id : ids) {
+            // Removed before completing so later callers start a fresh query instead of reusing this result
+            CompletableFuture<Optional<T>> future = inFlight.remove(new Key(tenantId, id));
+            if (future != null) future.complete(Optional.ofNullable(byId.get(id)));
+        }
+    }
+
+    private Optional<T> await(CompletableFuture<Optional<T>> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading entity", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out loading entity", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.DTOS.DashboardDTO;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.DashboardDepartmentStat;
+import com.example.student_management_system.model.DashboardLevelStat;
+import com.example.student_management_system.model.DashboardSubjectStat;
+import com.example.student_management_system.model.OutboxCheckpoint;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.DashboardDepartmentStatRepository;
+import com.example.student_management_system.repositiory.DashboardLevelStatRepository;
+import com.example.student_management_system.repositiory.DashboardSubjectStatRepository;
+import com.example.student_management_system.repositiory.OutboxCheckpointRepository;
+import com.example.student_management_system.repositiory.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Keeps the manager dashboard summary tables (dashboard_level_stat, dashboard_subject_stat,
+// dashboard_department_stat) up to date from the outbox. As a durable consumer its updates commit in the
+// same transaction as its checkpoint, so every event is applied exactly once; the deltas can therefore be
+// plain increments. rebuild(...) recomputes everything from the base tables.
+@Service
+public class DashboardService implements OutboxConsumer {
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final Set<OutboxEventType> EVENTS = EnumSet.of(
+            OutboxEventType.ENROLLMENT_CREATED, OutboxEventType.PAYMENT_APPROVED, OutboxEventType.ENROLLMENT_PASSED,
+            OutboxEventType.STUDENT_SAVED, OutboxEventType.STUDENT_PROMOTED, OutboxEventType.STUDENT_DELETED,
+            OutboxEventType.STUDENT_ARCHIVED, OutboxEventType.STUDENT_REACTIVATED,
+            OutboxEventType.TEACHER_SAVED, OutboxEventType.TEACHER_DELETED, OutboxEventType.TEACHER_SUBJECTS_CHANGED);
+
+    private final DashboardLevelStatRepository levelStats;
+    private final DashboardSubjectStatRepository subjectStats;
+    private final DashboardDepartmentStatRepository departmentStats;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final TenantPartitions tenantPartitions;
+    private final TransactionTemplate rebuildTransaction;
+
+    @Autowired
+    public DashboardService(DashboardLevelStatRepository levelStats,
+                            DashboardSubjectStatRepository subjectStats,
+                            DashboardDepartmentStatRepository departmentStats,
+                            OutboxCheckpointRepository checkpointRepository,
+                            OutboxEventRepository outboxEventRepository,
+                            OutboxService outboxService,
+                            TenantPartitions tenantPartitions,
+                            PlatformTransactionManager transactionManager) {
+        this.levelStats = levelStats;
+        this.subjectStats = subjectStats;
+        this.departmentStats = departmentStats;
+        this.checkpointRepository = checkpointRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.tenantPartitions = tenantPartitions;
+        // One snapshot for the whole rebuild, so the summaries and the new checkpoint agree
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public String name() {
+        return "manager-dashboard";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return EVENTS.contains(type);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        JsonNode payload = outboxService.readPayload(event);
+        String tenant = event.getTenantId();
+        switch (event.getEventType()) {
+            case ENROLLMENT_CREATED -> subjectStats.addCounts(tenant, payload.path("subjectId").asLong(), 1,
+                    payload.path("paymentApproved").asBoolean() ? 0 : 1, payload.path("examPassed").asBoolean() ? 1 : 0);
+            case PAYMENT_APPROVED -> subjectStats.addCounts(tenant, payload.path("subjectId").asLong(), 0, -1, 0);
+            case ENROLLMENT_PASSED -> subjectStats.addCounts(tenant, payload.path("subjectId").asLong(), 0, 0, 1);
+            case STUDENT_SAVED -> {
+                if (!payload.path("created").asBoolean()) addLevel(tenant, payload.path("previousLevel"), -1);
+                addLevel(tenant, payload.path("level"), 1);
+            }
+            case STUDENT_PROMOTED -> {
+                addLevel(tenant, payload.path("fromLevel"), -1);
+                addLevel(tenant, payload.path("toLevel"), 1);
+            }
+            case STUDENT_DELETED, STUDENT_ARCHIVED -> {
+                addLevel(tenant, payload.path("level"), -1);
+                addEnrollments(tenant, payload.path("enrollments"), -1);
+            }
+            case STUDENT_REACTIVATED -> {
+                addLevel(tenant, payload.path("level"), 1);
+                addEnrollments(tenant, payload.path("enrollments"), 1);
+            }
+            case TEACHER_SAVED -> {
+                if (!payload.path("created").asBoolean()) {
+                    departmentStats.addTeachers(tenant, department(payload.path("previousDepartment")), -1,
+                            -payload.path("previousSalary").asDouble(0));
+                }
+                departmentStats.addTeachers(tenant, department(payload.path("department")), 1,
+                        payload.path("salary").asDouble(0));
+                subjectStats.refreshDepartmentsForTeacher(tenant, payload.path("teacherId").asLong());
+            }
+            case TEACHER_DELETED -> {
+                departmentStats.addTeachers(tenant, department(payload.path("department")), -1,
+                        -payload.path("salary").asDouble(0));
+                for (JsonNode subjectId : payload.path("subjectIds")) {
+                    subjectStats.refreshDepartment(tenant, subjectId.asLong());
+                }
+            }
+            case TEACHER_SUBJECTS_CHANGED -> subjectStats.refreshDepartment(tenant, payload.path("subjectId").asLong());
+            default -> {
+            }
+        }
+    }
+
+    private void addLevel(String tenant, JsonNode level, int delta) {
+        if (level.isNumber()) levelStats.addStudents(tenant, level.asInt(), delta);
+    }
+
+    private void addEnrollments(String tenant, JsonNode enrollments, int sign) {
+        for (JsonNode enrollment : enrollments) {
+            if (!enrollment.path("subjectId").isNumber()) continue;
+            subjectStats.addCounts(tenant, enrollment.path("subjectId").asLong(), sign,
+                    enrollment.path("paymentApproved").asBoolean() ? 0 : sign,
+                    enrollment.path("examPassed").asBoolean() ? sign : 0);
+        }
+    }
+
+    private static String department(JsonNode department) {
+        return department.isTextual() ? department.asText() : "";
+    }
+
+    // Full recompute for every tenant partition. Holds the consumer's checkpoint lock while it runs, so
+    // incremental delivery pauses and resumes right after the last event the rebuild has seen.
+    // The checkpoint moves to the highest id in the rebuild's snapshot, so every event visible to it is counted
+    // once and never delivered again. Ids up to there that the snapshot can't see yet (their transaction was
+    // still open) become gaps and are delivered when they commit; old gaps the snapshot already sees are dropped.
+    public void rebuildAll() {
+        tenantPartitions.forEach(partition -> rebuildTransaction.executeWithoutResult(status -> {
+            String key = OutboxDispatcher.checkpointKey(this, partition);
+            OutboxCheckpoint checkpoint = checkpointRepository.lockByConsumerWaiting(key)
+                    .orElseGet(() -> new OutboxCheckpoint(key, 0L, LocalDateTime.now(), null));
+            levelStats.deleteForRebuild(partition);
+            subjectStats.deleteForRebuild(partition);
+            departmentStats.deleteForRebuild(partition);
+            levelStats.rebuild(partition);
+            subjectStats.rebuild(partition);
+            departmentStats.rebuild(partition);
+            long afterId = checkpoint.getLastEventId();
+            long maxId = Math.max(afterId, outboxEventRepository.findMaxId());
+            OutboxGaps gaps = OutboxGaps.parse(checkpoint.getGaps());
+            if (!gaps.isEmpty()) gaps.resolved(outboxEventRepository.findExistingIds(List.copyOf(gaps.ids())));
+            int dropped = gaps.recordIds(afterId, outboxEventRepository.findIdsBetween(afterId, maxId),
+                    System.currentTimeMillis());
+            if (dropped > 0) {
+                log.warn("Dashboard rebuild for {} could not track {} uncommitted ids below event {}",
+                        partition, dropped, maxId);
+            }
+            checkpoint.setLastEventId(maxId);
+            checkpoint.setGaps(gaps.encode());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            log.info("Rebuilt manager dashboard for {} up to event {}", partition, checkpoint.getLastEventId());
+        }));
+    }
+
+    // Reads only the summary tables
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard() {
+        List<DashboardDTO.LevelRow> levels = new ArrayList<>();
+        for (DashboardLevelStat stat : levelStats.findAllByOrderByLevelAsc()) {
+            if (stat.getStudents() != 0) levels.add(new DashboardDTO.LevelRow(stat.getLevel(), stat.getStudents()));
+        }
+
+        Map<String, DashboardDTO.DepartmentRow> departments = new TreeMap<>();
+        for (DashboardDepartmentStat stat : departmentStats.findAll()) {
+            DashboardDTO.DepartmentRow row = departmentRow(departments, stat.getDepartment());
+            row.setTeachers(row.getTeachers() + stat.getTeachers());
+            row.setSalaryTotal(row.getSalaryTotal() + stat.getSalaryTotal());
+        }
+        for (DashboardSubjectStat stat : subjectStats.findAll()) {
+            DashboardDTO.DepartmentRow row = departmentRow(departments, stat.getDepartment());
+            row.setEnrollments(row.getEnrollments() + stat.getEnrollments());
+            row.setPendingPayments(row.getPendingPayments() + stat.getPendingPayments());
+            row.setPassedEnrollments(row.getPassedEnrollments() + stat.getPassedEnrollments());
+        }
+        List<DashboardDTO.DepartmentRow> rows = new ArrayList<>();
+        for (DashboardDTO.DepartmentRow row : departments.values()) {
+            if (row.getTeachers() == 0 && row.getEnrollments() == 0) continue;
+            row.setPassRate(row.getEnrollments() == 0 ? null : (double) row.getPassedEnrollments() / row.getEnrollments());
+            rows.add(row);
+        }
+        return new DashboardDTO(levels, rows);
+    }
+
+    private static DashboardDTO.DepartmentRow departmentRow(Map<String, DashboardDTO.DepartmentRow> rows, String department) {
+        return rows.computeIfAbsent(department, d -> new DashboardDTO.DepartmentRow(d, 0, 0, 0, 0, 0, null));
+    }
+}
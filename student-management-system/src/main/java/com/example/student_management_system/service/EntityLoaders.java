@@ -0,0 +1,77 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import com.example.student_management_system.repositiory.TeacherRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+// Coalescing id lookups for the entities every exam submission resolves (see BatchingLoader).
+// Metrics: entity.loader.requests / queries / coalesced / queries.saved, tagged by entity.
+@Component
+public class EntityLoaders {
+
+    private final ScheduledExecutorService scheduler;
+    private final BatchingLoader<Student> students;
+    private final BatchingLoader<Subject> subjects;
+    private final BatchingLoader<Teacher> teachers;
+
+    @Autowired
+    public EntityLoaders(StudentRepository studentRepository,
+                         SubjectRepository subjectRepository,
+                         TeacherRepository teacherRepository,
+                         TenancyProperties tenancyProperties,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.loader.window-micros:2000}") long windowMicros,
+                         @Value("${app.loader.max-batch:200}") int maxBatch,
+                         @Value("${app.loader.threads:2}") int threads,
+                         @Value("${app.loader.timeout-ms:5000}") long timeoutMs) {
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "entity-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Supplier<String> tenant = () -> TenantContext.get() != null ? TenantContext.get() : tenancyProperties.getDefaultTenant();
+
+        this.students = new BatchingLoader<>("student", studentRepository::findAllById, Student::getId, tenant,
+                transactionTemplate, scheduler, windowMicros, maxBatch, timeoutMs, meterRegistry);
+        this.subjects = new BatchingLoader<>("subject", subjectRepository::findAllById, Subject::getId, tenant,
+                transactionTemplate, scheduler, windowMicros, maxBatch, timeoutMs, meterRegistry);
+        this.teachers = new BatchingLoader<>("teacher", teacherRepository::findAllById, Teacher::getId, tenant,
+                transactionTemplate, scheduler, windowMicros, maxBatch, timeoutMs, meterRegistry);
+    }
+
+    public Optional<Student> student(Long id) {
+        return students.load(id);
+    }
+
+    public Optional<Subject> subject(Long id) {
+        return subjects.load(id);
+    }
+
+    public Optional<Teacher> teacher(Long id) {
+        return teachers.load(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.AppUser;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.OutboxEventRepository;
+import com.example.student_management_system.repositiory.TeacherRepository;
+import com.example.student_management_system.repositiory.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-Sent Events push of exam results, enrollment changes and promotions, fed from the outbox as a
+// node-local consumer. Connections are async servlet requests, so an idle subscriber costs its emitter and a
+// small buffer, not a thread; a shared pool of sender threads writes to whichever subscribers have events.
+// A subscriber whose buffer fills up (it reads slower than events arrive) is disconnected and can resume
+// with Last-Event-ID, which replays from the outbox table.
+@Service
+public class EventStreamService implements OutboxConsumer {
+
+    private static final Set<OutboxEventType> EVENTS = EnumSet.of(
+            OutboxEventType.EXAM_CREATED, OutboxEventType.ENROLLMENT_CREATED, OutboxEventType.PAYMENT_APPROVED,
+            OutboxEventType.ENROLLMENT_PASSED, OutboxEventType.STUDENT_PROMOTED);
+
+    // Sent instead of a replay that would be too long; the client should reload through the REST API
+    private static final String RESET = "RESET";
+
+    private record StreamEvent(long id, String type, String data) {
+    }
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+    // What a subscriber may see: managers everything in their school, teachers their subjects,
+    // students their own results
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final String tenantId;
+        final Long studentId;
+        final Set<Long> subjectIds;
+        final Long subjectFilter;
+        final ArrayBlockingQueue<StreamEvent> buffer;
+        final Queue<StreamEvent> backlog = new ArrayDeque<>();
+        // Ids the replay put in the backlog; the same event arriving live is skipped. Only this overlap is
+        // deduplicated: the dispatcher delivers late-committing events out of id order, so there is no high-water mark.
+        final Set<Long> replayed = new HashSet<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean replaying = true;
+
+        Subscriber(SseEmitter emitter, String tenantId, Long studentId, Set<Long> subjectIds, Long subjectFilter,
+                   int capacity) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+            this.studentId = studentId;
+            this.subjectIds = subjectIds;
+            this.subjectFilter = subjectFilter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean wants(String eventTenant, JsonNode payload) {
+            if (!TenantContext.ROOT.equals(tenantId) && !tenantId.equals(eventTenant)) return false;
+            JsonNode subject = payload.path("subjectId");
+            if (subjectFilter != null && (!subject.isNumber() || subject.asLong() != subjectFilter)) return false;
+            if (studentId != null) return payload.path("studentId").asLong() == studentId;
+            if (subjectIds != null) return subject.isNumber() && subjectIds.contains(subject.asLong());
+            return true;
+        }
+
+        StreamEvent next() {
+            StreamEvent next = backlog.poll();
+            if (next != null) return next;
+            while ((next = buffer.poll()) != null && replayed.remove(next.id())) {
+                // already sent by the replay
+            }
+            return next;
+        }
+    }
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final TeacherRepository teacherRepository;
+    private final TenancyProperties tenancyProperties;
+    private final int bufferSize;
+    private final int replayLimit;
+    private final long timeoutMs;
+    private final long settleMs;
+    private final Counter evicted;
+
+    @Autowired
+    public EventStreamService(OutboxEventRepository outboxEventRepository,
+                              OutboxService outboxService,
+                              UserRepository userRepository,
+                              TeacherRepository teacherRepository,
+                              TenancyProperties tenancyProperties,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.stream.buffer-size}") int bufferSize,
+                              @Value("${app.stream.replay-limit}") int replayLimit,
+                              @Value("${app.stream.timeout-ms}") long timeoutMs,
+                              @Value("${app.stream.sender-threads}") int senderThreads,
+                              @Value("${outbox.settle-ms}") long settleMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.userRepository = userRepository;
+        this.teacherRepository = teacherRepository;
+        this.tenancyProperties = tenancyProperties;
+        this.bufferSize = bufferSize;
+        this.replayLimit = replayLimit;
+        this.timeoutMs = timeoutMs;
+        this.settleMs = settleMs;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "event-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evicted = Counter.builder("event.stream.evicted").register(meterRegistry);
+        meterRegistry.gauge("event.stream.subscribers", subscribers, Set::size);
+    }
+
+    @Override
+    public String name() {
+        return "event-stream";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return EVENTS.contains(type);
+    }
+
+    @Override
+    public boolean durable() {
+        return false;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (subscribers.isEmpty()) return;
+        JsonNode payload = outboxService.readPayload(event);
+        StreamEvent streamEvent = new StreamEvent(event.getId(), event.getEventType().name(), event.getPayload());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(event.getTenantId(), payload)) {
+                offer(subscriber, streamEvent);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String username, Long subjectFilter, Long lastEventId) {
+        AppUser user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User " + username + " not found"));
+        Long studentId = null;
+        Set<Long> subjectIds = null;
+        if (user.getRole() == Role.STUDENT) {
+            studentId = user.getId();
+        } else if (user.getRole() == Role.TEACHER) {
+            subjectIds = new HashSet<>(teacherRepository.findSubjectIds(user.getId()));
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, currentTenant(), studentId, subjectIds, subjectFilter,
+                bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Registered before the replay query, so nothing committed in between is missed;
+        // events seen by both are sent once (replayed)
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            replay(subscriber, lastEventId);
+        }
+        subscriber.replaying = false;
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        List<OutboxEvent> missed = outboxEventRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(
+                lastEventId, settledBefore, PageRequest.of(0, replayLimit + 1));
+        if (missed.size() > replayLimit) {
+            long upTo = outboxEventRepository.findMaxIdCreatedBefore(settledBefore);
+            subscriber.backlog.add(new StreamEvent(upTo, RESET, "{}"));
+            return;
+        }
+        for (OutboxEvent event : missed) {
+            if (accepts(event.getEventType()) && subscriber.wants(event.getTenantId(), outboxService.readPayload(event))) {
+                subscriber.backlog.add(new StreamEvent(event.getId(), event.getEventType().name(), event.getPayload()));
+                subscriber.replayed.add(event.getId());
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds ones that have gone away
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, HEARTBEAT);
+        }
+    }
+
+    private void offer(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.buffer.offer(event)) {
+            scheduleDrain(subscriber);
+        } else {
+            evicted.increment();
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.replaying && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            StreamEvent next;
+            while ((next = subscriber.next()) != null) {
+                send(subscriber, next);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter was completed); draining stays set so nothing is rescheduled
+            subscribers.remove(subscriber);
+            return;
+        }
+        subscriber.draining.set(false);
+        if (!subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, StreamEvent event) throws IOException {
+        if (event == HEARTBEAT) {
+            subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            return;
+        }
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.type())
+                .data(event.data(), MediaType.APPLICATION_JSON));
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+}
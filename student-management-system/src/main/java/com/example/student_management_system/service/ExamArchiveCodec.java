@@ -0,0 +1,84 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.ArchivedExamDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Fixed-width binary encoding of archived exam rows, gzip-compressed as a whole segment.
+// Nullable ids are written as -1 and a missing score as NaN.
+final class ExamArchiveCodec {
+
+    private static final int VERSION = 1;
+
+    private ExamArchiveCodec() {
+    }
+
+    static byte[] encode(List<ArchivedExamDTO> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeInt(rows.size());
+            for (ArchivedExamDTO row : rows) {
+                out.writeLong(row.getExamId());
+                out.writeLong(orNone(row.getStudentId()));
+                out.writeLong(orNone(row.getSubjectId()));
+                out.writeLong(orNone(row.getTeacherId()));
+                out.writeLong(orNone(row.getExamSlotId()));
+                out.writeLong(row.getExamDate() == null ? Long.MIN_VALUE : row.getExamDate().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(row.getTerm());
+                out.writeBoolean(row.isPassed());
+                out.writeDouble(row.getScore() == null ? Double.NaN : row.getScore());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ArchivedExamDTO> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported archive segment version " + version);
+            }
+            int count = in.readInt();
+            List<ArchivedExamDTO> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long examId = in.readLong();
+                Long studentId = fromNone(in.readLong());
+                Long subjectId = fromNone(in.readLong());
+                Long teacherId = fromNone(in.readLong());
+                Long examSlotId = fromNone(in.readLong());
+                long epoch = in.readLong();
+                int term = in.readInt();
+                boolean passed = in.readBoolean();
+                double score = in.readDouble();
+                rows.add(new ArchivedExamDTO(examId, studentId, subjectId, teacherId, examSlotId,
+                        epoch == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC),
+                        term, passed, Double.isNaN(score) ? null : score));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long orNone(Long id) {
+        return id == null ? -1 : id;
+    }
+
+    private static Long fromNone(long id) {
+        return id == -1 ? null : id;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.DTOS.ArchivedExamDTO;
+import com.example.student_management_system.Util.AcademicTerm;
+import com.example.student_management_system.model.ExamArchiveSegment;
+import com.example.student_management_system.repositiory.ExamArchiveSegmentRepository;
+import com.example.student_management_system.repositiory.ExamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Moves exams of closed terms out of the hot exam table into compressed ExamArchiveSegments.
+// Archived exams stay readable through findArchived, which is slower: it inflates whole segments.
+@Service
+public class ExamArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(ExamArchiveService.class);
+
+    private final ExamRepository examRepository;
+    private final ExamArchiveSegmentRepository segmentRepository;
+    private final ExamPartitionManager partitionManager;
+    private final TenantPartitions tenantPartitions;
+    private final TransactionTemplate transactionTemplate;
+    private final int keepTerms;
+    private final int segmentRows;
+
+    @Autowired
+    public ExamArchiveService(ExamRepository examRepository,
+                              ExamArchiveSegmentRepository segmentRepository,
+                              ExamPartitionManager partitionManager,
+                              TenantPartitions tenantPartitions,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.exam.archive.keep-terms:4}") int keepTerms,
+                              @Value("${app.exam.archive.segment-rows:5000}") int segmentRows) {
+        this.examRepository = examRepository;
+        this.segmentRepository = segmentRepository;
+        this.partitionManager = partitionManager;
+        this.tenantPartitions = tenantPartitions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.keepTerms = Math.max(1, keepTerms);
+        this.segmentRows = segmentRows;
+    }
+
+    // Archive every term older than the newest keep-terms terms (the current term included)
+    @Scheduled(cron = "${app.exam.archive.cron:0 30 3 * * SUN}")
+    public void archiveClosedTerms() {
+        int oldestHotTerm = AcademicTerm.minus(AcademicTerm.current(), keepTerms - 1);
+        tenantPartitions.forEach(partition -> {
+            List<Integer> terms = transactionTemplate.execute(status -> examRepository.findTermsBefore(oldestHotTerm));
+            for (Integer term : Objects.requireNonNull(terms)) {
+                archiveTerm(term);
+            }
+        });
+    }
+
+    // Archives one term for the current tenant (or every tenant in the store when running as root).
+    // Each segment is written and its rows deleted in one transaction, so a crash never loses or duplicates rows.
+    public long archiveTerm(int term) {
+        if (!AcademicTerm.isValid(term)) {
+            throw new IllegalArgumentException("Invalid term " + term);
+        }
+        if (term >= AcademicTerm.minus(AcademicTerm.current(), keepTerms - 1)) {
+            throw new IllegalArgumentException("Term " + term + " is still open");
+        }
+        long archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(term));
+            if (moved == null || moved == 0) break;
+            archived += moved;
+        }
+        // Other tenants may still have rows in the partition; only a store-wide run can empty it
+        if (tenantPartitions.all().contains(TenantContext.get())) {
+            partitionManager.dropIfEmpty(term);
+        }
+        log.info("Archived {} exams of term {}", archived, term);
+        return archived;
+    }
+
+    private int archiveChunk(int term) {
+        List<Object[]> rows = examRepository.findArchiveBatch(term, PageRequest.of(0, segmentRows));
+        if (rows.isEmpty()) return 0;
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<ArchivedExamDTO> segment = new ArrayList<>();
+        String segmentTenant = null;
+        for (Object[] row : rows) {
+            String tenant = (String) row[1];
+            if (!segment.isEmpty() && !Objects.equals(tenant, segmentTenant)) {
+                saveSegment(segmentTenant, term, segment);
+                segment = new ArrayList<>();
+            }
+            segmentTenant = tenant;
+            ids.add((Long) row[0]);
+            segment.add(new ArchivedExamDTO((Long) row[0], (Long) row[2], (Long) row[3], (Long) row[4], (Long) row[5],
+                    (LocalDateTime) row[6], term, (Boolean) row[7], (Double) row[8]));
+        }
+        saveSegment(segmentTenant, term, segment);
+        examRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    private void saveSegment(String tenant, int term, List<ArchivedExamDTO> rows) {
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (ArchivedExamDTO row : rows) {
+            long student = row.getStudentId() == null ? -1 : row.getStudentId();
+            min = Math.min(min, student);
+            max = Math.max(max, student);
+        }
+        segmentRepository.save(ExamArchiveSegment.builder()
+                // Explicit because the job runs as root across every tenant of the store
+                .tenantId(tenant)
+                .term(term)
+                .minStudentId(min)
+                .maxStudentId(max)
+                .rowCount(rows.size())
+                .createdAt(LocalDateTime.now())
+                .data(ExamArchiveCodec.encode(rows))
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedExamDTO> findArchived(Long studentId, Long subjectId, Integer term) {
+        List<ArchivedExamDTO> result = new ArrayList<>();
+        for (ExamArchiveSegment segment : segmentRepository.findCovering(studentId, term)) {
+            for (ArchivedExamDTO row : ExamArchiveCodec.decode(segment.getData())) {
+                if (studentId.equals(row.getStudentId())
+                        && (subjectId == null || subjectId.equals(row.getSubjectId()))) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Archived exams of every student fromId..toId, in term order; each overlapping segment is inflated once
+    @Transactional(readOnly = true)
+    public List<ArchivedExamDTO> findArchivedInRange(Long fromId, Long toId) {
+        List<ArchivedExamDTO> result = new ArrayList<>();
+        for (ExamArchiveSegment segment : segmentRepository.findOverlapping(fromId, toId)) {
+            for (ArchivedExamDTO row : ExamArchiveCodec.decode(segment.getData())) {
+                Long studentId = row.getStudentId();
+                if (studentId != null && studentId >= fromId && studentId <= toId) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.Util.AcademicTerm;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Keeps one exam partition per term once the table has been converted with db/exam-partitioning.sql.
+// Does nothing while exam is still a plain table.
+@Component
+public class ExamPartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(ExamPartitionManager.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TenantPartitions tenantPartitions;
+    private final TransactionTemplate transactionTemplate;
+    private final int termsAhead;
+
+    @Autowired
+    public ExamPartitionManager(TenantPartitions tenantPartitions,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.exam.partitions.terms-ahead:1}") int termsAhead) {
+        this.tenantPartitions = tenantPartitions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.termsAhead = termsAhead;
+    }
+
+    // Must run inside a transaction bound to the partition being maintained
+    public boolean isPartitioned() {
+        Number count = (Number) entityManager.createNativeQuery(
+                "select count(*) from pg_partitioned_table p join pg_class c on c.oid = p.partrelid " +
+                        "where c.relname = 'exam' and pg_table_is_visible(c.oid)").getSingleResult();
+        return count.longValue() > 0;
+    }
+
+    // Create the current and upcoming term partitions before rows for them arrive. Each partition is created in its
+    // own transaction, so one that fails (e.g. a lock timeout) is logged and retried on the next run without
+    // holding back the others or application startup.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.exam.partitions.cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        tenantPartitions.forEach(partition -> {
+            int term = AcademicTerm.current();
+            for (int i = 0; i <= termsAhead; i++) {
+                int target = term;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (isPartitioned()) createPartition(target);
+                    });
+                } catch (RuntimeException e) {
+                    log.error("Could not create exam partition {} in {}", partitionName(target), partition, e);
+                }
+                term = AcademicTerm.next(term);
+            }
+        });
+    }
+
+    // Rows of a term without a partition land in the default partition, and PostgreSQL refuses to create a
+    // partition for values the default partition holds. Such rows are moved into a new table that is then attached.
+    private void createPartition(int term) {
+        String name = partitionName(term);
+        Number exists = (Number) entityManager.createNativeQuery(
+                "select count(*) from pg_class where relname = '" + name + "' and pg_table_is_visible(oid)").getSingleResult();
+        if (exists.longValue() > 0) return;
+        String bounds = "FROM (" + term + ") TO (" + (term + 1) + ")";
+        String defaultPartition = (String) entityManager.createNativeQuery(
+                "select case when partdefid = 0 then null else partdefid::regclass::text end " +
+                        "from pg_partitioned_table where partrelid = 'exam'::regclass").getSingleResult();
+        if (defaultPartition == null) {
+            entityManager.createNativeQuery("CREATE TABLE " + name + " PARTITION OF exam FOR VALUES " + bounds).executeUpdate();
+            return;
+        }
+        entityManager.createNativeQuery("CREATE TABLE " + name + " (LIKE exam INCLUDING DEFAULTS)").executeUpdate();
+        int moved = entityManager.createNativeQuery("WITH moved AS (DELETE FROM " + defaultPartition +
+                " WHERE term >= " + term + " AND term < " + (term + 1) + " RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved").executeUpdate();
+        entityManager.createNativeQuery("ALTER TABLE exam ATTACH PARTITION " + name + " FOR VALUES " + bounds).executeUpdate();
+        if (moved > 0) {
+            log.info("Moved {} exam rows of term {} out of {} into {}", moved, term, defaultPartition, name);
+        }
+    }
+
+    // Called once a term has been fully archived; dropping the partition returns its space immediately
+    public void dropIfEmpty(int term) {
+        if (!AcademicTerm.isValid(term)) {
+            throw new IllegalArgumentException("Invalid term " + term);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!isPartitioned()) return;
+            String name = partitionName(term);
+            Number exists = (Number) entityManager.createNativeQuery(
+                    "select count(*) from pg_class where relname = '" + name + "' and pg_table_is_visible(oid)").getSingleResult();
+            if (exists.longValue() == 0) return;
+            Number rows = (Number) entityManager.createNativeQuery(
+                    "select count(*) from (select 1 from " + name + " limit 1) r").getSingleResult();
+            if (rows.longValue() == 0) {
+                entityManager.createNativeQuery("DROP TABLE " + name).executeUpdate();
+                log.info("Dropped empty exam partition {}", name);
+            }
+        });
+    }
+
+    private static String partitionName(int term) {
+        return "exam_t" + term;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Marks StudentSubject.examPassed once a passing exam has been recorded, and announces it as ENROLLMENT_PASSED
+@Component
+public class ExamPassedConsumer implements OutboxConsumer {
+
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final OutboxService outboxService;
+
+    @Autowired
+    public ExamPassedConsumer(StudentSubjectRepository studentSubjectRepository, OutboxService outboxService) {
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.outboxService = outboxService;
+    }
+
+    @Override
+    public String name() {
+        return "exam-passed";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return type == OutboxEventType.EXAM_CREATED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        JsonNode payload = outboxService.readPayload(event);
+        if (!payload.path("passed").asBoolean()) {
+            return;
+        }
+        studentSubjectRepository.findByStudentIdAndSubjectId(
+                        payload.path("studentId").asLong(), payload.path("subjectId").asLong())
+                .ifPresent(ss -> {
+                    if (!ss.isExamPassed()) {
+                        ss.setExamPassed(true);
+                        studentSubjectRepository.save(ss);
+                        // Published only on the false -> true flip, so counting consumers see each pass once
+                        Map<String, Object> passed = new HashMap<>();
+                        passed.put("studentSubjectId", ss.getId());
+                        passed.put("studentId", ss.getStudent().getId());
+                        passed.put("subjectId", ss.getSubject().getId());
+                        outboxService.publish(OutboxEventType.ENROLLMENT_PASSED, ss.getStudent().getId(), passed,
+                                event.getTenantId());
+                    }
+                });
+    }
+}
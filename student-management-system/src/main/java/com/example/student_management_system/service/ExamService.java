@@ -1,12 +1,19 @@
 package com.example.student_management_system.service;
 
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Util.AcademicTerm;
 import com.example.student_management_system.model.*;
 import com.example.student_management_system.repositiory.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ExamService {
@@ -15,52 +22,110 @@ public class ExamService {
     private final SubjectRepository subjectRepository;
     private final TeacherRepository teacherRepository;
     private final StudentSubjectRepository studentSubjectRepository;
+    private final OutboxService outboxService;
+    private final ExamSlotRepository examSlotRepository;
+    private final EntityLoaders entityLoaders;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public ExamService(ExamRepository examRepository,
                        StudentRepository studentRepository,
                        SubjectRepository subjectRepository,
                        TeacherRepository teacherRepository,
-                       StudentSubjectRepository studentSubjectRepository) {
+                       StudentSubjectRepository studentSubjectRepository,
+                       OutboxService outboxService,
+                       ExamSlotRepository examSlotRepository,
+                       EntityLoaders entityLoaders,
+                       PlatformTransactionManager transactionManager) {
         this.examRepository = examRepository;
         this.studentRepository = studentRepository;
         this.subjectRepository = subjectRepository;
         this.teacherRepository = teacherRepository;
         this.studentSubjectRepository = studentSubjectRepository;
+        this.outboxService = outboxService;
+        this.examSlotRepository = examSlotRepository;
+        this.entityLoaders = entityLoaders;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    // Create a new exam result for a student-subject
+    // Create a new exam result for a student-subject.
+    // Derived effects (StudentSubject.examPassed, ...) are applied asynchronously by OutboxConsumers.
     public Exam createExam(Long studentId, Long subjectId, Long teacherId, boolean passed, Double score) {
-        Student student = studentRepository.findById(studentId)
+        return createExam(studentId, subjectId, teacherId, passed, score, null);
+    }
+
+    // Not @Transactional: the lookups wait on the loader, which needs a connection of its own, so they run before
+    // this thread takes one. Otherwise a burst of submissions would each hold a connection while waiting for another.
+    public Exam createExam(Long studentId, Long subjectId, Long teacherId, boolean passed, Double score, Long examSlotId) {
+        // Coalesced with concurrent submissions looking up the same rows; detached, only their ids are written
+        Student student = entityLoaders.student(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
-        Subject subject = subjectRepository.findById(subjectId)
+        Subject subject = entityLoaders.subject(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
-        Teacher teacher = teacherRepository.findById(teacherId)
+        Teacher teacher = entityLoaders.teacher(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
 
+        return transactionTemplate.execute(status ->
+                saveExam(student, subject, teacher, passed, score, examSlotId));
+    }
+
+    private Exam saveExam(Student student, Subject subject, Teacher teacher, boolean passed, Double score,
+                          Long examSlotId) {
+        Long studentId = student.getId();
+        Long subjectId = subject.getId();
+        Long teacherId = teacher.getId();
+        if (passed && !studentSubjectRepository.existsByStudentAndSubject(student, subject)) {
+            throw new RuntimeException("StudentSubject not found");
+        }
+
+        ExamSlot examSlot = null;
+        if (examSlotId != null) {
+            examSlot = examSlotRepository.findById(examSlotId)
+                    .orElseThrow(() -> new RuntimeException("Exam slot not found"));
+            if (!examSlot.getSubject().getId().equals(subjectId)) {
+                throw new RuntimeException("Exam slot is scheduled for a different subject");
+            }
+        }
+
+        LocalDateTime examDate = LocalDateTime.now();
         Exam exam = Exam.builder()
                 .student(student)
                 .subject(subject)
                 .teacher(teacher)
-                .examDate(LocalDateTime.now())
+                .examSlot(examSlot)
+                .examDate(examDate)
+                .term(AcademicTerm.of(examDate.toLocalDate()))
                 .passed(passed)
                 .score(score)
                 .build();
 
         Exam savedExam = examRepository.save(exam);
 
-        // If passed, update StudentSubject.examPassed
-        if (passed) {
-            StudentSubject ss = studentSubjectRepository.findByStudentAndSubject(student, subject)
-                    .orElseThrow(() -> new RuntimeException("StudentSubject not found"));
-            ss.setExamPassed(true);
-            studentSubjectRepository.save(ss);
-        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("examId", savedExam.getId());
+        payload.put("studentId", studentId);
+        payload.put("subjectId", subjectId);
+        payload.put("teacherId", teacherId);
+        payload.put("passed", passed);
+        payload.put("score", score);
+        payload.put("examDate", savedExam.getExamDate().toString());
+        payload.put("term", savedExam.getTerm());
+        outboxService.publish(OutboxEventType.EXAM_CREATED, studentId, payload);
 
         return savedExam;
     }
 
+    @Transactional(readOnly = true)
     public List<Exam> getExamsForStudentSubject(Long studentId, Long subjectId) {
         return examRepository.findByStudentIdAndSubjectId(studentId, subjectId);
     }
+
+    // Only touches the partition for the term
+    @Transactional(readOnly = true)
+    public List<Exam> getExamsForStudentSubject(Long studentId, Long subjectId, Integer term) {
+        if (term == null) {
+            return getExamsForStudentSubject(studentId, subjectId);
+        }
+        return examRepository.findByTermAndStudentIdAndSubjectId(term, studentId, subjectId);
+    }
 }
@@ -0,0 +1,306 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.LeaderboardEntry;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Util.AcademicTerm;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.ExamRepository;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory leaderboards, per tenant:
+//  - per subject and term, the best exam score of the top `capacity` students (bounded; a new exam can only
+//    push entries out, and a full board that loses a student to deletion or archiving is refilled from the exams)
+//  - per level, every student ordered by GPA (promotions take students out of a level, so a bounded
+//    board could not be refilled without going back to the database)
+// Rebuilt from the tables at startup and kept current from the outbox; reads never touch the database.
+@Service
+public class LeaderboardService implements OutboxConsumer {
+
+    private static final Set<OutboxEventType> EVENTS = EnumSet.of(
+            OutboxEventType.EXAM_CREATED, OutboxEventType.STUDENT_SAVED, OutboxEventType.STUDENT_PROMOTED,
+            OutboxEventType.STUDENT_DELETED, OutboxEventType.STUDENT_ARCHIVED, OutboxEventType.STUDENT_REACTIVATED);
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry e) -> -e.value)
+            .thenComparingLong(e -> e.studentId);
+
+    private record Entry(long studentId, double value, Long examId) {
+    }
+
+    private record SubjectTerm(long subjectId, int term) {
+    }
+
+    private static final class Board {
+        final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+        final Map<Long, Entry> byStudent = new HashMap<>();
+
+        // Keeps the student's best value; returns false if nothing changed
+        boolean offer(Entry entry, int capacity) {
+            Entry current = byStudent.get(entry.studentId);
+            if (current != null && current.value >= entry.value) return false;
+            if (capacity > 0 && current == null && ranked.size() >= capacity
+                    && RANKING.compare(entry, ranked.last()) > 0) return false;
+            if (current != null) ranked.remove(current);
+            ranked.add(entry);
+            byStudent.put(entry.studentId, entry);
+            if (capacity > 0 && ranked.size() > capacity) {
+                byStudent.remove(ranked.pollLast().studentId);
+            }
+            return true;
+        }
+
+        // Unlike offer, replaces the value even if it is lower (GPA can go down)
+        void put(Entry entry) {
+            remove(entry.studentId);
+            ranked.add(entry);
+            byStudent.put(entry.studentId, entry);
+        }
+
+        boolean remove(long studentId) {
+            Entry current = byStudent.remove(studentId);
+            if (current != null) ranked.remove(current);
+            return current != null;
+        }
+
+        List<LeaderboardEntry> top(int limit) {
+            List<LeaderboardEntry> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            Iterator<Entry> it = ranked.iterator();
+            while (it.hasNext() && result.size() < limit) {
+                Entry e = it.next();
+                result.add(new LeaderboardEntry(result.size() + 1, e.studentId, e.value, e.examId));
+            }
+            return result;
+        }
+    }
+
+    private static final class TenantBoards {
+        final Map<SubjectTerm, Board> subjects = new HashMap<>();
+        final Map<Integer, Board> levels = new HashMap<>();
+        final Map<Long, Integer> levelOf = new HashMap<>();
+        final Map<Long, Double> gpaOf = new HashMap<>();
+
+        void setStudent(long studentId, Integer level, Double gpa) {
+            removeStudentFromLevel(studentId);
+            if (level == null) return;
+            levelOf.put(studentId, level);
+            if (gpa != null) {
+                gpaOf.put(studentId, gpa);
+                levels.computeIfAbsent(level, l -> new Board()).put(new Entry(studentId, gpa, null));
+            }
+        }
+
+        void removeStudentFromLevel(long studentId) {
+            Integer level = levelOf.remove(studentId);
+            gpaOf.remove(studentId);
+            if (level != null && levels.containsKey(level)) levels.get(level).remove(studentId);
+        }
+    }
+
+    private final ExamRepository examRepository;
+    private final StudentRepository studentRepository;
+    private final OutboxService outboxService;
+    private final TenancyProperties tenancyProperties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+    private final int termsKept;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TenantBoards> boards = new HashMap<>();
+
+    @Autowired
+    public LeaderboardService(ExamRepository examRepository,
+                              StudentRepository studentRepository,
+                              OutboxService outboxService,
+                              TenancyProperties tenancyProperties,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.leaderboard.capacity:100}") int capacity,
+                              @Value("${app.leaderboard.terms-kept:2}") int termsKept) {
+        this.examRepository = examRepository;
+        this.studentRepository = studentRepository;
+        this.outboxService = outboxService;
+        this.tenancyProperties = tenancyProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capacity = capacity;
+        this.termsKept = Math.max(1, termsKept);
+    }
+
+    public List<LeaderboardEntry> topForSubject(long subjectId, Integer term, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int resolvedTerm = term != null ? term : AcademicTerm.current();
+        lock.readLock().lock();
+        try {
+            TenantBoards tenantBoards = boards.get(currentTenant());
+            Board board = tenantBoards == null ? null : tenantBoards.subjects.get(new SubjectTerm(subjectId, resolvedTerm));
+            return board == null ? List.of() : board.top(Math.min(limit, capacity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> topForLevel(int level, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        lock.readLock().lock();
+        try {
+            TenantBoards tenantBoards = boards.get(currentTenant());
+            Board board = tenantBoards == null ? null : tenantBoards.levels.get(level);
+            return board == null ? List.of() : board.top(Math.min(limit, capacity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int oldestKeptTerm() {
+        return AcademicTerm.minus(AcademicTerm.current(), termsKept - 1);
+    }
+
+    @Override
+    public String name() {
+        return "leaderboards";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return EVENTS.contains(type);
+    }
+
+    @Override
+    public boolean durable() {
+        return false;
+    }
+
+    // Called once per tenant partition; replaces the boards of the tenants found in it
+    @Override
+    public void rebuild() {
+        Map<String, TenantBoards> fresh = new HashMap<>();
+        int fromTerm = oldestKeptTerm();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> students = studentRepository.streamLevelAndGpa()) {
+                students.forEach(row -> fresh.computeIfAbsent((String) row[3], t -> new TenantBoards())
+                        .setStudent((Long) row[0], (Integer) row[1], parseGpa((String) row[2])));
+            }
+            try (Stream<Object[]> scores = examRepository.streamScoresFromTerm(fromTerm)) {
+                scores.forEach(row -> fresh.computeIfAbsent((String) row[5], t -> new TenantBoards()).subjects
+                        .computeIfAbsent(new SubjectTerm((Long) row[2], (Integer) row[4]), k -> new Board())
+                        .offer(new Entry((Long) row[1], (Double) row[3], (Long) row[0]), capacity));
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            boards.putAll(fresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        JsonNode payload = outboxService.readPayload(event);
+        long student = payload.path("studentId").asLong();
+        List<SubjectTerm> refill = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            TenantBoards tenantBoards = boards.computeIfAbsent(event.getTenantId(), t -> new TenantBoards());
+            switch (event.getEventType()) {
+                case EXAM_CREATED -> {
+                    if (payload.path("score").isNumber() && payload.path("term").isInt()
+                            && payload.path("term").asInt() >= oldestKeptTerm()) {
+                        tenantBoards.subjects
+                                .computeIfAbsent(new SubjectTerm(payload.path("subjectId").asLong(), payload.path("term").asInt()),
+                                        k -> new Board())
+                                .offer(new Entry(student, payload.path("score").asDouble(), payload.path("examId").asLong()), capacity);
+                    }
+                }
+                case STUDENT_SAVED, STUDENT_REACTIVATED -> tenantBoards.setStudent(student,
+                        payload.path("level").isNull() ? null : payload.path("level").asInt(),
+                        parseGpa(payload.path("gpa").isNull() ? null : payload.path("gpa").asText()));
+                case STUDENT_PROMOTED -> tenantBoards.setStudent(student, payload.path("toLevel").asInt(),
+                        tenantBoards.gpaOf.get(student));
+                case STUDENT_DELETED, STUDENT_ARCHIVED -> {
+                    tenantBoards.removeStudentFromLevel(student);
+                    tenantBoards.subjects.forEach((key, board) -> {
+                        // A board that was full may have evicted the student who now belongs in the last place
+                        if (board.remove(student) && capacity > 0 && board.ranked.size() == capacity - 1) {
+                            refill.add(key);
+                        }
+                    });
+                }
+                default -> {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (SubjectTerm key : refill) {
+            refill(event.getTenantId(), key, student);
+        }
+    }
+
+    // Queried outside the lock; offer() keeps each student's best, so exams whose events are still to come are harmless
+    private void refill(String tenant, SubjectTerm key, long removedStudent) {
+        List<Object[]> rows = examRepository.findBestScores(tenant, key.subjectId(), key.term(), capacity + 1);
+        lock.writeLock().lock();
+        try {
+            TenantBoards tenantBoards = boards.get(tenant);
+            Board board = tenantBoards == null ? null : tenantBoards.subjects.get(key);
+            if (board == null) return; // pruned in the meantime
+            for (Object[] row : rows) {
+                long studentId = ((Number) row[1]).longValue();
+                if (studentId == removedStudent) continue;
+                board.offer(new Entry(studentId, ((Number) row[2]).doubleValue(), ((Number) row[0]).longValue()), capacity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Boards of terms that have dropped out of the kept window
+    @Scheduled(cron = "${app.leaderboard.prune-cron:0 15 0 * * *}")
+    public void pruneOldTerms() {
+        int fromTerm = oldestKeptTerm();
+        lock.writeLock().lock();
+        try {
+            boards.values().forEach(b -> b.subjects.keySet().removeIf(key -> key.term() < fromTerm));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+
+    // gpa is stored as text; anything unparsable keeps the student off the level board
+    private static Double parseGpa(String gpa) {
+        if (gpa == null) return null;
+        try {
+            return Double.parseDouble(gpa.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
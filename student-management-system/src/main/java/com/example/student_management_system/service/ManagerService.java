@@ -4,25 +4,36 @@ import com.example.student_management_system.Enum.Role;
 import com.example.student_management_system.model.AppUser;
 import com.example.student_management_system.model.Manager;
 import com.example.student_management_system.repositiory.ManagerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
 @Service
 public class ManagerService {
+    // Fields PATCH /api/managers/{id} may change
+    private static final Set<String> PATCHABLE = Set.of("name", "password", "salary", "department");
+
     private final ManagerRepository managerRepository;
+    private final UserPatcher userPatcher;
 
     @Autowired
-    public ManagerService(ManagerRepository managerRepository) {
+    public ManagerService(ManagerRepository managerRepository, UserPatcher userPatcher) {
         this.managerRepository = managerRepository;
+        this.userPatcher = userPatcher;
     }
 
+    @Transactional(readOnly = true)
     public List<Manager> getManagers() {
         AppUser appUser = new Manager();
         return managerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Manager getManageById(Long id) {
         return managerRepository.findById(id).orElse(null);
     }
@@ -49,4 +60,9 @@ public class ManagerService {
                     return managerRepository.save(updatedManager);
                 });
     }
+
+    public Manager patchManager(Long id, JsonNode changes) {
+        return userPatcher.patch(managerRepository, id, changes, PATCHABLE, manager -> patched -> {
+        });
+    }
 }
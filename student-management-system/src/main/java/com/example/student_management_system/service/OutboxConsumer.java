@@ -0,0 +1,29 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.OutboxEvent;
+
+// In-process handler for outbox events. Any bean implementing this is picked up by the OutboxDispatcher.
+// Delivery is at-least-once and in event id order, so events about one student arrive in the order they were written;
+// handle() must therefore be idempotent.
+public interface OutboxConsumer {
+
+    // Stable name, used as the checkpoint key
+    String name();
+
+    boolean accepts(OutboxEventType type);
+
+    void handle(OutboxEvent event);
+
+    // Durable consumers keep their checkpoint in outbox_checkpoint and update it in the same transaction
+    // as their handling, so each event is processed once per cluster. Node-local consumers (in-memory
+    // state rebuilt at startup) keep their checkpoint in memory and see every event on every node.
+    default boolean durable() {
+        return true;
+    }
+
+    // Node-local consumers reload their state from the tables here; called once at startup
+    // before delivery starts, and only events newer than the reload are replayed to them
+    default void rebuild() {
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.model.OutboxCheckpoint;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.OutboxCheckpointRepository;
+import com.example.student_management_system.repositiory.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Drains the outbox in batches, one worker per consumer (and per tenant partition) so a slow consumer
+// never holds up the others. Within a consumer events are handled in id order; the checkpoint only moves
+// once a whole batch succeeds, so a failure means the batch is redelivered on the next poll (at-least-once).
+// An id the checkpoint moves past without having seen it (its transaction committed late) is kept as a gap and
+// delivered once it appears, out of order; ids still missing after gap-timeout-ms are given up as rolled back.
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantPartitions tenantPartitions;
+    private final List<OutboxConsumer> consumers;
+    private final int batchSize;
+    private final long settleMs;
+    private final long retentionHours;
+    private final long gapTimeoutMs;
+
+    // Each (consumer, partition) has at most one drain queued or running (see running)
+    private final ExecutorService workers;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+    // Checkpoints and gaps of node-local consumers
+    private final Map<String, Long> localCheckpoints = new ConcurrentHashMap<>();
+    private final Map<String, OutboxGaps> localGaps = new ConcurrentHashMap<>();
+    private volatile boolean started;
+
+    @Autowired
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxCheckpointRepository checkpointRepository,
+                            TransactionTemplate transactionTemplate,
+                            TenantPartitions tenantPartitions,
+                            List<OutboxConsumer> consumers,
+                            @Value("${outbox.batch-size}") int batchSize,
+                            @Value("${outbox.settle-ms}") long settleMs,
+                            @Value("${outbox.retention-hours}") long retentionHours,
+                            @Value("${outbox.gap-timeout-ms}") long gapTimeoutMs,
+                            @Value("${outbox.worker-threads}") int workerThreads) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tenantPartitions = tenantPartitions;
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.settleMs = settleMs;
+        this.retentionHours = retentionHours;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        tenantPartitions.forEach(partition -> {
+            for (OutboxConsumer consumer : consumers) {
+                String key = checkpointKey(consumer, partition);
+                running.put(key, new AtomicBoolean());
+                if (!consumer.durable()) {
+                    long checkpoint = currentMaxEventId();
+                    consumer.rebuild();
+                    localCheckpoints.put(key, checkpoint);
+                    localGaps.remove(key);
+                } else if (!checkpointRepository.existsById(key)) {
+                    try {
+                        checkpointRepository.save(new OutboxCheckpoint(key, 0L, LocalDateTime.now(), null));
+                    } catch (DataIntegrityViolationException e) {
+                        // another node created it first
+                    }
+                }
+            }
+        });
+        started = true;
+    }
+
+    // Highest settled event id. Taken before a node-local consumer rebuilds,
+    // so anything that commits while it reads the tables is replayed afterwards.
+    private long currentMaxEventId() {
+        return outboxEventRepository.findMaxIdCreatedBefore(settledBefore());
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms}")
+    public void poll() {
+        if (!started) return;
+        for (String partition : tenantPartitions.all()) {
+            for (OutboxConsumer consumer : consumers) {
+                String key = checkpointKey(consumer, partition);
+                AtomicBoolean busy = running.get(key);
+                if (busy != null && busy.compareAndSet(false, true)) {
+                    workers.execute(() -> TenantContext.runAs(partition, () -> {
+                        try {
+                            drain(consumer, key);
+                        } catch (RuntimeException e) {
+                            log.warn("Outbox consumer {} failed, batch will be retried", key, e);
+                        } finally {
+                            busy.set(false);
+                        }
+                    }));
+                }
+            }
+        }
+    }
+
+    // The shared database keeps the plain consumer name so existing checkpoints carry over
+    static String checkpointKey(OutboxConsumer consumer, String partition) {
+        return TenantContext.ROOT.equals(partition) ? consumer.name() : consumer.name() + "@" + partition;
+    }
+
+    private void drain(OutboxConsumer consumer, String key) {
+        boolean more = true;
+        while (more) {
+            more = consumer.durable() ? drainDurableBatch(consumer, key) : drainLocalBatch(consumer, key);
+        }
+    }
+
+    private boolean drainDurableBatch(OutboxConsumer consumer, String key) {
+        Boolean more = transactionTemplate.execute(status -> {
+            OutboxCheckpoint checkpoint = checkpointRepository.lockByConsumer(key).orElse(null);
+            if (checkpoint == null) {
+                return false; // held by another node
+            }
+            OutboxGaps gaps = OutboxGaps.parse(checkpoint.getGaps());
+            boolean gapsChanged = deliverGaps(consumer, key, gaps);
+            List<OutboxEvent> batch = nextBatch(checkpoint.getLastEventId());
+            if (!batch.isEmpty()) {
+                deliver(consumer, batch);
+                recordGaps(key, gaps, checkpoint.getLastEventId(), batch);
+                checkpoint.setLastEventId(batch.get(batch.size() - 1).getId());
+            } else if (!gapsChanged) {
+                return false;
+            }
+            checkpoint.setGaps(gaps.encode());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            return batch.size() == batchSize;
+        });
+        return Boolean.TRUE.equals(more);
+    }
+
+    private boolean drainLocalBatch(OutboxConsumer consumer, String key) {
+        Long from = localCheckpoints.computeIfAbsent(key, k -> currentMaxEventId());
+        OutboxGaps gaps = localGaps.computeIfAbsent(key, k -> new OutboxGaps());
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            deliverGaps(consumer, key, gaps);
+            List<OutboxEvent> events = nextBatch(from);
+            deliver(consumer, events);
+            return events;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return false;
+        }
+        recordGaps(key, gaps, from, batch);
+        localCheckpoints.put(key, batch.get(batch.size() - 1).getId());
+        return batch.size() == batchSize;
+    }
+
+    // Delivers gap events that have appeared since the last poll; true when the gap list changed
+    private boolean deliverGaps(OutboxConsumer consumer, String key, OutboxGaps gaps) {
+        if (gaps.isEmpty()) return false;
+        List<Long> expired = gaps.expire(System.currentTimeMillis(), gapTimeoutMs);
+        if (!expired.isEmpty()) {
+            log.warn("Outbox consumer {} gave up on {} ids missing for over {} ms (rolled back?): {}",
+                    key, expired.size(), gapTimeoutMs, expired.size() > 20 ? expired.subList(0, 20) + "..." : expired);
+        }
+        if (gaps.isEmpty()) return true;
+        List<OutboxEvent> appeared = outboxEventRepository.findByIdInOrderByIdAsc(List.copyOf(gaps.ids()));
+        deliver(consumer, appeared);
+        gaps.resolved(appeared.stream().map(OutboxEvent::getId).toList());
+        return !expired.isEmpty() || !appeared.isEmpty();
+    }
+
+    private void recordGaps(String key, OutboxGaps gaps, long afterId, List<OutboxEvent> batch) {
+        int dropped = gaps.record(afterId, batch, System.currentTimeMillis());
+        if (dropped > 0) {
+            log.warn("Outbox consumer {} is tracking {} gaps; {} more ids below event {} will not be re-polled",
+                    key, OutboxGaps.MAX_GAPS, dropped, batch.get(batch.size() - 1).getId());
+        }
+    }
+
+    // Events younger than settle-ms are held back so a slower transaction that took a lower id usually commits first
+    // and keeps id order; one that takes longer becomes a gap
+    private List<OutboxEvent> nextBatch(long afterId) {
+        return outboxEventRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(
+                afterId, settledBefore(), PageRequest.of(0, batchSize));
+    }
+
+    private LocalDateTime settledBefore() {
+        return LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+    }
+
+    private void deliver(OutboxConsumer consumer, List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (consumer.accepts(event.getEventType())) {
+                consumer.handle(event);
+            }
+        }
+    }
+
+    // Delete events every durable consumer has processed, once they are past the retention window
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purge() {
+        if (!started) return;
+        tenantPartitions.forEach(partition -> transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deleteProcessed(checkpointRepository.findMinLastEventId(),
+                        LocalDateTime.now().minusHours(retentionHours))));
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdown();
+    }
+}
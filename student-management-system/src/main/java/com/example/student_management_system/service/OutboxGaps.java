@@ -0,0 +1,91 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Outbox ids a consumer's checkpoint has moved past without seeing them: the event of a transaction that had not
+// committed yet when higher ids were delivered, or an id that will never appear (its transaction rolled back).
+// Each is re-polled until it shows up or has been missing for the gap timeout. Kept per checkpoint as
+// "id@firstSeenMillis,..." so a durable consumer's gaps survive restarts and move between nodes with its lock.
+final class OutboxGaps {
+
+    // Bounds the list when a checkpoint jumps far, e.g. a new consumer starting below purged events
+    static final int MAX_GAPS = 10_000;
+
+    private final TreeMap<Long, Long> firstSeen = new TreeMap<>();
+
+    static OutboxGaps parse(String encoded) {
+        OutboxGaps gaps = new OutboxGaps();
+        if (encoded == null || encoded.isBlank()) return gaps;
+        for (String entry : encoded.split(",")) {
+            int at = entry.indexOf('@');
+            gaps.firstSeen.put(Long.parseLong(entry.substring(0, at)), Long.parseLong(entry.substring(at + 1)));
+        }
+        return gaps;
+    }
+
+    String encode() {
+        if (firstSeen.isEmpty()) return null;
+        StringBuilder out = new StringBuilder(firstSeen.size() * 24);
+        for (Map.Entry<Long, Long> gap : firstSeen.entrySet()) {
+            if (out.length() > 0) out.append(',');
+            out.append(gap.getKey()).append('@').append(gap.getValue());
+        }
+        return out.toString();
+    }
+
+    boolean isEmpty() {
+        return firstSeen.isEmpty();
+    }
+
+    Set<Long> ids() {
+        return firstSeen.keySet();
+    }
+
+    // Records the ids between afterId and the batch's last id that the batch (in id order) didn't contain.
+    // Returns how many could not be kept because the list is full.
+    int record(long afterId, List<OutboxEvent> batch, long now) {
+        return recordIds(afterId, batch.stream().map(OutboxEvent::getId).toList(), now);
+    }
+
+    // Same, from the ids (ascending) that are present after afterId
+    int recordIds(long afterId, List<Long> present, long now) {
+        int dropped = 0;
+        long expected = afterId + 1;
+        for (long next : present) {
+            for (long id = expected; id < next; id++) {
+                if (firstSeen.size() >= MAX_GAPS) {
+                    dropped += (int) Math.min(Integer.MAX_VALUE - dropped, next - id);
+                    break;
+                }
+                firstSeen.put(id, now);
+            }
+            expected = next + 1;
+        }
+        return dropped;
+    }
+
+    void resolved(Collection<Long> ids) {
+        for (Long id : ids) firstSeen.remove(id);
+    }
+
+    // Gives up on ids missing for longer than timeoutMs and returns them
+    List<Long> expire(long now, long timeoutMs) {
+        List<Long> expired = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, Long>> it = firstSeen.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Long> gap = it.next();
+            if (now - gap.getValue() > timeoutMs) {
+                expired.add(gap.getKey());
+                it.remove();
+            }
+        }
+        return expired;
+    }
+}
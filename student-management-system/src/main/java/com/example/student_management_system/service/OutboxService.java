@@ -0,0 +1,59 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Must join the caller's transaction, so the event commits or rolls back with the write it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(OutboxEventType type, Long aggregateId, Map<String, ?> payload) {
+        return publish(type, aggregateId, payload, null);
+    }
+
+    // Jobs running as ROOT pass the tenant of the row the event is about
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(OutboxEventType type, Long aggregateId, Map<String, ?> payload, String tenantId) {
+        try {
+            OutboxEvent event = OutboxEvent.builder()
+                    .tenantId(tenantId)
+                    .aggregateId(aggregateId)
+                    .eventType(type)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            return outboxEventRepository.save(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize outbox payload", e);
+        }
+    }
+
+    public JsonNode readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Malformed outbox payload for event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.DTOS.BulkApprovalResult;
+import com.example.student_management_system.DTOS.PendingPaymentDTO;
+import com.example.student_management_system.DTOS.PendingPaymentsPage;
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Bulk payment approval for finance. Each call approves in chunks of batch-size, one set-based statement and one
+// transaction per chunk, so row locks stay short. A failure part-way keeps the committed chunks approved, and a
+// retry of the same call approves only what is left.
+@Service
+public class PaymentApprovalService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentApprovalService.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final List<AuditRecord.Change> APPROVED =
+            List.of(new AuditRecord.Change("paymentApproved", false, true));
+
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final SubjectRepository subjectRepository;
+    private final AuditLog auditLog;
+    private final TenancyProperties tenancyProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxIds;
+
+    @Autowired
+    public PaymentApprovalService(StudentSubjectRepository studentSubjectRepository,
+                                  SubjectRepository subjectRepository,
+                                  AuditLog auditLog,
+                                  TenancyProperties tenancyProperties,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.payments.batch-size}") int batchSize,
+                                  @Value("${app.payments.max-ids}") int maxIds) {
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.subjectRepository = subjectRepository;
+        this.auditLog = auditLog;
+        this.tenancyProperties = tenancyProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxIds = maxIds;
+    }
+
+    public BulkApprovalResult approveIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No enrollment ids given");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " enrollment ids per call");
+        }
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        String tenant = currentTenant();
+        List<Long> approved = new ArrayList<>();
+        for (int from = 0; from < requested.size(); from += batchSize) {
+            List<Long> chunk = requested.subList(from, Math.min(from + batchSize, requested.size()));
+            approved.addAll(approveChunk(tenant, () ->
+                    studentSubjectRepository.approvePaymentsByIds(tenant, chunk, chunk.size(), LocalDateTime.now())));
+        }
+        Set<Long> approvedSet = new HashSet<>(approved);
+        List<Long> skipped = requested.stream().filter(id -> !approvedSet.contains(id)).toList();
+        return new BulkApprovalResult(approved.size(), approved, skipped);
+    }
+
+    public BulkApprovalResult approveSubject(Long subjectId) {
+        if (!subjectRepository.existsById(subjectId)) {
+            throw new ResourceNotFoundException("Subject with id " + subjectId + " not found");
+        }
+        String tenant = currentTenant();
+        return drain(tenant, () -> studentSubjectRepository.approvePaymentsBySubject(tenant, subjectId, batchSize,
+                LocalDateTime.now()));
+    }
+
+    public BulkApprovalResult approveLevel(int level) {
+        if (level < 1 || level > StudentService.GRADUATED_LEVEL) {
+            throw new IllegalArgumentException("Invalid level " + level);
+        }
+        String tenant = currentTenant();
+        return drain(tenant, () -> studentSubjectRepository.approvePaymentsByLevel(tenant, level, batchSize,
+                LocalDateTime.now()));
+    }
+
+    public BulkApprovalResult approveDepartment(String department) {
+        if (department == null || department.isBlank()) {
+            throw new IllegalArgumentException("Department required");
+        }
+        String tenant = currentTenant();
+        return drain(tenant, () -> studentSubjectRepository.approvePaymentsByDepartment(tenant, department, batchSize,
+                LocalDateTime.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public PendingPaymentsPage pending(Long afterId, Long subjectId, Integer level, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether there is a next page
+        List<Object[]> rows = studentSubjectRepository.findPendingPayments(afterId != null ? afterId : 0L,
+                subjectId, level, PageRequest.of(0, size + 1));
+        List<PendingPaymentDTO> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            Object[] row = rows.get(i);
+            items.add(new PendingPaymentDTO((Long) row[0], (Long) row[1], (String) row[2], (Integer) row[3],
+                    (Long) row[4], (String) row[5]));
+        }
+        Long nextAfterId = rows.size() > size ? items.get(items.size() - 1).getStudentSubjectId() : null;
+        return new PendingPaymentsPage(items, nextAfterId);
+    }
+
+    // Runs the statement until it matches nothing; rows approved concurrently simply drop out
+    private BulkApprovalResult drain(String tenant, Supplier<List<Long>> statement) {
+        List<Long> approved = new ArrayList<>();
+        while (true) {
+            List<Long> chunk = approveChunk(tenant, statement);
+            if (chunk.isEmpty()) break;
+            approved.addAll(chunk);
+        }
+        return new BulkApprovalResult(approved.size(), approved, List.of());
+    }
+
+    // The statement bypasses Hibernate, so the audit records its listener would write are appended here once committed
+    private List<Long> approveChunk(String tenant, Supplier<List<Long>> statement) {
+        List<Long> ids = Objects.requireNonNull(transactionTemplate.execute(status -> statement.get()));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : null;
+        for (Long id : ids) {
+            try {
+                auditLog.append(AuditEntityType.ENROLLMENT, id, AuditAction.UPDATE, tenant, actor, APPROVED);
+            } catch (RuntimeException e) {
+                log.error("Could not append audit record for {} {}", AuditEntityType.ENROLLMENT, id, e);
+            }
+        }
+        return ids;
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.student_management_system.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Immutable snapshot of a school's subjects and prerequisite edges. Subjects are numbered in topological
+// order (every prerequisite before the subjects needing it), and a student's passed subjects become a
+// bitset over those numbers. "May enroll" is then (requires & ~passed) == 0 over the few words up to the
+// subject's own position, and "passed the whole level" the same test against the level's mask.
+final class PrerequisiteGraph {
+
+    private final long[] subjectIds;       // by position
+    private final Map<Long, Integer> position = new HashMap<>();
+    private final Integer[] levels;
+    private final String[] names;
+    private final long[][] requires;       // direct prerequisites, words up to the subject's position
+    private final long[][] closure;        // transitive prerequisites
+    private final Map<Integer, long[]> levelMasks = new HashMap<>();
+    private final int words;
+
+    private PrerequisiteGraph(long[] subjectIds, Integer[] levels, String[] names, long[][] requires,
+                              long[][] closure) {
+        this.subjectIds = subjectIds;
+        this.levels = levels;
+        this.names = names;
+        this.requires = requires;
+        this.closure = closure;
+        this.words = (subjectIds.length + 63) >>> 6;
+        for (int i = 0; i < subjectIds.length; i++) {
+            position.put(subjectIds[i], i);
+            if (levels[i] != null) {
+                long[] mask = levelMasks.computeIfAbsent(levels[i], l -> new long[words]);
+                mask[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    // subjects: (id, level, name); edges: (subjectId, prerequisiteId). Throws if the edges contain a cycle.
+    static PrerequisiteGraph build(List<Object[]> subjects, List<Object[]> edges) {
+        int n = subjects.size();
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) index.put((Long) subjects.get(i)[0], i);
+        List<List<Integer>> prerequisitesOf = new ArrayList<>();
+        List<List<Integer>> dependentsOf = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            prerequisitesOf.add(new ArrayList<>());
+            dependentsOf.add(new ArrayList<>());
+        }
+        int[] missing = new int[n];
+        for (Object[] edge : edges) {
+            Integer subject = index.get((Long) edge[0]);
+            Integer prerequisite = index.get((Long) edge[1]);
+            if (subject == null || prerequisite == null) continue;
+            prerequisitesOf.get(subject).add(prerequisite);
+            dependentsOf.get(prerequisite).add(subject);
+            missing[subject]++;
+        }
+
+        // Kahn's algorithm; ties broken by subject id so positions are stable between rebuilds
+        int[] order = new int[n];
+        int[] positionOf = new int[n];
+        int placed = 0;
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) byId[i] = i;
+        Arrays.sort(byId, (a, b) -> Long.compare((Long) subjects.get(a)[0], (Long) subjects.get(b)[0]));
+        for (int i : byId) {
+            if (missing[i] == 0) ready.add(i);
+        }
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            positionOf[i] = placed;
+            order[placed++] = i;
+            for (int dependent : dependentsOf.get(i)) {
+                if (--missing[dependent] == 0) ready.add(dependent);
+            }
+        }
+        if (placed < n) {
+            throw new IllegalStateException("Subject prerequisites contain a cycle");
+        }
+
+        long[] ids = new long[n];
+        Integer[] levels = new Integer[n];
+        String[] names = new String[n];
+        long[][] requires = new long[n][];
+        long[][] closure = new long[n][];
+        for (int p = 0; p < n; p++) {
+            int i = order[p];
+            ids[p] = (Long) subjects.get(i)[0];
+            levels[p] = (Integer) subjects.get(i)[1];
+            names[p] = (String) subjects.get(i)[2];
+            // prerequisites sit before p, so p's words suffice
+            long[] direct = new long[(p >>> 6) + 1];
+            long[] all = new long[(p >>> 6) + 1];
+            for (int prerequisite : prerequisitesOf.get(i)) {
+                int q = positionOf[prerequisite];
+                direct[q >>> 6] |= 1L << q;
+                all[q >>> 6] |= 1L << q;
+                long[] inherited = closure[q];
+                for (int w = 0; w < inherited.length; w++) all[w] |= inherited[w];
+            }
+            requires[p] = direct;
+            closure[p] = all;
+        }
+        return new PrerequisiteGraph(ids, levels, names, requires, closure);
+    }
+
+    boolean contains(long subjectId) {
+        return position.containsKey(subjectId);
+    }
+
+    int size() {
+        return subjectIds.length;
+    }
+
+    long subjectId(int position) {
+        return subjectIds[position];
+    }
+
+    Integer level(int position) {
+        return levels[position];
+    }
+
+    String name(int position) {
+        return names[position];
+    }
+
+    long[] emptySet() {
+        return new long[words];
+    }
+
+    // Adds the subject to the set; subjects outside the snapshot are ignored
+    void add(long[] set, long subjectId) {
+        Integer p = position.get(subjectId);
+        if (p != null) set[p >>> 6] |= 1L << p;
+    }
+
+    long[] setOf(Collection<Long> subjectIds) {
+        long[] set = emptySet();
+        for (Long id : subjectIds) add(set, id);
+        return set;
+    }
+
+    boolean has(long[] set, int position) {
+        return (set[position >>> 6] & (1L << position)) != 0;
+    }
+
+    boolean mayEnroll(int position, long[] passed) {
+        long[] required = requires[position];
+        for (int w = 0; w < required.length; w++) {
+            if ((required[w] & ~passed[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    boolean mayEnroll(long subjectId, long[] passed) {
+        Integer p = position.get(subjectId);
+        return p == null || mayEnroll(p, passed);
+    }
+
+    // Direct prerequisites not passed yet
+    List<Long> missingPrerequisites(long subjectId, long[] passed) {
+        List<Long> missing = new ArrayList<>();
+        Integer p = position.get(subjectId);
+        if (p == null) return missing;
+        forEach(requires[p], q -> {
+            if (!has(passed, q)) missing.add(subjectIds[q]);
+        });
+        return missing;
+    }
+
+    List<Long> prerequisites(long subjectId, boolean transitive) {
+        List<Long> ids = new ArrayList<>();
+        Integer p = position.get(subjectId);
+        if (p != null) forEach(transitive ? closure[p] : requires[p], q -> ids.add(subjectIds[q]));
+        return ids;
+    }
+
+    // True when prerequisiteId already (transitively) requires subjectId, so adding the edge
+    // subjectId -> prerequisiteId would close a cycle
+    boolean wouldCycle(long subjectId, long prerequisiteId) {
+        if (subjectId == prerequisiteId) return true;
+        Integer subject = position.get(subjectId);
+        Integer prerequisite = position.get(prerequisiteId);
+        if (subject == null || prerequisite == null || subject > prerequisite) return false;
+        return has(closure[prerequisite], subject);
+    }
+
+    // Every subject of the level passed; true for a level without subjects
+    boolean passedLevel(int level, long[] passed) {
+        long[] mask = levelMasks.get(level);
+        if (mask == null) return true;
+        for (int w = 0; w < words; w++) {
+            if ((mask[w] & ~passed[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    private static void forEach(long[] set, IntConsumer consumer) {
+        for (int w = 0; w < set.length; w++) {
+            long bits = set[w];
+            while (bits != 0) {
+                consumer.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+}
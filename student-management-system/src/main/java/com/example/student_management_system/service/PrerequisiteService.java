@@ -0,0 +1,241 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.CohortEligibilityDTO;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.SubjectPrerequisite;
+import com.example.student_management_system.repositiory.ExamRepository;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectPrerequisiteRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Subject prerequisites and the eligibility checks built on them. Each node caches a PrerequisiteGraph per
+// school; prerequisite writes publish PREREQUISITES_CHANGED, which drops the cached graph on every node.
+// Subjects are maintained outside the application, so a graph is also rebuilt after cache-ttl-ms, or at once
+// when asked about a subject it doesn't know.
+@Service
+public class PrerequisiteService implements OutboxConsumer {
+
+    private record Cached(PrerequisiteGraph graph, long builtAt) {
+    }
+
+    private final SubjectPrerequisiteRepository prerequisiteRepository;
+    private final SubjectRepository subjectRepository;
+    private final StudentRepository studentRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final ExamRepository examRepository;
+    private final OutboxService outboxService;
+    private final TenancyProperties tenancyProperties;
+    private final long cacheTtlMs;
+    private final Map<String, Cached> graphs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PrerequisiteService(SubjectPrerequisiteRepository prerequisiteRepository,
+                               SubjectRepository subjectRepository,
+                               StudentRepository studentRepository,
+                               StudentSubjectRepository studentSubjectRepository,
+                               ExamRepository examRepository,
+                               OutboxService outboxService,
+                               TenancyProperties tenancyProperties,
+                               @Value("${app.prerequisites.cache-ttl-ms}") long cacheTtlMs) {
+        this.prerequisiteRepository = prerequisiteRepository;
+        this.subjectRepository = subjectRepository;
+        this.studentRepository = studentRepository;
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.examRepository = examRepository;
+        this.outboxService = outboxService;
+        this.tenancyProperties = tenancyProperties;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    @Override
+    public String name() {
+        return "prerequisite-graph";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return type == OutboxEventType.PREREQUISITES_CHANGED;
+    }
+
+    @Override
+    public boolean durable() {
+        return false;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        graphs.remove(event.getTenantId());
+        graphs.remove(TenantContext.ROOT);
+    }
+
+    private PrerequisiteGraph graph() {
+        String tenant = currentTenant();
+        Cached cached = graphs.get(tenant);
+        if (cached == null || System.currentTimeMillis() - cached.builtAt() > cacheTtlMs) {
+            cached = new Cached(load(), System.currentTimeMillis());
+            graphs.put(tenant, cached);
+        }
+        return cached.graph();
+    }
+
+    private PrerequisiteGraph graphContaining(long subjectId) {
+        PrerequisiteGraph graph = graph();
+        if (!graph.contains(subjectId)) {
+            graph = load();
+            graphs.put(currentTenant(), new Cached(graph, System.currentTimeMillis()));
+        }
+        return graph;
+    }
+
+    private PrerequisiteGraph load() {
+        return PrerequisiteGraph.build(subjectRepository.findSummaries(), prerequisiteRepository.findEdges());
+    }
+
+    // Passed exams plus enrollments marked passed (exams of archived terms are only recorded there)
+    private long[] passedSubjects(PrerequisiteGraph graph, Long studentId) {
+        long[] passed = graph.setOf(examRepository.findPassedSubjectIds(studentId));
+        for (Object[] row : studentSubjectRepository.findSubjectStates(studentId)) {
+            if ((Boolean) row[1]) graph.add(passed, (Long) row[0]);
+        }
+        return passed;
+    }
+
+    // Throws when the student hasn't passed every direct prerequisite of the subject
+    @Transactional(readOnly = true)
+    public void checkEnrollment(Long studentId, Long subjectId) {
+        PrerequisiteGraph graph = graphContaining(subjectId);
+        long[] passed = passedSubjects(graph, studentId);
+        if (!graph.mayEnroll(subjectId, passed)) {
+            throw new RuntimeException("Missing prerequisites: " + graph.missingPrerequisites(subjectId, passed));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public boolean passedLevel(Long studentId, int level) {
+        PrerequisiteGraph graph = graph();
+        return graph.passedLevel(level, passedSubjects(graph, studentId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getPrerequisites(Long subjectId, boolean transitive) {
+        if (!subjectRepository.existsById(subjectId)) {
+            throw new ResourceNotFoundException("Subject with id " + subjectId + " not found");
+        }
+        return graphContaining(subjectId).prerequisites(subjectId, transitive);
+    }
+
+    @Transactional
+    public SubjectPrerequisite addPrerequisite(Long subjectId, Long prerequisiteId) {
+        prerequisiteRepository.lockGraph("subject_prerequisite:" + currentTenant());
+        Subject subject = subjectRepository.findById(subjectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Subject with id " + subjectId + " not found"));
+        Subject prerequisite = subjectRepository.findById(prerequisiteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Subject with id " + prerequisiteId + " not found"));
+        var existing = prerequisiteRepository.findBySubjectIdAndPrerequisiteId(subjectId, prerequisiteId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        // Checked against the committed edges, not the cache; the lock keeps them from changing meanwhile
+        if (load().wouldCycle(subjectId, prerequisiteId)) {
+            throw new IllegalArgumentException("Subject " + prerequisiteId + " already requires subject " + subjectId
+                    + "; this prerequisite would create a cycle");
+        }
+        SubjectPrerequisite saved = prerequisiteRepository.save(SubjectPrerequisite.builder()
+                .subject(subject)
+                .prerequisite(prerequisite)
+                .build());
+        publishChanged(subjectId, prerequisiteId, true);
+        return saved;
+    }
+
+    @Transactional
+    public void removePrerequisite(Long subjectId, Long prerequisiteId) {
+        prerequisiteRepository.lockGraph("subject_prerequisite:" + currentTenant());
+        SubjectPrerequisite edge = prerequisiteRepository.findBySubjectIdAndPrerequisiteId(subjectId, prerequisiteId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Subject " + subjectId + " does not require subject " + prerequisiteId));
+        prerequisiteRepository.delete(edge);
+        publishChanged(subjectId, prerequisiteId, false);
+    }
+
+    private void publishChanged(Long subjectId, Long prerequisiteId, boolean added) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("subjectId", subjectId);
+        payload.put("prerequisiteId", prerequisiteId);
+        payload.put("added", added);
+        outboxService.publish(OutboxEventType.PREREQUISITES_CHANGED, subjectId, payload);
+    }
+
+    // Loads the cohort's enrollments and passed exams in two queries, then decides every (student, subject)
+    // pair with bit operations on the cached graph
+    @Transactional(readOnly = true)
+    public CohortEligibilityDTO cohortEligibility(int level) {
+        PrerequisiteGraph graph = graph();
+        List<Long> studentIds = studentRepository.findIdsByLevel(level);
+        Map<Long, long[]> passed = new HashMap<>();
+        Map<Long, long[]> taken = new HashMap<>();
+        Map<Long, Integer> enrollments = new HashMap<>();
+        for (Long id : studentIds) {
+            passed.put(id, graph.emptySet());
+            taken.put(id, graph.emptySet());
+        }
+        for (Object[] row : studentSubjectRepository.findSubjectStatesByLevel(level)) {
+            Long studentId = (Long) row[0];
+            if (!taken.containsKey(studentId)) continue; // changed level since the id query
+            graph.add(taken.get(studentId), (Long) row[1]);
+            if ((Boolean) row[2]) graph.add(passed.get(studentId), (Long) row[1]);
+            enrollments.merge(studentId, 1, Integer::sum);
+        }
+        for (Object[] row : examRepository.findPassedSubjectIdsByLevel(level)) {
+            long[] set = passed.get((Long) row[0]);
+            if (set != null) graph.add(set, (Long) row[1]);
+        }
+
+        int[] eligibleCount = new int[graph.size()];
+        Map<Long, List<Long>> byStudent = new LinkedHashMap<>();
+        for (Long studentId : studentIds) {
+            List<Long> eligible = new ArrayList<>();
+            if (enrollments.getOrDefault(studentId, 0) < StudentService.MAX_SUBJECTS) {
+                long[] studentPassed = passed.get(studentId);
+                long[] studentTaken = taken.get(studentId);
+                for (int p = 0; p < graph.size(); p++) {
+                    if (!graph.has(studentTaken, p) && !graph.has(studentPassed, p) && graph.mayEnroll(p, studentPassed)) {
+                        eligible.add(graph.subjectId(p));
+                        eligibleCount[p]++;
+                    }
+                }
+            }
+            byStudent.put(studentId, eligible);
+        }
+        List<CohortEligibilityDTO.SubjectRow> subjects = new ArrayList<>();
+        for (int p = 0; p < graph.size(); p++) {
+            if (eligibleCount[p] > 0) {
+                subjects.add(new CohortEligibilityDTO.SubjectRow(graph.subjectId(p), graph.name(p), graph.level(p),
+                        eligibleCount[p]));
+            }
+        }
+        return new CohortEligibilityDTO(level, studentIds.size(), subjects, byStudent);
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.DTOS.ArchivedExamDTO;
+import com.example.student_management_system.Enum.ReportJobStatus;
+import com.example.student_management_system.Enum.ReportType;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.ReportJob;
+import com.example.student_management_system.repositiory.ExamRepository;
+import com.example.student_management_system.repositiory.ReportJobRepository;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cohort-wide transcripts and rosters, generated in the background. The report_job table is the queue: a job is
+// run by the node that accepted it, at most `threads` at a time, one chunk of students (by id) per step. Each chunk
+// is appended to the job's CSV file and flushed before the checkpoint moves, so after a restart the file is cut
+// back to the checkpoint and the job carries on with the next student.
+@Service
+public class ReportJobService {
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final List<ReportJobStatus> PENDING = List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+    private static final String TRANSCRIPT_HEADER =
+            "student_id,username,level,gpa,subject_id,subject_name,term,exam_date,score,passed,archived\n";
+    private static final String ROSTER_HEADER =
+            "subject_id,subject_name,subject_level,student_id,username,student_level,payment_approved,exam_passed\n";
+
+    private record Chunk(String text, int rows, long lastStudentId) {
+    }
+
+    private final ReportJobRepository reportJobRepository;
+    private final StudentRepository studentRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final ExamRepository examRepository;
+    private final SubjectRepository subjectRepository;
+    private final ExamArchiveService examArchiveService;
+    private final TenantPartitions tenantPartitions;
+    private final TenancyProperties tenancyProperties;
+    private final TransactionTemplate transactionTemplate;
+    // Chunks are read through readOnly transactions, so they go to the replica when there is one
+    private final TransactionTemplate readTransaction;
+    private final Path dir;
+    private final String node;
+    private final int threads;
+    private final int chunkSize;
+    private final int maxPendingPerTenant;
+    private final long retentionHours;
+    private final ExecutorService workers;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean started;
+    private volatile boolean stopping;
+
+    @Autowired
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            StudentRepository studentRepository,
+                            StudentSubjectRepository studentSubjectRepository,
+                            ExamRepository examRepository,
+                            SubjectRepository subjectRepository,
+                            ExamArchiveService examArchiveService,
+                            TenantPartitions tenantPartitions,
+                            TenancyProperties tenancyProperties,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.reports.dir}") String dir,
+                            @Value("${app.reports.node}") String node,
+                            @Value("${app.reports.threads}") int threads,
+                            @Value("${app.reports.chunk-size}") int chunkSize,
+                            @Value("${app.reports.max-pending-per-tenant}") int maxPendingPerTenant,
+                            @Value("${app.reports.retention-hours}") long retentionHours) {
+        this.reportJobRepository = reportJobRepository;
+        this.studentRepository = studentRepository;
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.examRepository = examRepository;
+        this.subjectRepository = subjectRepository;
+        this.examArchiveService = examArchiveService;
+        this.tenantPartitions = tenantPartitions;
+        this.tenancyProperties = tenancyProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.dir = Paths.get(dir);
+        this.node = node;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxPendingPerTenant = maxPendingPerTenant;
+        this.retentionHours = retentionHours;
+        this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "report-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional
+    public ReportJob submit(ReportType type, Integer level, String requestedBy) {
+        if (type == ReportType.TRANSCRIPTS && level == null) {
+            throw new IllegalArgumentException("Transcripts need a level");
+        }
+        if (level != null && (level < 1 || level > StudentService.GRADUATED_LEVEL)) {
+            throw new IllegalArgumentException("Invalid level " + level);
+        }
+        if (reportJobRepository.countByStatusIn(PENDING) >= maxPendingPerTenant) {
+            throw new IllegalStateException("Too many report jobs pending; submit again once one has finished");
+        }
+        return reportJobRepository.save(ReportJob.builder()
+                .type(type)
+                .status(ReportJobStatus.QUEUED)
+                .level(level)
+                .requestedBy(requestedBy)
+                .node(node)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public ReportJob getJob(Long id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job with id " + id + " not found"));
+    }
+
+    // True when the job was still queued and is cancelled; false when it is running and stops before its next chunk
+    @Transactional
+    public boolean cancel(Long id) {
+        ReportJob job = getJob(id);
+        if (reportJobRepository.finish(id, ReportJobStatus.QUEUED, ReportJobStatus.CANCELLED, null,
+                LocalDateTime.now()) == 1) {
+            // A job requeued by a restart may already have written part of its file
+            if (node.equals(job.getNode())) deleteFile(job);
+            return true;
+        }
+        if (reportJobRepository.requestCancel(id, ReportJobStatus.RUNNING) == 1) {
+            return false;
+        }
+        throw new IllegalStateException("Report job " + id + " has already finished");
+    }
+
+    // The finished report's file; only the node that ran the job has it
+    @Transactional(readOnly = true)
+    public Path download(Long id) {
+        ReportJob job = getJob(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Report job " + id + " is " + job.getStatus());
+        }
+        if (!node.equals(job.getNode())) {
+            throw new IllegalStateException("Report job " + id + " is held by node " + job.getNode());
+        }
+        Path path = path(job);
+        if (!Files.exists(path)) {
+            throw new ResourceNotFoundException("Report file of job " + id + " no longer exists");
+        }
+        return path;
+    }
+
+    public String fileName(ReportJob job) {
+        return job.getType().name().toLowerCase()
+                + (job.getLevel() != null ? "-level-" + job.getLevel() : "") + "-" + job.getId() + ".csv";
+    }
+
+    // Jobs this node was running when it stopped are queued again; they resume from their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        tenantPartitions.forEach(partition -> {
+            Integer requeued = transactionTemplate.execute(status ->
+                    reportJobRepository.requeue(node, ReportJobStatus.RUNNING, ReportJobStatus.QUEUED));
+            if (requeued != null && requeued > 0) {
+                log.info("Resuming {} report jobs in {}", requeued, partition);
+            }
+        });
+        started = true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        workers.shutdownNow();
+    }
+
+    // Claims this node's queued jobs, oldest first, while workers are free
+    @Scheduled(fixedDelayString = "${app.reports.poll-interval-ms}")
+    public void poll() {
+        if (!started) return;
+        tenantPartitions.forEach(partition -> {
+            int free = threads - active.get();
+            if (free <= 0) return;
+            List<ReportJob> queued = transactionTemplate.execute(status -> reportJobRepository
+                    .findByNodeAndStatusOrderByIdAsc(node, ReportJobStatus.QUEUED, PageRequest.of(0, free)));
+            for (ReportJob job : Objects.requireNonNull(queued)) {
+                Integer claimed = transactionTemplate.execute(status -> reportJobRepository.claim(job.getId(),
+                        ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, LocalDateTime.now()));
+                if (claimed == null || claimed == 0) continue; // cancelled meanwhile
+                active.incrementAndGet();
+                workers.execute(() -> TenantContext.runAs(job.getTenantId(), () -> run(job)));
+            }
+        });
+    }
+
+    private void run(ReportJob job) {
+        try {
+            // Cancelled while running, then requeued by a restart
+            if (job.isCancelRequested()) {
+                finishCancelled(job);
+                return;
+            }
+            Path path = path(job);
+            Files.createDirectories(path.getParent());
+            Map<Long, Object[]> subjects = new HashMap<>();
+            for (Object[] subject : Objects.requireNonNull(readTransaction.execute(status -> subjectRepository.findSummaries()))) {
+                subjects.put((Long) subject[0], subject);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long bytes = job.getBytesWritten();
+                long rows = job.getRowsWritten();
+                long after = job.getLastStudentId() != null ? job.getLastStudentId() : 0L;
+                // Drops anything written after the last checkpoint
+                channel.truncate(bytes);
+                channel.position(bytes);
+                if (bytes == 0) {
+                    bytes += write(channel, job.getType() == ReportType.TRANSCRIPTS ? TRANSCRIPT_HEADER : ROSTER_HEADER);
+                }
+                while (true) {
+                    long from = after;
+                    Chunk chunk = readTransaction.execute(status -> readChunk(job, from, subjects));
+                    if (chunk == null) break;
+                    bytes += write(channel, chunk.text());
+                    channel.force(false);
+                    rows += chunk.rows();
+                    after = chunk.lastStudentId();
+                    long checkpointBytes = bytes, checkpointRows = rows, checkpointStudent = after;
+                    Integer moved = transactionTemplate.execute(status -> reportJobRepository.checkpoint(job.getId(),
+                            ReportJobStatus.RUNNING, checkpointStudent, checkpointBytes, checkpointRows));
+                    if (moved == null || moved == 0) {
+                        finishCancelled(job);
+                        return;
+                    }
+                }
+            }
+            transactionTemplate.execute(status -> reportJobRepository.finish(job.getId(), ReportJobStatus.RUNNING,
+                    ReportJobStatus.COMPLETED, null, LocalDateTime.now()));
+        } catch (Exception e) {
+            if (stopping) return; // stays RUNNING and is resumed when the node starts again
+            log.warn("Report job {} failed", job.getId(), e);
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            transactionTemplate.execute(status -> reportJobRepository.finish(job.getId(), ReportJobStatus.RUNNING,
+                    ReportJobStatus.FAILED, error.length() > 255 ? error.substring(0, 255) : error, LocalDateTime.now()));
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void finishCancelled(ReportJob job) {
+        transactionTemplate.execute(status -> reportJobRepository.finish(job.getId(), ReportJobStatus.RUNNING,
+                ReportJobStatus.CANCELLED, null, LocalDateTime.now()));
+        deleteFile(job);
+    }
+
+    // The next chunkSize students after `after`, rendered as CSV; null when there are none left
+    private Chunk readChunk(ReportJob job, long after, Map<Long, Object[]> subjects) {
+        Integer studentLevel = job.getType() == ReportType.TRANSCRIPTS ? job.getLevel() : null;
+        List<Object[]> students = studentRepository.findReportChunk(after, studentLevel, PageRequest.of(0, chunkSize));
+        if (students.isEmpty()) return null;
+        List<Long> ids = new ArrayList<>(students.size());
+        for (Object[] student : students) ids.add((Long) student[0]);
+        StringBuilder out = new StringBuilder(students.size() * 128);
+        int rows = job.getType() == ReportType.TRANSCRIPTS
+                ? transcripts(students, ids, subjects, out)
+                : rosters(students, ids, job.getLevel(), subjects, out);
+        return new Chunk(out.toString(), rows, ids.get(ids.size() - 1));
+    }
+
+    // One row per exam, archived terms first; a student without exams still gets a row
+    private int transcripts(List<Object[]> students, List<Long> ids, Map<Long, Object[]> subjects, StringBuilder out) {
+        Map<Long, List<Object[]>> exams = new HashMap<>();
+        for (ArchivedExamDTO exam : examArchiveService.findArchivedInRange(ids.get(0), ids.get(ids.size() - 1))) {
+            exams.computeIfAbsent(exam.getStudentId(), id -> new ArrayList<>()).add(new Object[]{
+                    exam.getStudentId(), exam.getSubjectId(), exam.getTerm(), exam.getExamDate(), exam.getScore(),
+                    exam.isPassed(), true});
+        }
+        for (Object[] exam : examRepository.findResultsForStudents(ids)) {
+            exams.computeIfAbsent((Long) exam[0], id -> new ArrayList<>()).add(new Object[]{
+                    exam[0], exam[1], exam[2], exam[3], exam[4], exam[5], false});
+        }
+        int rows = 0;
+        for (Object[] student : students) {
+            List<Object[]> results = exams.getOrDefault((Long) student[0], List.of());
+            if (results.isEmpty()) {
+                row(out, student[0], student[1], student[2], student[3], null, null, null, null, null, null, null);
+                rows++;
+            }
+            for (Object[] exam : results) {
+                Object[] subject = subjects.get((Long) exam[1]);
+                row(out, student[0], student[1], student[2], student[3], exam[1], subject != null ? subject[2] : null,
+                        exam[2], exam[3], exam[4], exam[5], exam[6]);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // One row per enrollment, limited to subjects of the job's level when it has one
+    private int rosters(List<Object[]> students, List<Long> ids, Integer subjectLevel, Map<Long, Object[]> subjects,
+                        StringBuilder out) {
+        Map<Long, Object[]> byId = new HashMap<>();
+        for (Object[] student : students) byId.put((Long) student[0], student);
+        int rows = 0;
+        for (Object[] enrollment : studentSubjectRepository.findSubjectStatesForStudents(ids)) {
+            Object[] subject = subjects.get((Long) enrollment[1]);
+            if (subjectLevel != null && (subject == null || !subjectLevel.equals(subject[1]))) continue;
+            Object[] student = byId.get((Long) enrollment[0]);
+            row(out, enrollment[1], subject != null ? subject[2] : null, subject != null ? subject[1] : null,
+                    student[0], student[1], student[2], enrollment[2], enrollment[3]);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static void row(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.append(',');
+            Object value = values[i];
+            if (value == null) continue;
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(text);
+            }
+        }
+        out.append('\n');
+    }
+
+    private static long write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        return written;
+    }
+
+    // Finished jobs are forgotten after retention-hours, together with their files
+    @Scheduled(cron = "${app.reports.cleanup-cron:0 15 * * * *}")
+    public void cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        tenantPartitions.forEach(partition -> {
+            List<ReportJob> expired = transactionTemplate.execute(status ->
+                    reportJobRepository.findByNodeAndFinishedAtBefore(node, cutoff));
+            if (expired == null || expired.isEmpty()) return;
+            List<Long> ids = new ArrayList<>(expired.size());
+            for (ReportJob job : expired) {
+                deleteFile(job);
+                ids.add(job.getId());
+            }
+            transactionTemplate.executeWithoutResult(status -> reportJobRepository.deleteAllByIdInBatch(ids));
+        });
+    }
+
+    // Files are kept per school: ids of schools with their own database overlap
+    private Path path(ReportJob job) {
+        String tenant = job.getTenantId() != null ? job.getTenantId() : tenancyProperties.getDefaultTenant();
+        return dir.resolve(tenant.replaceAll("[^A-Za-z0-9_-]", "_")).resolve("report-" + job.getId() + ".csv");
+    }
+
+    private void deleteFile(ReportJob job) {
+        try {
+            Files.deleteIfExists(path(job));
+        } catch (IOException e) {
+            log.warn("Could not delete the file of report job {}", job.getId(), e);
+        }
+    }
+}
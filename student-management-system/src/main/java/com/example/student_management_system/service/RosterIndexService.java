@@ -0,0 +1,243 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.RosterQueryResult;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.OutboxEvent;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory compressed bitmaps of student ids, kept per tenant: one per subject (enrolled, paid, unpaid, passed)
+// and per level. Rebuilt from the tables at startup and kept in sync from the outbox, so set queries across
+// subjects never touch the database.
+@Service
+public class RosterIndexService implements OutboxConsumer {
+
+    private static final Set<OutboxEventType> EVENTS = EnumSet.of(
+            OutboxEventType.ENROLLMENT_CREATED, OutboxEventType.PAYMENT_APPROVED, OutboxEventType.EXAM_CREATED,
+            OutboxEventType.STUDENT_SAVED, OutboxEventType.STUDENT_PROMOTED, OutboxEventType.STUDENT_DELETED,
+            OutboxEventType.STUDENT_ARCHIVED, OutboxEventType.STUDENT_REACTIVATED);
+
+    private static final int MAX_PAGE_SIZE = 10_000;
+
+    private final StudentRepository studentRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final OutboxService outboxService;
+    private final TenancyProperties tenancyProperties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Index> indexes = new HashMap<>();
+
+    private static final class Index {
+        final RoaringBitmap all = new RoaringBitmap();
+        final Map<Integer, RoaringBitmap> byLevel = new HashMap<>();
+        final Map<Integer, Integer> levelOf = new HashMap<>();
+        final Map<Long, RoaringBitmap> enrolled = new HashMap<>();
+        final Map<Long, RoaringBitmap> paid = new HashMap<>();
+        final Map<Long, RoaringBitmap> unpaid = new HashMap<>();
+        final Map<Long, RoaringBitmap> passed = new HashMap<>();
+
+        void setLevel(int student, Integer level) {
+            all.add(student);
+            Integer previous = levelOf.put(student, level);
+            if (previous != null) bitmap(byLevel, previous).remove(student);
+            if (level != null) bitmap(byLevel, level).add(student);
+        }
+
+        void enroll(int student, long subject, boolean paymentApproved, boolean examPassed) {
+            bitmap(enrolled, subject).add(student);
+            setPayment(student, subject, paymentApproved);
+            if (examPassed) bitmap(passed, subject).add(student);
+        }
+
+        void setPayment(int student, long subject, boolean approved) {
+            bitmap(approved ? paid : unpaid, subject).add(student);
+            bitmap(approved ? unpaid : paid, subject).remove(student);
+        }
+
+        void remove(int student) {
+            all.remove(student);
+            Integer level = levelOf.remove(student);
+            if (level != null) bitmap(byLevel, level).remove(student);
+            for (Map<Long, RoaringBitmap> bySubject : List.of(enrolled, paid, unpaid, passed)) {
+                bySubject.values().forEach(b -> b.remove(student));
+            }
+        }
+
+        static <K> RoaringBitmap bitmap(Map<K, RoaringBitmap> map, K key) {
+            return map.computeIfAbsent(key, k -> new RoaringBitmap());
+        }
+    }
+
+    @Autowired
+    public RosterIndexService(StudentRepository studentRepository,
+                              StudentSubjectRepository studentSubjectRepository,
+                              OutboxService outboxService,
+                              TenancyProperties tenancyProperties,
+                              PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.outboxService = outboxService;
+        this.tenancyProperties = tenancyProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Evaluates a set expression (see RosterQueryParser) over students. Atoms:
+    //   subject:<id>  enrolled in the subject      passed:<id>  passed the subject's exam
+    //   paid:<id>     payment approved             unpaid:<id>  payment not yet approved
+    //   level:<n>     currently at level n         unpaid       any enrollment not yet approved
+    //   all           every student
+    // Always scoped to the caller's tenant.
+    public RosterQueryResult query(String expression, boolean countOnly, Long afterId, int size) {
+        // Student ids are indexed as non-negative ints
+        if (afterId != null && (afterId < 0 || afterId >= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("afterId must be between 0 and " + (Integer.MAX_VALUE - 1));
+        }
+        String tenant = TenantContext.get() != null ? TenantContext.get() : tenancyProperties.getDefaultTenant();
+        lock.readLock().lock();
+        try {
+            Index current = indexes.getOrDefault(tenant, new Index());
+            RoaringBitmap result = new RosterQueryParser(expression, atom -> resolve(current, atom), current.all).evaluate();
+            long count = result.getLongCardinality();
+            if (countOnly) {
+                return new RosterQueryResult(count, null, null);
+            }
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            List<Long> ids = new ArrayList<>(Math.min(pageSize, (int) Math.min(count, MAX_PAGE_SIZE)));
+            PeekableIntIterator it = result.getIntIterator();
+            if (afterId != null) {
+                it.advanceIfNeeded((int) (afterId + 1));
+            }
+            while (it.hasNext() && ids.size() < pageSize) {
+                ids.add((long) it.next());
+            }
+            Long next = it.hasNext() && !ids.isEmpty() ? ids.get(ids.size() - 1) : null;
+            return new RosterQueryResult(count, ids, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static RoaringBitmap resolve(Index index, String atom) {
+        if (atom.equals("all")) return index.all;
+        if (atom.equals("unpaid")) return FastAggregation.or(index.unpaid.values().iterator());
+        int colon = atom.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Unknown term '" + atom + "'");
+        }
+        String kind = atom.substring(0, colon);
+        long key;
+        try {
+            key = Long.parseLong(atom.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Term '" + atom + "' needs a numeric id");
+        }
+        Map<?, RoaringBitmap> source = switch (kind) {
+            case "subject" -> index.enrolled;
+            case "paid" -> index.paid;
+            case "unpaid" -> index.unpaid;
+            case "passed" -> index.passed;
+            case "level" -> index.byLevel;
+            default -> throw new IllegalArgumentException("Unknown term '" + kind + "'");
+        };
+        Object lookup = kind.equals("level") ? (Object) (int) key : (Object) key;
+        RoaringBitmap bitmap = source.get(lookup);
+        return bitmap == null ? new RoaringBitmap() : bitmap;
+    }
+
+    @Override
+    public String name() {
+        return "roster-index";
+    }
+
+    @Override
+    public boolean accepts(OutboxEventType type) {
+        return EVENTS.contains(type);
+    }
+
+    @Override
+    public boolean durable() {
+        return false;
+    }
+
+    // Called once per tenant partition; replaces the indexes of the tenants found in it
+    @Override
+    public void rebuild() {
+        Map<String, Index> fresh = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> students = studentRepository.streamIdAndLevel()) {
+                students.forEach(row -> fresh.computeIfAbsent((String) row[2], t -> new Index())
+                        .setLevel(id(row[0]), (Integer) row[1]));
+            }
+            try (Stream<Object[]> enrollments = studentSubjectRepository.streamEnrollmentStates()) {
+                enrollments.forEach(row -> fresh.computeIfAbsent((String) row[4], t -> new Index())
+                        .enroll(id(row[0]), (Long) row[1], (Boolean) row[2], (Boolean) row[3]));
+            }
+        });
+        fresh.values().forEach(index -> index.all.runOptimize());
+        lock.writeLock().lock();
+        try {
+            indexes.putAll(fresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        JsonNode payload = outboxService.readPayload(event);
+        int student = id(payload.path("studentId").asLong());
+        long subject = payload.path("subjectId").asLong();
+        lock.writeLock().lock();
+        try {
+            Index index = indexes.computeIfAbsent(event.getTenantId(), t -> new Index());
+            switch (event.getEventType()) {
+                case ENROLLMENT_CREATED -> index.enroll(student, subject,
+                        payload.path("paymentApproved").asBoolean(), payload.path("examPassed").asBoolean());
+                case PAYMENT_APPROVED -> index.setPayment(student, subject, true);
+                case EXAM_CREATED -> {
+                    if (payload.path("passed").asBoolean()) Index.bitmap(index.passed, subject).add(student);
+                }
+                case STUDENT_SAVED -> index.setLevel(student,
+                        payload.path("level").isNull() ? null : payload.path("level").asInt());
+                case STUDENT_PROMOTED -> index.setLevel(student, payload.path("toLevel").asInt());
+                case STUDENT_DELETED, STUDENT_ARCHIVED -> index.remove(student);
+                case STUDENT_REACTIVATED -> {
+                    index.setLevel(student, payload.path("level").isNull() ? null : payload.path("level").asInt());
+                    for (JsonNode enrollment : payload.path("enrollments")) {
+                        index.enroll(student, enrollment.path("subjectId").asLong(),
+                                enrollment.path("paymentApproved").asBoolean(), enrollment.path("examPassed").asBoolean());
+                    }
+                }
+                default -> {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Bitmaps hold 32-bit ints; student ids come from an identity column and stay well below that
+    private static int id(Object value) {
+        return Math.toIntExact(((Number) value).longValue());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.student_management_system.service;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.function.Function;
+
+// Recursive-descent parser/evaluator for roster set expressions, e.g.
+//   subject:1 & subject:2 & !passed:3
+//   level:3 & unpaid
+//   (subject:4 | subject:5) & !paid:4
+// '!' binds tightest, then '&', then '|'. Negation is relative to the set of all students.
+// Malformed input, including nesting deeper than MAX_DEPTH, is rejected with IllegalArgumentException.
+class RosterQueryParser {
+
+    static final int MAX_DEPTH = 64;
+
+    private final String input;
+    private final Function<String, RoaringBitmap> atoms;
+    private final RoaringBitmap universe;
+    private int pos;
+    private int depth;
+
+    RosterQueryParser(String input, Function<String, RoaringBitmap> atoms, RoaringBitmap universe) {
+        this.input = input;
+        this.atoms = atoms;
+        this.universe = universe;
+    }
+
+    RoaringBitmap evaluate() {
+        RoaringBitmap result = or();
+        skipSpaces();
+        if (pos < input.length()) {
+            throw new IllegalArgumentException("Unexpected '" + input.charAt(pos) + "' at position " + pos);
+        }
+        return result;
+    }
+
+    private RoaringBitmap or() {
+        RoaringBitmap result = and();
+        while (consume('|')) {
+            result = RoaringBitmap.or(result, and());
+        }
+        return result;
+    }
+
+    private RoaringBitmap and() {
+        RoaringBitmap result = not();
+        while (consume('&')) {
+            result = RoaringBitmap.and(result, not());
+        }
+        return result;
+    }
+
+    private RoaringBitmap not() {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Expression nested deeper than " + MAX_DEPTH + " at position " + pos);
+        }
+        try {
+            if (consume('!')) {
+                return RoaringBitmap.andNot(universe, not());
+            }
+            if (consume('(')) {
+                RoaringBitmap inner = or();
+                if (!consume(')')) {
+                    throw new IllegalArgumentException("Missing ')' at position " + pos);
+                }
+                return inner;
+            }
+            return atom();
+        } finally {
+            depth--;
+        }
+    }
+
+    private RoaringBitmap atom() {
+        skipSpaces();
+        int start = pos;
+        while (pos < input.length() && (Character.isLetterOrDigit(input.charAt(pos)) || input.charAt(pos) == ':')) {
+            pos++;
+        }
+        if (start == pos) {
+            throw new IllegalArgumentException("Expected a term at position " + pos);
+        }
+        return atoms.apply(input.substring(start, pos));
+    }
+
+    private boolean consume(char c) {
+        skipSpaces();
+        if (pos < input.length() && input.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipSpaces() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+    }
+}
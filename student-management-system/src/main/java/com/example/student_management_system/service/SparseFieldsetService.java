@@ -0,0 +1,108 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.BatchLookupResult;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Lookups that select only the requested columns (?fields=name,level) instead of loading whole entities.
+// Each entity lists the fields callers may ask for, which also keeps passwords and associations out.
+@Service
+public class SparseFieldsetService {
+    public static final int MAX_IDS = 500;
+
+    private static final Map<Class<?>, List<String>> SELECTABLE = Map.of(
+            Student.class, List.of("id", "name", "username", "role", "gpa", "level"),
+            Teacher.class, List.of("id", "name", "username", "role", "salary", "department", "subject"),
+            Subject.class, List.of("id", "name", "level"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(Class<?> entity, Long id, String fields) {
+        List<Map<String, Object>> rows = select(entity, List.of(id), resolveFields(entity, fields));
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    // One IN query for all ids; duplicates are collapsed and the first-seen order kept
+    @Transactional(readOnly = true)
+    public BatchLookupResult findByIds(Class<?> entity, List<Long> ids, String fields) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        if (requested.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        List<String> selected = resolveFields(entity, fields);
+
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> row : select(entity, requested, selected)) {
+            byId.put((Long) row.get("id"), row);
+        }
+        List<Map<String, Object>> items = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Map<String, Object> row = byId.get(id);
+            if (row != null) items.add(row);
+            else missing.add(id);
+        }
+        return new BatchLookupResult(items, missing);
+    }
+
+    private List<Map<String, Object>> select(Class<?> entity, Iterable<Long> ids, List<String> fields) {
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) jpql.append(", ");
+            jpql.append("e.").append(fields.get(i));
+        }
+        jpql.append(" from ").append(entity.getSimpleName()).append(" e where e.id in :ids");
+
+        List<Tuple> tuples = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Only whitelisted names ever reach the query string; id is always selected so rows can be matched up
+    private static List<String> resolveFields(Class<?> entity, String fields) {
+        List<String> selectable = SELECTABLE.get(entity);
+        if (fields == null || fields.isBlank()) {
+            return selectable;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!selectable.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed: " + String.join(", ", selectable));
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+}
@@ -1,48 +1,68 @@
 package com.example.student_management_system.service;
 
+import com.example.student_management_system.Enum.OutboxEventType;
 import com.example.student_management_system.Enum.Role;
 import com.example.student_management_system.model.Student;
 import com.example.student_management_system.model.StudentSubject;
 import com.example.student_management_system.model.Subject;
-import com.example.student_management_system.repositiory.ExamRepository;
 import com.example.student_management_system.repositiory.StudentRepository;
 import com.example.student_management_system.repositiory.StudentSubjectRepository;
 import com.example.student_management_system.repositiory.SubjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class StudentService {
+    // Passing every subject of the last level (5) promotes to this level, which marks the student as graduated
+    public static final int GRADUATED_LEVEL = 6;
+    // Enrollments a student may hold, passed ones included
+    public static final int MAX_SUBJECTS = 7;
+    // Fields PATCH /api/students/{id} may change
+    private static final Set<String> PATCHABLE = Set.of("name", "password", "gpa", "level");
+
     private final StudentRepository studentRepository;
     private final SubjectRepository subjectRepository;
     private final StudentSubjectRepository studentSubjectRepository;
-    private final ExamRepository examRepository;
     private final PasswordEncoder passwordEncoder; // Inject this too
+    private final OutboxService outboxService;
+    private final UserPatcher userPatcher;
+    private final PrerequisiteService prerequisiteService;
 
     @Autowired
     public StudentService(StudentRepository studentRepository,
                           SubjectRepository subjectRepository,
                           StudentSubjectRepository studentSubjectRepository,
-                          ExamRepository examRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          OutboxService outboxService,
+                          UserPatcher userPatcher,
+                          PrerequisiteService prerequisiteService) {
         this.studentRepository = studentRepository;
         this.subjectRepository = subjectRepository;
         this.studentSubjectRepository = studentSubjectRepository;
-        this.examRepository = examRepository;
         this.passwordEncoder = passwordEncoder;
+        this.outboxService = outboxService;
+        this.userPatcher = userPatcher;
+        this.prerequisiteService = prerequisiteService;
     }
 
+    @Transactional
     public StudentSubject addSubjectToStudent(Long studentId, Long subjectId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
         // Check if already enrolled in 7 subjects
         long subjectCount = studentSubjectRepository.countByStudentId(studentId);
-        if (subjectCount >= 7) {
-            throw new RuntimeException("Cannot take more than 7 subjects");
+        if (subjectCount >= MAX_SUBJECTS) {
+            throw new RuntimeException("Cannot take more than " + MAX_SUBJECTS + " subjects");
         }
 
         Subject subject = subjectRepository.findById(subjectId)
@@ -53,6 +73,8 @@ public class StudentService {
             throw new RuntimeException("Student already enrolled in this subject");
         }
 
+        prerequisiteService.checkEnrollment(studentId, subjectId);
+
         StudentSubject studentSubject = StudentSubject.builder()
                 .student(student)
                 .subject(subject)
@@ -60,80 +82,141 @@ public class StudentService {
                 .examPassed(false)
                 .build();
 
-        return studentSubjectRepository.save(studentSubject);
+        StudentSubject saved = studentSubjectRepository.save(studentSubject);
+        outboxService.publish(OutboxEventType.ENROLLMENT_CREATED, studentId, enrollmentPayload(saved));
+        return saved;
     }
 
+    @Transactional
     public StudentSubject approvePayment(Long studentSubjectId) {
         StudentSubject ss = studentSubjectRepository.findById(studentSubjectId)
                 .orElseThrow(() -> new RuntimeException("StudentSubject not found"));
+        // Approving twice is a no-op, so PAYMENT_APPROVED is published once per enrollment
+        if (ss.isPaymentApproved()) {
+            return ss;
+        }
         ss.setPaymentApproved(true);
-        return studentSubjectRepository.save(ss);
+        StudentSubject saved = studentSubjectRepository.save(ss);
+        outboxService.publish(OutboxEventType.PAYMENT_APPROVED, ss.getStudent().getId(), enrollmentPayload(saved));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public boolean canLevelUp(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
-        int currentLevel = student.getLevel();
-
-        // Get subjects of this level
-        List<Subject> subjectsAtLevel = subjectRepository.findByLevel(currentLevel);
-
-        // Check if all subjects passed
-        for (Subject subject : subjectsAtLevel) {
-            boolean passed = examRepository.existsByStudentIdAndSubjectIdAndPassedTrue(studentId, subject.getId());
-            if (!passed) return false; // failed or no exam passed
-        }
-        return true;
+        // Every subject of the current level passed, checked against the cached subject graph
+        return prerequisiteService.passedLevel(studentId, student.getLevel());
     }
 
+    @Transactional
     public Student promoteStudent(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
         if (canLevelUp(studentId)) {
             int newLevel = student.getLevel() + 1;
-            if (newLevel > 5) {
+            if (newLevel > GRADUATED_LEVEL) {
                 throw new RuntimeException("Student already at max level");
             }
             student.setLevel(newLevel);
-            return studentRepository.save(student);
+            Student saved = studentRepository.save(student);
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("studentId", studentId);
+            payload.put("fromLevel", newLevel - 1);
+            payload.put("toLevel", newLevel);
+            outboxService.publish(OutboxEventType.STUDENT_PROMOTED, studentId, payload);
+            return saved;
         } else {
             throw new RuntimeException("Student has not passed all exams");
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    @Transactional
     public Student createStudent(Student student) {
         student.setRole(Role.STUDENT);
-        return studentRepository.save(student);
+        return publishSaved(studentRepository.save(student), true, null);
     }
 
+    @Transactional
     public void deleteStudent(Long id) {
-        studentRepository.deleteById(id);
+        studentRepository.findById(id).ifPresent(student -> {
+            // The enrollments go with the student (cascade), so the event carries them for summary consumers
+            List<Map<String, Object>> enrollments = new ArrayList<>();
+            if (student.getStudentSubjects() != null) {
+                for (StudentSubject ss : student.getStudentSubjects()) {
+                    Map<String, Object> enrollment = new HashMap<>();
+                    enrollment.put("subjectId", ss.getSubject().getId());
+                    enrollment.put("paymentApproved", ss.isPaymentApproved());
+                    enrollment.put("examPassed", ss.isExamPassed());
+                    enrollments.add(enrollment);
+                }
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("studentId", id);
+            payload.put("level", student.getLevel());
+            payload.put("enrollments", enrollments);
+            studentRepository.delete(student);
+            outboxService.publish(OutboxEventType.STUDENT_DELETED, id, payload);
+        });
     }
+
+    @Transactional
     public Student updateStudent(Long id, Student updatedStudent) {
-        return studentRepository.findById(id)
-                .map(existingStudent -> {
-                    existingStudent.setName(updatedStudent.getName());
-                    existingStudent.setUsername(updatedStudent.getUsername());
-                    if (updatedStudent.getPassword() != null && !updatedStudent.getPassword().isBlank()) {
-                        existingStudent.setPassword(passwordEncoder.encode(updatedStudent.getPassword()));
-                    }
-                    existingStudent.setGpa(updatedStudent.getGpa());
-                    existingStudent.setLevel(updatedStudent.getLevel());
-                    return studentRepository.save(existingStudent);
-                })
-                .orElseGet(() -> {
-                    if (updatedStudent.getPassword() != null) {
-                        updatedStudent.setPassword(passwordEncoder.encode(updatedStudent.getPassword()));
-                    }
-                    updatedStudent.setId(id);
-                    updatedStudent.setRole(Role.STUDENT);
-                    return studentRepository.save(updatedStudent);
-                });
+        Student existing = studentRepository.findById(id).orElse(null);
+        if (existing == null) {
+            if (updatedStudent.getPassword() != null) {
+                updatedStudent.setPassword(passwordEncoder.encode(updatedStudent.getPassword()));
+            }
+            // A new row with a generated id; an assigned id or version would make save() treat it as detached
+            updatedStudent.setId(null);
+            updatedStudent.setVersion(null);
+            updatedStudent.setRole(Role.STUDENT);
+            return publishSaved(studentRepository.save(updatedStudent), true, null);
+        }
+        Integer previousLevel = existing.getLevel();
+        existing.setName(updatedStudent.getName());
+        existing.setUsername(updatedStudent.getUsername());
+        if (updatedStudent.getPassword() != null && !updatedStudent.getPassword().isBlank()) {
+            existing.setPassword(passwordEncoder.encode(updatedStudent.getPassword()));
+        }
+        existing.setGpa(updatedStudent.getGpa());
+        existing.setLevel(updatedStudent.getLevel());
+        return publishSaved(studentRepository.save(existing), false, previousLevel);
+    }
+
+    // created/previousLevel let summary consumers move the student between level counts
+    public Student patchStudent(Long id, JsonNode changes) {
+        return userPatcher.patch(studentRepository, id, changes, PATCHABLE, student -> {
+            Integer previousLevel = student.getLevel();
+            return patched -> publishSaved(patched, false, previousLevel);
+        });
+    }
+
+    private Student publishSaved(Student student, boolean created, Integer previousLevel) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("studentId", student.getId());
+        payload.put("created", created);
+        payload.put("previousLevel", previousLevel);
+        payload.put("level", student.getLevel());
+        payload.put("gpa", student.getGpa());
+        outboxService.publish(OutboxEventType.STUDENT_SAVED, student.getId(), payload);
+        return student;
+    }
+
+    private static Map<String, Object> enrollmentPayload(StudentSubject ss) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("studentSubjectId", ss.getId());
+        payload.put("studentId", ss.getStudent().getId());
+        payload.put("subjectId", ss.getSubject().getId());
+        payload.put("paymentApproved", ss.isPaymentApproved());
+        payload.put("examPassed", ss.isExamPassed());
+        return payload;
     }
 }
@@ -0,0 +1,335 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.AssignmentPlan;
+import com.example.student_management_system.DTOS.AssignmentRequest;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.TeacherSubject;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import com.example.student_management_system.repositiory.TeacherRepository;
+import com.example.student_management_system.repositiory.TeacherSubjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Balances teaching load: every subject needs one teacher per section of enrolled students, taught by a
+// specialist (Teacher.subject names it, or the teacher is linked to it already) or, as a fallback, by another
+// teacher of a specialist's department. Keeping an existing link is cheaper than adding one, so a re-run
+// moves as few teachers as it can. The last model is kept per school; when only enrollment counts changed
+// since, the previous solution is repaired (AssignmentSolver.updateDemand) instead of solved again.
+@Service
+public class TeacherAssignmentService {
+
+    private static final class Model {
+        Long[] subjectIds;
+        String[] subjectNames;
+        Long[] teacherIds;
+        String[] teacherNames;
+        int[] capacity;
+        int[][] candidates;
+        int[][] costs;
+        boolean[][] specialist;
+        boolean[][] linked;
+        AssignmentSolver solver;
+
+        // Same teachers, subjects, links and options: only the sections needed may differ
+        boolean sameShape(Model other) {
+            return Arrays.equals(subjectIds, other.subjectIds) && Arrays.equals(teacherIds, other.teacherIds)
+                    && Arrays.equals(capacity, other.capacity) && Arrays.deepEquals(candidates, other.candidates)
+                    && Arrays.deepEquals(costs, other.costs);
+        }
+    }
+
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final SubjectRepository subjectRepository;
+    private final TeacherRepository teacherRepository;
+    private final TeacherSubjectRepository teacherSubjectRepository;
+    private final OutboxService outboxService;
+    private final TenancyProperties tenancyProperties;
+    private final int sectionSize;
+    private final int maxSectionsPerTeacher;
+    private final int departmentCost;
+    private final int changeCost;
+    private final int loadWeight;
+    private final int maxRepairCycles;
+    private final Map<String, Model> models = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TeacherAssignmentService(StudentSubjectRepository studentSubjectRepository,
+                                    SubjectRepository subjectRepository,
+                                    TeacherRepository teacherRepository,
+                                    TeacherSubjectRepository teacherSubjectRepository,
+                                    OutboxService outboxService,
+                                    TenancyProperties tenancyProperties,
+                                    @Value("${app.assignment.section-size}") int sectionSize,
+                                    @Value("${app.assignment.max-sections-per-teacher}") int maxSectionsPerTeacher,
+                                    @Value("${app.assignment.department-cost}") int departmentCost,
+                                    @Value("${app.assignment.change-cost}") int changeCost,
+                                    @Value("${app.assignment.load-weight}") int loadWeight,
+                                    @Value("${app.assignment.max-repair-cycles}") int maxRepairCycles) {
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.subjectRepository = subjectRepository;
+        this.teacherRepository = teacherRepository;
+        this.teacherSubjectRepository = teacherSubjectRepository;
+        this.outboxService = outboxService;
+        this.tenancyProperties = tenancyProperties;
+        this.sectionSize = sectionSize;
+        this.maxSectionsPerTeacher = maxSectionsPerTeacher;
+        this.departmentCost = departmentCost;
+        this.changeCost = changeCost;
+        this.loadWeight = loadWeight;
+        this.maxRepairCycles = maxRepairCycles;
+    }
+
+    @Transactional(readOnly = true)
+    public AssignmentPlan optimize(AssignmentRequest request) {
+        String tenant = currentTenant();
+        if (TenantContext.ROOT.equals(tenant)) {
+            throw new IllegalArgumentException("Assignments are per school; sign in with an account of the school");
+        }
+        int size = request.getSectionSize() != null ? request.getSectionSize() : sectionSize;
+        int maxSections = request.getMaxSectionsPerTeacher() != null
+                ? request.getMaxSectionsPerTeacher() : maxSectionsPerTeacher;
+        boolean fallback = request.getAllowDepartmentFallback() == null || request.getAllowDepartmentFallback();
+        if (size < 1 || maxSections < 1) {
+            throw new IllegalArgumentException("sectionSize and maxSectionsPerTeacher must be positive");
+        }
+
+        long start = System.nanoTime();
+        Model model = buildModel(maxSections, fallback);
+        int[] demand = demand(model, size);
+        synchronized (locks.computeIfAbsent(tenant, t -> new Object())) {
+            Model previous = models.get(tenant);
+            boolean incremental = previous != null && previous.sameShape(model)
+                    && previous.solver.updateDemand(demand, maxRepairCycles);
+            if (incremental) {
+                previous.subjectNames = model.subjectNames;
+                previous.teacherNames = model.teacherNames;
+                model = previous;
+            } else {
+                model.solver = new AssignmentSolver(demand, model.capacity, model.candidates, model.costs, loadWeight);
+                model.solver.solve();
+                models.put(tenant, model);
+            }
+            return plan(model, demand, incremental, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private Model buildModel(int maxSections, boolean fallback) {
+        Model model = new Model();
+        List<Subject> subjects = subjectRepository.findAll(Sort.by("id"));
+        List<Object[]> teachers = teacherRepository.findAssignmentProfiles();
+        int subjectCount = subjects.size();
+        int teacherCount = teachers.size();
+        model.subjectIds = new Long[subjectCount];
+        model.subjectNames = new String[subjectCount];
+        Map<Long, Integer> subjectIndex = new HashMap<>();
+        Map<String, Integer> subjectByName = new HashMap<>();
+        for (int s = 0; s < subjectCount; s++) {
+            Subject subject = subjects.get(s);
+            model.subjectIds[s] = subject.getId();
+            model.subjectNames[s] = subject.getName();
+            subjectIndex.put(subject.getId(), s);
+            subjectByName.putIfAbsent(normalize(subject.getName()), s);
+        }
+        model.teacherIds = new Long[teacherCount];
+        model.teacherNames = new String[teacherCount];
+        model.capacity = new int[teacherCount];
+        String[] departments = new String[teacherCount];
+        Map<Long, Integer> teacherIndex = new HashMap<>();
+        List<Set<Integer>> specialistsOf = new ArrayList<>();
+        for (int s = 0; s < subjectCount; s++) specialistsOf.add(new HashSet<>());
+        for (int t = 0; t < teacherCount; t++) {
+            Object[] row = teachers.get(t);
+            model.teacherIds[t] = (Long) row[0];
+            model.teacherNames[t] = (String) row[1];
+            departments[t] = row[2] == null ? null : normalize((String) row[2]);
+            model.capacity[t] = maxSections;
+            teacherIndex.put((Long) row[0], t);
+            Integer competence = row[3] == null ? null : subjectByName.get(normalize((String) row[3]));
+            if (competence != null) specialistsOf.get(competence).add(t);
+        }
+        Set<Long> links = new HashSet<>();
+        for (Object[] link : teacherSubjectRepository.findLinks()) {
+            Integer t = teacherIndex.get((Long) link[0]);
+            Integer s = subjectIndex.get((Long) link[1]);
+            if (t == null || s == null) continue;
+            links.add(pairKey(s, t, teacherCount));
+            specialistsOf.get(s).add(t);
+        }
+        Map<String, List<Integer>> byDepartment = new HashMap<>();
+        for (int t = 0; t < teacherCount; t++) {
+            if (departments[t] != null) byDepartment.computeIfAbsent(departments[t], d -> new ArrayList<>()).add(t);
+        }
+
+        model.candidates = new int[subjectCount][];
+        model.costs = new int[subjectCount][];
+        model.specialist = new boolean[subjectCount][];
+        model.linked = new boolean[subjectCount][];
+        // each subject's row is independent, so candidates are worked out in parallel
+        IntStream.range(0, subjectCount).parallel().forEach(s -> {
+            List<Integer> rowTeachers = new ArrayList<>(specialistsOf.get(s));
+            rowTeachers.sort(null);
+            int specialistCount = rowTeachers.size();
+            if (fallback) {
+                Set<String> subjectDepartments = new HashSet<>();
+                for (int t : rowTeachers) {
+                    if (departments[t] != null) subjectDepartments.add(departments[t]);
+                }
+                Set<Integer> specialists = specialistsOf.get(s);
+                for (String department : subjectDepartments.stream().sorted().toList()) {
+                    for (int t : byDepartment.get(department)) {
+                        if (!specialists.contains(t)) rowTeachers.add(t);
+                    }
+                }
+            }
+            int[] row = new int[rowTeachers.size()];
+            int[] rowCosts = new int[row.length];
+            boolean[] rowSpecialist = new boolean[row.length];
+            boolean[] rowLinked = new boolean[row.length];
+            for (int i = 0; i < row.length; i++) {
+                int t = rowTeachers.get(i);
+                row[i] = t;
+                rowSpecialist[i] = i < specialistCount;
+                rowLinked[i] = links.contains(pairKey(s, t, teacherCount));
+                rowCosts[i] = (rowSpecialist[i] ? 0 : departmentCost) + (rowLinked[i] ? 0 : changeCost);
+            }
+            model.candidates[s] = row;
+            model.costs[s] = rowCosts;
+            model.specialist[s] = rowSpecialist;
+            model.linked[s] = rowLinked;
+        });
+        return model;
+    }
+
+    private static long pairKey(int subject, int teacher, int teacherCount) {
+        return (long) subject * teacherCount + teacher;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int[] demand(Model model, int size) {
+        Map<Long, Long> students = new HashMap<>();
+        for (Object[] row : studentSubjectRepository.countOpenEnrollmentsBySubject()) {
+            students.put((Long) row[0], (Long) row[1]);
+        }
+        int[] demand = new int[model.subjectIds.length];
+        for (int s = 0; s < demand.length; s++) {
+            long count = students.getOrDefault(model.subjectIds[s], 0L);
+            demand[s] = (int) ((count + size - 1) / size);
+        }
+        return demand;
+    }
+
+    private AssignmentPlan plan(Model model, int[] demand, boolean incremental, long solveMillis) {
+        AssignmentSolver solver = model.solver;
+        List<AssignmentPlan.Assignment> assignments = new ArrayList<>();
+        List<AssignmentPlan.Shortfall> shortfalls = new ArrayList<>();
+        int needed = 0;
+        int unassigned = 0;
+        for (int s = 0; s < demand.length; s++) {
+            needed += demand[s];
+            for (int i = 0; i < model.candidates[s].length; i++) {
+                int sections = solver.sections(s, i);
+                if (sections == 0) continue;
+                int t = model.candidates[s][i];
+                assignments.add(new AssignmentPlan.Assignment(model.teacherIds[t], model.teacherNames[t],
+                        model.subjectIds[s], model.subjectNames[s], sections, model.specialist[s][i],
+                        !model.linked[s][i]));
+            }
+            int missing = solver.unassigned(s);
+            if (missing > 0) {
+                unassigned += missing;
+                shortfalls.add(new AssignmentPlan.Shortfall(model.subjectIds[s], model.subjectNames[s], demand[s], missing));
+            }
+        }
+        int maxLoad = 0;
+        long totalLoad = 0;
+        int teachersWithLoad = 0;
+        for (int t = 0; t < model.teacherIds.length; t++) {
+            int load = solver.load(t);
+            maxLoad = Math.max(maxLoad, load);
+            totalLoad += load;
+            if (load > 0) teachersWithLoad++;
+        }
+        double meanLoad = teachersWithLoad == 0 ? 0 : (double) totalLoad / teachersWithLoad;
+        return new AssignmentPlan(LocalDateTime.now(), incremental, solveMillis, solver.totalCost(), needed,
+                unassigned, maxLoad, meanLoad, false, assignments, shortfalls);
+    }
+
+    // Makes teacher_subject match the plan for every subject that needs sections; links of subjects
+    // without open enrollments are left as they are. Publishes TEACHER_SUBJECTS_CHANGED with the new teachers of
+    // every subject that gained or lost a teacher.
+    @Transactional
+    public void apply(AssignmentPlan plan) {
+        Set<Long> planned = new HashSet<>();
+        plan.getAssignments().forEach(a -> planned.add(a.getSubjectId()));
+        plan.getShortfalls().forEach(f -> planned.add(f.getSubjectId()));
+        Map<Long, Subject> subjects = new HashMap<>();
+        subjectRepository.findAllById(planned).forEach(subject -> subjects.put(subject.getId(), subject));
+
+        Map<List<Long>, TeacherSubject> existing = new HashMap<>();
+        for (TeacherSubject link : teacherSubjectRepository.findAll()) {
+            if (link.getTeacher() == null || link.getSubject() == null) continue;
+            if (planned.contains(link.getSubject().getId())) {
+                existing.put(List.of(link.getTeacher().getId(), link.getSubject().getId()), link);
+            }
+        }
+        List<TeacherSubject> saved = new ArrayList<>();
+        Set<Long> changed = new HashSet<>();
+        for (AssignmentPlan.Assignment assignment : plan.getAssignments()) {
+            TeacherSubject link = existing.remove(List.of(assignment.getTeacherId(), assignment.getSubjectId()));
+            if (link == null) {
+                changed.add(assignment.getSubjectId());
+                Subject subject = subjects.get(assignment.getSubjectId());
+                link = TeacherSubject.builder()
+                        .teacher(teacherRepository.getReferenceById(assignment.getTeacherId()))
+                        .subject(subject)
+                        .level(subject.getLevel() != null ? subject.getLevel() : 1)
+                        .build();
+            }
+            link.setSections(assignment.getSections());
+            saved.add(link);
+        }
+        // what is left was not kept by the plan
+        existing.keySet().forEach(key -> changed.add(key.get(1)));
+        teacherSubjectRepository.deleteAll(existing.values());
+        teacherSubjectRepository.saveAll(saved);
+
+        Map<Long, List<Long>> teachersBySubject = new HashMap<>();
+        for (AssignmentPlan.Assignment assignment : plan.getAssignments()) {
+            teachersBySubject.computeIfAbsent(assignment.getSubjectId(), k -> new ArrayList<>()).add(assignment.getTeacherId());
+        }
+        for (Long subjectId : changed.stream().sorted().toList()) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("subjectId", subjectId);
+            payload.put("teacherIds", teachersBySubject.getOrDefault(subjectId, List.of()));
+            outboxService.publish(OutboxEventType.TEACHER_SUBJECTS_CHANGED, subjectId, payload);
+        }
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+}
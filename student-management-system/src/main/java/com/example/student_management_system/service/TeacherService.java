@@ -1,56 +1,146 @@
 package com.example.student_management_system.service;
 
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.DTOS.TeacherRosterEntry;
+import com.example.student_management_system.DTOS.TeacherRosterPage;
+import com.example.student_management_system.Enum.OutboxEventType;
 import com.example.student_management_system.Enum.Role;
 import com.example.student_management_system.Exceptions.ResourceNotFoundException;
 import com.example.student_management_system.model.Teacher;
 import com.example.student_management_system.repositiory.TeacherRepository;
+import com.example.student_management_system.repositiory.TeacherSubjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.config.ConfigDataResourceNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TeacherService {
 
+    // Fields PATCH /api/teachers/{id} may change
+    private static final Set<String> PATCHABLE = Set.of("name", "password", "salary", "department", "subject");
+    private static final int MAX_ROSTER_PAGE = 5000;
+
     private final TeacherRepository teacherRepository;
+    private final TeacherSubjectRepository teacherSubjectRepository;
+    private final OutboxService outboxService;
+    private final UserPatcher userPatcher;
+    private final TenancyProperties tenancyProperties;
 
     @Autowired
-    public TeacherService(TeacherRepository teacherRepository) {
+    public TeacherService(TeacherRepository teacherRepository, TeacherSubjectRepository teacherSubjectRepository,
+                          OutboxService outboxService, UserPatcher userPatcher, TenancyProperties tenancyProperties) {
         this.teacherRepository = teacherRepository;
+        this.teacherSubjectRepository = teacherSubjectRepository;
+        this.outboxService = outboxService;
+        this.userPatcher = userPatcher;
+        this.tenancyProperties = tenancyProperties;
     }
 
 
+    @Transactional(readOnly = true)
     public List<Teacher> getAllTeachers() {
         return teacherRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Teacher> getTeacherById(Long id) {
         return teacherRepository.findById(id);
     }
 
+    // Students the teacher teaches: enrollments in the teacher's subjects at the level they teach them, in id order
+    @Transactional(readOnly = true)
+    public TeacherRosterPage getRoster(Long teacherId, Long afterId, Long subjectId, Boolean passed, int size) {
+        if (size < 1 || size > MAX_ROSTER_PAGE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_ROSTER_PAGE);
+        }
+        if (!teacherRepository.existsById(teacherId)) {
+            throw new ResourceNotFoundException("Teacher with id " + teacherId + " not found");
+        }
+        // One extra row tells whether there is a next page
+        List<Object[]> rows = teacherSubjectRepository.findRoster(currentTenant(), teacherId,
+                afterId != null ? afterId : 0L, subjectId, passed, size + 1);
+        List<TeacherRosterEntry> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            Object[] row = rows.get(i);
+            items.add(new TeacherRosterEntry((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+                    (Integer) row[4], (Long) row[5], (String) row[6], (Boolean) row[7], (Boolean) row[8]));
+        }
+        Long nextAfterId = rows.size() > size ? items.get(items.size() - 1).getStudentSubjectId() : null;
+        return new TeacherRosterPage(items, nextAfterId);
+    }
+
+    @Transactional
     public Teacher addTeacher(Teacher teacher) {
         teacher.setRole(Role.TEACHER);  // Make sure Role.TEACHER exists in your Enum
-        return teacherRepository.save(teacher);
+        return publishSaved(teacherRepository.save(teacher), true, null, null);
     }
 
+    @Transactional
     public void deleteTeacher(Long id) {
-        if (!teacherRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Teacher with id " + id + " not found");
-        }
-        teacherRepository.deleteById(id);
+        Teacher teacher = teacherRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher with id " + id + " not found"));
+        // The teacher's links go with them; the subjects are named so consumers can recompute their departments
+        List<Long> subjectIds = teacherSubjectRepository.findSubjectIdsByTeacherId(id);
+        teacherSubjectRepository.deleteByTeacherId(id);
+        teacherRepository.delete(teacher);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("teacherId", id);
+        payload.put("department", teacher.getDepartment());
+        payload.put("salary", teacher.getSalary());
+        payload.put("subjectIds", subjectIds);
+        outboxService.publish(OutboxEventType.TEACHER_DELETED, id, payload);
     }
 
+    @Transactional
     public Teacher updateTeacher(Long id, Teacher updatedTeacher) {
         return teacherRepository.findById(id)
                 .map(existingTeacher -> {
+                    String previousDepartment = existingTeacher.getDepartment();
+                    Double previousSalary = existingTeacher.getSalary();
                     existingTeacher.setName(updatedTeacher.getName());
-                    return teacherRepository.save(existingTeacher);
+                    return publishSaved(teacherRepository.save(existingTeacher), false, previousDepartment, previousSalary);
                 })
                 .orElseGet(() -> {
-                    updatedTeacher.setId(id);
-                    return teacherRepository.save(updatedTeacher);
+                    // A new row with a generated id; an assigned id or version would make save() treat it as detached
+                    updatedTeacher.setId(null);
+                    updatedTeacher.setVersion(null);
+                    return publishSaved(teacherRepository.save(updatedTeacher), true, null, null);
                 });
     }
+
+    public Teacher patchTeacher(Long id, JsonNode changes) {
+        return userPatcher.patch(teacherRepository, id, changes, PATCHABLE, teacher -> {
+            String previousDepartment = teacher.getDepartment();
+            Double previousSalary = teacher.getSalary();
+            return patched -> publishSaved(patched, false, previousDepartment, previousSalary);
+        });
+    }
+
+    // Carries the previous department and salary so summary consumers can move the teacher between totals
+    private Teacher publishSaved(Teacher teacher, boolean created, String previousDepartment, Double previousSalary) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("teacherId", teacher.getId());
+        payload.put("created", created);
+        payload.put("department", teacher.getDepartment());
+        payload.put("salary", teacher.getSalary());
+        payload.put("previousDepartment", previousDepartment);
+        payload.put("previousSalary", previousSalary);
+        outboxService.publish(OutboxEventType.TEACHER_SAVED, teacher.getId(), payload);
+        return teacher;
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
 }
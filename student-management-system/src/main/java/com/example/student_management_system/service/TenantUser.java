@@ -0,0 +1,19 @@
+package com.example.student_management_system.service;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Spring Security user that also remembers which tenant (school) it belongs to
+@Getter
+public class TenantUser extends User {
+
+    private final String tenantId;
+
+    public TenantUser(String username, String password, Collection<? extends GrantedAuthority> authorities, String tenantId) {
+        super(username, password, authorities);
+        this.tenantId = tenantId;
+    }
+}
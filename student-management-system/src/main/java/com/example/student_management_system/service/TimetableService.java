@@ -0,0 +1,156 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.TimetableRequest;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.ExamSlot;
+import com.example.student_management_system.model.ExamTimetable;
+import com.example.student_management_system.repositiory.ExamSlotRepository;
+import com.example.student_management_system.repositiory.ExamTimetableRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class TimetableService {
+
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final SubjectRepository subjectRepository;
+    private final ExamTimetableRepository examTimetableRepository;
+    private final ExamSlotRepository examSlotRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int maxIterations;
+
+    @Autowired
+    public TimetableService(StudentSubjectRepository studentSubjectRepository,
+                            SubjectRepository subjectRepository,
+                            ExamTimetableRepository examTimetableRepository,
+                            ExamSlotRepository examSlotRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${timetable.max-iterations}") int maxIterations) {
+        this.studentSubjectRepository = studentSubjectRepository;
+        this.subjectRepository = subjectRepository;
+        this.examTimetableRepository = examTimetableRepository;
+        this.examSlotRepository = examSlotRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxIterations = maxIterations;
+    }
+
+    // Schedules one exam for every subject with students who have not passed it yet. The rosters are read in one
+    // transaction and the timetable saved in another; the solve in between holds no connection or locks.
+    public ExamTimetable generate(TimetableRequest request) {
+        if (request.getSlotCount() == null || request.getSlotCount() < 1
+                || request.getRooms() == null || request.getRooms().isEmpty()
+                || request.getFirstSlotStart() == null || request.getSlotMinutes() == null) {
+            throw new IllegalArgumentException("firstSlotStart, slotCount, slotMinutes and rooms are required");
+        }
+        if (request.getSlotMinutes() < 1) {
+            throw new IllegalArgumentException("slotMinutes must be at least 1");
+        }
+        for (TimetableRequest.Room room : request.getRooms()) {
+            if (room == null || room.getCapacity() == null || room.getCapacity() < 1) {
+                throw new IllegalArgumentException("Every room needs a capacity of at least 1");
+            }
+        }
+        int slotsPerDay = request.getSlotsPerDay() == null ? request.getSlotCount() : request.getSlotsPerDay();
+        if (slotsPerDay < 1) {
+            throw new IllegalArgumentException("slotsPerDay must be at least 1");
+        }
+
+        // Dense indexes so rosters are compact bitsets
+        Map<Long, Integer> subjectIndex = new HashMap<>();
+        Map<Long, Integer> studentIndex = new HashMap<>();
+        List<Long> subjectIds = new ArrayList<>();
+        List<BitSet> rosters = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> pairs = studentSubjectRepository.streamUnpassedEnrollmentPairs()) {
+                pairs.forEach(pair -> {
+                    int student = studentIndex.computeIfAbsent((Long) pair[0], k -> studentIndex.size());
+                    int subject = subjectIndex.computeIfAbsent((Long) pair[1], k -> {
+                        subjectIds.add(k);
+                        rosters.add(new BitSet());
+                        return subjectIds.size() - 1;
+                    });
+                    rosters.get(subject).set(student);
+                });
+            }
+        });
+        if (subjectIds.isEmpty()) {
+            throw new IllegalArgumentException("No enrollments to schedule");
+        }
+
+        int[] capacities = request.getRooms().stream().mapToInt(TimetableRequest.Room::getCapacity).toArray();
+        TimetableSolver solver = new TimetableSolver(rosters.toArray(new BitSet[0]), request.getSlotCount(), capacities);
+        int largestRoom = Arrays.stream(capacities).max().orElse(0);
+        if (solver.largestRoster() > largestRoom) {
+            throw new IllegalArgumentException("A subject has " + solver.largestRoster()
+                    + " students but the largest room holds " + largestRoom);
+        }
+        TimetableSolver.Result result = solver.solve(Runtime.getRuntime().availableProcessors(), maxIterations);
+        if (result.conflicts > 0) {
+            throw new IllegalArgumentException("No clash-free timetable fits in " + request.getSlotCount()
+                    + " slots with the given rooms (" + result.conflicts + " conflicts left); add slots or rooms");
+        }
+        return writeTransaction.execute(status -> save(request, slotsPerDay, subjectIds, rosters, result));
+    }
+
+    private ExamTimetable save(TimetableRequest request, int slotsPerDay, List<Long> subjectIds, List<BitSet> rosters,
+                               TimetableSolver.Result result) {
+        ExamTimetable timetable = examTimetableRepository.save(ExamTimetable.builder()
+                .name(request.getName())
+                .createdAt(LocalDateTime.now())
+                .firstSlotStart(request.getFirstSlotStart())
+                .slotMinutes(request.getSlotMinutes())
+                .slotsPerDay(slotsPerDay)
+                .slotCount(request.getSlotCount())
+                .build());
+
+        List<ExamSlot> slots = new ArrayList<>(subjectIds.size());
+        for (int i = 0; i < subjectIds.size(); i++) {
+            int slot = result.slotOf[i];
+            LocalDateTime start = request.getFirstSlotStart()
+                    .plusDays(slot / slotsPerDay)
+                    .plusMinutes((long) (slot % slotsPerDay) * request.getSlotMinutes());
+            TimetableRequest.Room room = request.getRooms().get(result.roomOf[i]);
+            slots.add(ExamSlot.builder()
+                    .timetable(timetable)
+                    .subject(subjectRepository.getReferenceById(subjectIds.get(i)))
+                    .slotIndex(slot)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(request.getSlotMinutes()))
+                    .room(room.getName())
+                    .roomCapacity(room.getCapacity())
+                    .studentCount(rosters.get(i).cardinality())
+                    .build());
+        }
+        examSlotRepository.saveAll(slots);
+        return timetable;
+    }
+
+    @Transactional(readOnly = true)
+    public ExamTimetable getTimetable(Long id) {
+        return examTimetableRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Timetable with id " + id + " not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExamSlot> getSlots(Long timetableId) {
+        return examSlotRepository.findByTimetableIdOrderBySlotIndexAsc(timetableId);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.student_management_system.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// Assigns each subject's exam to a time slot and a room so no student sits two exams at once.
+// Rosters are bitsets over dense student indexes; two subjects conflict when their rosters intersect.
+// Each attempt colors the conflict graph with DSatur and repairs what is left with a tabu min-conflicts
+// search; attempts run in parallel with different seeds and the best one wins.
+class TimetableSolver {
+
+    static final class Result {
+        final int[] slotOf;
+        final int[] roomOf;
+        final int conflicts;
+        final int peakLoad;
+
+        Result(int[] slotOf, int[] roomOf, int conflicts, int peakLoad) {
+            this.slotOf = slotOf;
+            this.roomOf = roomOf;
+            this.conflicts = conflicts;
+            this.peakLoad = peakLoad;
+        }
+    }
+
+    private final int subjectCount;
+    private final int slotCount;
+    private final int[] sizes;
+    private final int[] roomsBySize;     // room indexes, largest first
+    private final int[] roomCapacities;
+    private final int[][] neighbors;
+
+    TimetableSolver(BitSet[] rosters, int slotCount, int[] roomCapacities) {
+        this.subjectCount = rosters.length;
+        this.slotCount = slotCount;
+        this.roomCapacities = roomCapacities;
+        this.sizes = Arrays.stream(rosters).mapToInt(BitSet::cardinality).toArray();
+        this.roomsBySize = IntStream.range(0, roomCapacities.length).boxed()
+                .sorted(Comparator.comparingInt((Integer r) -> roomCapacities[r]).reversed())
+                .mapToInt(Integer::intValue).toArray();
+        // each row is computed independently, so the pairwise intersections run in parallel without locking
+        this.neighbors = IntStream.range(0, subjectCount).parallel()
+                .mapToObj(i -> IntStream.range(0, subjectCount)
+                        .filter(j -> j != i && rosters[i].intersects(rosters[j]))
+                        .toArray())
+                .toArray(int[][]::new);
+    }
+
+    int largestRoster() {
+        return Arrays.stream(sizes).max().orElse(0);
+    }
+
+    Result solve(int attempts, int maxIterations) {
+        return IntStream.range(0, attempts).parallel()
+                .mapToObj(seed -> new Attempt(new Random(seed * 7919L + 17)).run(maxIterations))
+                .min(Comparator.<Result>comparingInt(r -> r.conflicts).thenComparingInt(r -> r.peakLoad))
+                .orElseThrow();
+    }
+
+    private final class Attempt {
+        private final Random random;
+        private final int[] slotOf = new int[subjectCount];
+        private final int[][] clash = new int[subjectCount][slotCount];   // neighbors of v sitting in slot s
+        private final int[] saturation = new int[subjectCount];
+        private final int[] slotLoad = new int[slotCount];
+        private final List<List<Integer>> members = new ArrayList<>();
+        // conflicted subjects as an indexable set for O(1) random pick, add and remove
+        private final int[] conflicted = new int[subjectCount];
+        private final int[] position = new int[subjectCount];
+        private int conflictedCount;
+
+        Attempt(Random random) {
+            this.random = random;
+            Arrays.fill(slotOf, -1);
+            Arrays.fill(position, -1);
+            for (int s = 0; s < slotCount; s++) members.add(new ArrayList<>());
+        }
+
+        Result run(int maxIterations) {
+            color();
+            repair(maxIterations);
+            int[] roomOf = assignRooms();
+            int clashingPairs = 0;
+            int roomless = 0;
+            for (int v = 0; v < subjectCount; v++) {
+                clashingPairs += clash[v][slotOf[v]];
+                if (roomOf[v] < 0) roomless++;
+            }
+            int peak = Arrays.stream(slotLoad).max().orElse(0);
+            return new Result(slotOf, roomOf, clashingPairs / 2 + roomless, peak);
+        }
+
+        private void color() {
+            for (int placed = 0; placed < subjectCount; placed++) {
+                int v = pickMostSaturated();
+                int best = -1;
+                int bestClash = Integer.MAX_VALUE;
+                int bestLoad = Integer.MAX_VALUE;
+                for (int s = 0; s < slotCount; s++) {
+                    if (!roomFits(s, v)) continue;
+                    int c = clash[v][s];
+                    if (c < bestClash || (c == bestClash && (slotLoad[s] < bestLoad
+                            || (slotLoad[s] == bestLoad && random.nextBoolean())))) {
+                        best = s;
+                        bestClash = c;
+                        bestLoad = slotLoad[s];
+                    }
+                }
+                if (best < 0) {
+                    best = random.nextInt(slotCount); // no room anywhere; counted as a conflict
+                }
+                place(v, best);
+            }
+        }
+
+        private int pickMostSaturated() {
+            int best = -1;
+            for (int v = 0; v < subjectCount; v++) {
+                if (slotOf[v] >= 0) continue;
+                if (best < 0 || saturation[v] > saturation[best]
+                        || (saturation[v] == saturation[best] && (neighbors[v].length > neighbors[best].length
+                        || (neighbors[v].length == neighbors[best].length && random.nextBoolean())))) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        private void repair(int maxIterations) {
+            int[][] tabuUntil = new int[subjectCount][slotCount];
+            for (int iter = 0; iter < maxIterations && conflictedCount > 0; iter++) {
+                int v = conflicted[random.nextInt(conflictedCount)];
+                int current = slotOf[v];
+                int best = -1;
+                int bestClash = Integer.MAX_VALUE;
+                for (int s = 0; s < slotCount; s++) {
+                    if (s == current || !roomFits(s, v)) continue;
+                    int c = clash[v][s];
+                    boolean tabu = tabuUntil[v][s] > iter && c > 0;
+                    if (!tabu && (c < bestClash || (c == bestClash && random.nextBoolean()))) {
+                        best = s;
+                        bestClash = c;
+                    }
+                }
+                if (best < 0) continue;
+                tabuUntil[v][current] = iter + 7 + random.nextInt(10);
+                remove(v);
+                place(v, best);
+            }
+        }
+
+        private void place(int v, int s) {
+            slotOf[v] = s;
+            slotLoad[s] += sizes[v];
+            members.get(s).add(v);
+            for (int u : neighbors[v]) {
+                if (clash[u][s]++ == 0) saturation[u]++;
+                refresh(u);
+            }
+            refresh(v);
+        }
+
+        private void remove(int v) {
+            int s = slotOf[v];
+            slotOf[v] = -1;
+            slotLoad[s] -= sizes[v];
+            members.get(s).remove(Integer.valueOf(v));
+            for (int u : neighbors[v]) {
+                if (--clash[u][s] == 0) saturation[u]--;
+                refresh(u);
+            }
+            refresh(v);
+        }
+
+        private void refresh(int v) {
+            boolean inConflict = slotOf[v] >= 0 && clash[v][slotOf[v]] > 0;
+            if (inConflict && position[v] < 0) {
+                position[v] = conflictedCount;
+                conflicted[conflictedCount++] = v;
+            } else if (!inConflict && position[v] >= 0) {
+                int last = conflicted[--conflictedCount];
+                conflicted[position[v]] = last;
+                position[last] = position[v];
+                position[v] = -1;
+            }
+        }
+
+        // Largest exam into the largest room: feasible iff that pairing works for every exam in the slot
+        private boolean roomFits(int s, int extra) {
+            List<Integer> slotMembers = members.get(s);
+            if (slotMembers.size() + 1 > roomsBySize.length) return false;
+            int[] wanted = new int[slotMembers.size() + 1];
+            for (int i = 0; i < slotMembers.size(); i++) wanted[i] = sizes[slotMembers.get(i)];
+            wanted[wanted.length - 1] = sizes[extra];
+            Arrays.sort(wanted);
+            for (int i = 0; i < wanted.length; i++) {
+                if (wanted[wanted.length - 1 - i] > roomCapacities[roomsBySize[i]]) return false;
+            }
+            return true;
+        }
+
+        private int[] assignRooms() {
+            int[] roomOf = new int[subjectCount];
+            Arrays.fill(roomOf, -1);
+            for (List<Integer> slotMembers : members) {
+                List<Integer> bySize = new ArrayList<>(slotMembers);
+                bySize.sort(Comparator.comparingInt((Integer v) -> sizes[v]).reversed());
+                for (int i = 0; i < bySize.size() && i < roomsBySize.length; i++) {
+                    if (sizes[bySize.get(i)] <= roomCapacities[roomsBySize[i]]) {
+                        roomOf[bySize.get(i)] = roomsBySize[i];
+                    }
+                }
+            }
+            return roomOf;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.student_management_system.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Denylist of revoked token ids (jti). Lookups are a single hash probe; entries are grouped
+// into buckets by expiry time so whole buckets drop off once every token in them has expired.
+// Revocations are appended to a local file and replayed on startup.
+@Service
+public class TokenRevocationService {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final long bucketMs;
+    private final Path file;
+    private BufferedWriter writer;
+
+    @Autowired
+    public TokenRevocationService(@Value("${jwt.denylist.bucket-ms}") long bucketMs,
+                                  @Value("${jwt.denylist.file}") String file) {
+        this.bucketMs = bucketMs;
+        this.file = Paths.get(file);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (Files.exists(file)) {
+            long now = System.currentTimeMillis();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(" ");
+                if (parts.length != 2) continue;
+                long expiresAt = Long.parseLong(parts[1]);
+                if (expiresAt > now) {
+                    track(parts[0], expiresAt);
+                }
+            }
+        }
+        compact();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) {
+            return; // nothing to deny once the token has expired on its own
+        }
+        if (track(jti, expiresAt)) {
+            append(jti + " " + expiresAt);
+        }
+    }
+
+    // Drops every bucket whose tokens have all expired, then rewrites the file without them
+    @Scheduled(fixedDelayString = "${jwt.denylist.bucket-ms}")
+    public void purgeExpired() {
+        ConcurrentNavigableMap<Long, Set<String>> expired = buckets.headMap(bucketOf(System.currentTimeMillis()));
+        if (expired.isEmpty()) return;
+        for (Map.Entry<Long, Set<String>> bucket : expired.entrySet()) {
+            bucket.getValue().forEach(revoked::remove);
+            buckets.remove(bucket.getKey());
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean track(String jti, long expiresAt) {
+        if (revoked.putIfAbsent(jti, expiresAt) != null) {
+            return false;
+        }
+        buckets.computeIfAbsent(bucketOf(expiresAt), k -> ConcurrentHashMap.newKeySet()).add(jti);
+        return true;
+    }
+
+    private long bucketOf(long expiresAt) {
+        return expiresAt - Math.floorMod(expiresAt, bucketMs);
+    }
+
+    private synchronized void append(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void compact() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<String> lines = revoked.entrySet().stream()
+                .map(e -> e.getKey() + " " + e.getValue())
+                .toList();
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.model.ArchivedUser;
+import com.example.student_management_system.repositiory.AppUserRepository;
+import com.example.student_management_system.repositiory.ArchivedUserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves graduated and long-inactive students (with their enrollments) out of the hot app_user and
+// student_subject tables. Archived users can't log in and don't show up in lists until reactivated.
+@Service
+public class UserArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(UserArchiveService.class);
+
+    private final ArchivedUserRepository archivedUserRepository;
+    private final AppUserRepository appUserRepository;
+    private final OutboxService outboxService;
+    private final TenantPartitions tenantPartitions;
+    private final TenancyProperties tenancyProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int inactiveDays;
+    private final int batchSize;
+
+    @Autowired
+    public UserArchiveService(ArchivedUserRepository archivedUserRepository,
+                              AppUserRepository appUserRepository,
+                              OutboxService outboxService,
+                              TenantPartitions tenantPartitions,
+                              TenancyProperties tenancyProperties,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.users.archive.inactive-days:730}") int inactiveDays,
+                              @Value("${app.users.archive.batch-size:500}") int batchSize) {
+        this.archivedUserRepository = archivedUserRepository;
+        this.appUserRepository = appUserRepository;
+        this.outboxService = outboxService;
+        this.tenantPartitions = tenantPartitions;
+        this.tenancyProperties = tenancyProperties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inactiveDays = inactiveDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.users.archive.cron:0 0 4 * * SUN}")
+    public void archiveAllTenants() {
+        tenantPartitions.forEach(partition -> archiveEligible());
+    }
+
+    // Archives in batches of batch-size, one transaction each, so locks on app_user stay short
+    public long archiveEligible() {
+        String tenant = currentTenant();
+        LocalDateTime inactiveBefore = LocalDateTime.now().minusDays(inactiveDays);
+        long archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Object[]> rows = archivedUserRepository.archiveStudents(
+                        tenant, StudentService.GRADUATED_LEVEL, inactiveBefore, batchSize);
+                for (Object[] row : rows) {
+                    Long studentId = ((Number) row[0]).longValue();
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("studentId", studentId);
+                    payload.put("reason", row[2]);
+                    payload.put("level", row[3]);
+                    payload.put("enrollments", readJson((String) row[4]));
+                    outboxService.publish(OutboxEventType.STUDENT_ARCHIVED, studentId, payload, (String) row[1]);
+                }
+                return rows.size();
+            });
+            if (moved == null || moved == 0) break;
+            archived += moved;
+            if (moved < batchSize) break;
+        }
+        if (archived > 0) {
+            log.info("Archived {} students for {}", archived, tenant);
+        }
+        return archived;
+    }
+
+    @Transactional
+    public ArchivedUser reactivate(Long userId) {
+        ArchivedUser archived = archivedUserRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived user with id " + userId + " not found"));
+        // Any school: the username is unique across all of them
+        if (appUserRepository.existsUsernameInAnySchool(archived.getUsername())) {
+            throw new IllegalStateException("Username " + archived.getUsername() + " has been taken since the user was archived");
+        }
+        String tenant = currentTenant();
+        List<Object[]> restored = archivedUserRepository.restoreUser(userId, tenant);
+        if (restored.isEmpty()) {
+            throw new ResourceNotFoundException("Archived user with id " + userId + " not found");
+        }
+        if ("STUDENT".equals(archived.getUserType())) {
+            List<Map<String, Object>> enrollments = new ArrayList<>();
+            for (Object[] row : archivedUserRepository.restoreEnrollments(userId, tenant)) {
+                Map<String, Object> enrollment = new HashMap<>();
+                enrollment.put("studentSubjectId", ((Number) row[0]).longValue());
+                enrollment.put("subjectId", row[1] == null ? null : ((Number) row[1]).longValue());
+                enrollment.put("paymentApproved", row[2]);
+                enrollment.put("examPassed", row[3]);
+                enrollments.add(enrollment);
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("studentId", userId);
+            payload.put("level", restored.get(0)[2]);
+            payload.put("gpa", restored.get(0)[3]);
+            payload.put("enrollments", enrollments);
+            outboxService.publish(OutboxEventType.STUDENT_REACTIVATED, userId, payload, (String) restored.get(0)[1]);
+        }
+        return archived;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedUser> getArchivedUsers(int page, int size) {
+        return archivedUserRepository.findAllByOrderByArchivedAtDesc(PageRequest.of(page, Math.min(size, 1000)));
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Malformed enrollment list from archive statement", e);
+        }
+    }
+
+    private String currentTenant() {
+        String tenant = TenantContext.get();
+        return tenant != null ? tenant : tenancyProperties.getDefaultTenant();
+    }
+}
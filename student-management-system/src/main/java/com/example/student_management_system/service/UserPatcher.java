@@ -0,0 +1,94 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Exceptions.ResourceNotFoundException;
+import com.example.student_management_system.Exceptions.VersionConflictException;
+import com.example.student_management_system.model.AppUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Partial updates (PATCH) of users with optimistic locking. The body holds only the fields to change plus the
+// "version" the client last read. Entities are @DynamicUpdate, so the UPDATE lists just the changed columns and
+// is guarded by "where version = ?"; no row lock is held between read and write.
+@Component
+public class UserPatcher {
+
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserPatcher(ObjectMapper objectMapper, PasswordEncoder passwordEncoder,
+                       PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // onLoaded sees the entity before the changes are applied (to remember previous values) and returns what
+    // to run after they are flushed, inside the same transaction (e.g. publishing outbox events)
+    public <T extends AppUser> T patch(JpaRepository<T, Long> repository, Long id, JsonNode body,
+                                       Set<String> patchable, Function<T, Consumer<T>> onLoaded) {
+        if (body == null || !body.isObject()) {
+            throw new IllegalArgumentException("Body must be a JSON object");
+        }
+        JsonNode versionNode = body.get("version");
+        if (versionNode == null || !versionNode.canConvertToLong()) {
+            throw new IllegalArgumentException("version is required");
+        }
+        long version = versionNode.asLong();
+        ObjectNode changes = ((ObjectNode) body).deepCopy();
+        changes.remove("version");
+        for (Iterator<String> fields = changes.fieldNames(); fields.hasNext(); ) {
+            String field = fields.next();
+            if (!patchable.contains(field)) {
+                throw new IllegalArgumentException("Field '" + field + "' cannot be changed, allowed: " + patchable);
+            }
+            if (changes.get(field).isNull()) {
+                throw new IllegalArgumentException("Field '" + field + "' cannot be null");
+            }
+        }
+        JsonNode password = changes.remove("password");
+        String encodedPassword = password != null ? passwordEncoder.encode(password.asText()) : null;
+
+        try {
+            return transactionTemplate.execute(status -> {
+                T user = repository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " not found"));
+                if (user.getVersion() == null || user.getVersion() != version) {
+                    throw new VersionConflictException("User " + id + " was changed since version " + version,
+                            user.getVersion());
+                }
+                Consumer<T> afterFlush = onLoaded.apply(user);
+                try {
+                    objectMapper.readerForUpdating(user).readValue(changes);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+                }
+                if (encodedPassword != null) {
+                    user.setPassword(encodedPassword);
+                }
+                T saved = repository.saveAndFlush(user);
+                afterFlush.accept(saved);
+                return saved;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Another transaction committed between our read and our UPDATE
+            Long current = repository.findById(id).map(AppUser::getVersion).orElse(null);
+            throw new VersionConflictException("User " + id + " was changed concurrently", current);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.AppUser;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Keeps the username filter in step with every user write.
+// Resolved lazily because Hibernate instantiates listeners while the EntityManagerFactory is still starting.
+@Component
+public class UsernameFilterListener {
+
+    private final ObjectProvider<UsernameFilterService> usernameFilterService;
+
+    @Autowired
+    public UsernameFilterListener(ObjectProvider<UsernameFilterService> usernameFilterService) {
+        this.usernameFilterService = usernameFilterService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onUserWrite(AppUser user) {
+        usernameFilterService.ifAvailable(filter -> filter.add(user.getUsername()));
+    }
+}
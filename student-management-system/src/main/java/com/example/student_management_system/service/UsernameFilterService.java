@@ -0,0 +1,97 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.Util.BloomFilter;
+import com.example.student_management_system.repositiory.ArchivedUserRepository;
+import com.example.student_management_system.repositiory.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+// In-memory Bloom filter of taken usernames, so signup can skip the database
+// for names that are definitely free. The unique constraint on app_user.username stays the final authority.
+// Archived users (app_user_archive) keep their usernames reserved, so they are part of the filter and the check.
+@Service
+public class UsernameFilterService {
+
+    private final UserRepository userRepository;
+    private final ArchivedUserRepository archivedUserRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantPartitions tenantPartitions;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    // Filter being rebuilt; writes during a rebuild go to both so none are lost on swap
+    private volatile BloomFilter pending;
+
+    @Autowired
+    public UsernameFilterService(UserRepository userRepository,
+                                 ArchivedUserRepository archivedUserRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 TenantPartitions tenantPartitions,
+                                 @Value("${signup.username-filter.expected-insertions}") long expectedInsertions,
+                                 @Value("${signup.username-filter.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.archivedUserRepository = archivedUserRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tenantPartitions = tenantPartitions;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // false means the username is definitely not taken; true means "check the database"
+    public boolean mightExist(String username) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(username);
+    }
+
+    // Taken by a current or an archived user; the database is only asked when the filter can't rule it out
+    public boolean isTaken(String username) {
+        return mightExist(username)
+                && (userRepository.existsUsernameInAnySchool(username)
+                || archivedUserRepository.existsArchivedUsername(username));
+    }
+
+    public void add(String username) {
+        if (username == null) return;
+        BloomFilter filter = current;
+        if (filter != null) filter.put(username);
+        BloomFilter next = pending;
+        if (next != null) next.put(username);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${signup.username-filter.rebuild-interval-ms}",
+            fixedDelayString = "${signup.username-filter.rebuild-interval-ms}")
+    public synchronized void rebuild() {
+        long[] existing = new long[1];
+        tenantPartitions.forEach(partition -> existing[0] += userRepository.count() + archivedUserRepository.count());
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, existing[0] * 2), falsePositiveRate);
+        pending = next;
+        try {
+            // every tenant partition, so usernames stay unique across schools
+            tenantPartitions.forEach(partition -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    usernames.forEach(next::put);
+                }
+                try (Stream<String> usernames = archivedUserRepository.streamAllUsernames()) {
+                    usernames.forEach(next::put);
+                }
+            }));
+            current = next;
+        } finally {
+            pending = null;
+        }
+    }
+}
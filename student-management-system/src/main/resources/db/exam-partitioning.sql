@@ -0,0 +1,37 @@
+-- One-time conversion of exam into a table range-partitioned by term (see Util/AcademicTerm).
+-- Run with psql against each store (shared database, dedicated schemas/databases) in a maintenance window,
+-- with the application stopped. Afterwards ExamPartitionManager creates upcoming term partitions itself.
+-- Keep ddl-auto=update: once exam is partitioned, schema updates skip that table (Config/SchemaUpdateConfig) and
+-- later changes to its columns belong in schema.sql.
+BEGIN;
+
+UPDATE exam SET term = EXTRACT(YEAR FROM COALESCE(exam_date, now())) * 10
+        + CASE WHEN EXTRACT(MONTH FROM COALESCE(exam_date, now())) >= 7 THEN 2 ELSE 1 END
+    WHERE term IS NULL;
+
+ALTER TABLE exam RENAME TO exam_unpartitioned;
+
+CREATE TABLE exam (LIKE exam_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY) PARTITION BY RANGE (term);
+ALTER TABLE exam ALTER COLUMN term SET NOT NULL;
+-- The partition key has to be part of every unique constraint
+ALTER TABLE exam ADD PRIMARY KEY (id, term);
+ALTER TABLE exam ADD FOREIGN KEY (student_id) REFERENCES app_user (id);
+ALTER TABLE exam ADD FOREIGN KEY (subject_id) REFERENCES subject (id);
+ALTER TABLE exam ADD FOREIGN KEY (teacher_id) REFERENCES app_user (id);
+ALTER TABLE exam ADD FOREIGN KEY (exam_slot_id) REFERENCES exam_slot (id);
+CREATE INDEX ON exam (term, student_id, subject_id);
+CREATE INDEX ON exam (student_id, subject_id);
+
+-- Catches rows of terms without a partition; ExamPartitionManager moves them out when it creates their partition
+CREATE TABLE exam_default PARTITION OF exam DEFAULT;
+
+SELECT format('CREATE TABLE exam_t%s PARTITION OF exam FOR VALUES FROM (%s) TO (%s)', term, term, term + 1)
+FROM (SELECT DISTINCT term FROM exam_unpartitioned) t ORDER BY term
+\gexec
+
+INSERT INTO exam SELECT * FROM exam_unpartitioned;
+SELECT setval(pg_get_serial_sequence('exam', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM exam), false);
+
+DROP TABLE exam_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,51 @@
+-- Runs after Hibernate's ddl-auto update (spring.jpa.defer-datasource-initialization), so every statement must be idempotent.
+
+-- Rows written before multi-tenancy belong to the default tenant (app.tenancy.default-tenant)
+UPDATE app_user SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE subject SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE student_subject SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE teacher_subject SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE exam SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE exam_timetable SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE exam_slot SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE outbox_event SET tenant_id = 'default' WHERE tenant_id IS NULL;
+UPDATE exam SET term = EXTRACT(YEAR FROM exam_date) * 10 + CASE WHEN EXTRACT(MONTH FROM exam_date) >= 7 THEN 2 ELSE 1 END
+    WHERE term IS NULL AND exam_date IS NOT NULL;
+UPDATE app_user SET last_active_at = now() WHERE last_active_at IS NULL;
+-- Optimistic-lock version for users created before the column existed
+UPDATE app_user SET version = 0 WHERE version IS NULL;
+-- Per-type partial indexes for the discriminator scans of the repositories and the archival candidate search
+CREATE INDEX IF NOT EXISTS app_user_student_idx ON app_user (tenant_id, level, id) WHERE user_type = 'STUDENT';
+CREATE INDEX IF NOT EXISTS app_user_teacher_idx ON app_user (tenant_id, id) WHERE user_type = 'TEACHER';
+CREATE INDEX IF NOT EXISTS app_user_manager_idx ON app_user (tenant_id, id) WHERE user_type = 'MANAGER';
+CREATE INDEX IF NOT EXISTS app_user_student_last_active_idx ON app_user (last_active_at) WHERE user_type = 'STUDENT';
+CREATE INDEX IF NOT EXISTS student_subject_student_idx ON student_subject (student_id);
+CREATE INDEX IF NOT EXISTS exam_student_idx ON exam (student_id);
+-- Hibernate creates a check constraint listing the enum values it knew at table creation and ddl-auto update never
+-- widens it, so newer event types would be rejected; the enum is the only writer of the column
+ALTER TABLE outbox_event DROP CONSTRAINT IF EXISTS outbox_event_event_type_check;
+-- Unapproved enrollments, for the pending-payment pages and the bulk approval statements; approved rows leave the index
+CREATE INDEX IF NOT EXISTS student_subject_unapproved_idx ON student_subject (tenant_id, id) WHERE NOT payment_approved;
+CREATE INDEX IF NOT EXISTS student_subject_unapproved_subject_idx ON student_subject (tenant_id, subject_id, id)
+    WHERE NOT payment_approved;
+-- Teacher rosters: a school's enrollments in a subject in id order without visiting the table rows; replaces the
+-- earlier index without the tenant
+DROP INDEX IF EXISTS student_subject_roster_idx;
+CREATE INDEX IF NOT EXISTS student_subject_tenant_roster_idx ON student_subject (tenant_id, subject_id, id)
+    INCLUDE (student_id, payment_approved, exam_passed);
+-- Subject names are unique per school (tenant_id, name); ddl-auto update never drops the earlier unique constraint on
+-- name alone, whose name Hibernate generated. The body is single-quoted because the script splitter ignores $$ quoting.
+DO '
+DECLARE
+    c record;
+BEGIN
+    FOR c IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = con.conkey[1]
+        WHERE con.conrelid = ''subject''::regclass AND con.contype = ''u''
+          AND array_length(con.conkey, 1) = 1 AND a.attname = ''name''
+    LOOP
+        EXECUTE format(''ALTER TABLE subject DROP CONSTRAINT %I'', c.conname);
+    END LOOP;
+END';
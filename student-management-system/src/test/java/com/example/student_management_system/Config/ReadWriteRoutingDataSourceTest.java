@@ -0,0 +1,133 @@
+package com.example.student_management_system.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two independent PostgreSQL instances stand in for primary and replica; each holds a row naming itself,
+// so a query shows which one served the transaction
+@Testcontainers(disabledWithoutDocker = true)
+class ReadWriteRoutingDataSourceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine");
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static HikariDataSource primary;
+    private static HikariDataSource replica;
+
+    @BeforeAll
+    static void createMarkers() {
+        primary = pool(PRIMARY);
+        replica = pool(REPLICA);
+        for (Map.Entry<String, DataSource> node : Map.<String, DataSource>of("primary", primary, "replica", replica).entrySet()) {
+            JdbcTemplate jdbc = new JdbcTemplate(node.getValue());
+            jdbc.execute("CREATE TABLE node (name TEXT)");
+            jdbc.update("INSERT INTO node VALUES (?)", node.getKey());
+        }
+    }
+
+    @AfterAll
+    static void closePools() {
+        primary.close();
+        replica.close();
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(container.getJdbcUrl());
+        pool.setUsername(container.getUsername());
+        pool.setPassword(container.getPassword());
+        return pool;
+    }
+
+    // Wired as DataSourceRoutingConfig does
+    private static DataSource routing(ReplicaLagGuard guard) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(guard);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primary,
+                ReadWriteRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static String servedBy(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static ReplicaLagGuard probedGuard(DataSource probed, long readYourWritesMs) {
+        ReplicaLagGuard guard = new ReplicaLagGuard(probed, 5000, readYourWritesMs);
+        guard.probeLag();
+        return guard;
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        DataSource dataSource = routing(probedGuard(replica, 0));
+        assertThat(servedBy(dataSource, true)).isEqualTo("replica");
+        assertThat(servedBy(dataSource, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void idleServerNotInRecoveryHasNoLag() {
+        Double lag = new JdbcTemplate(replica).queryForObject(ReplicaLagGuard.LAG_QUERY, Double.class);
+        assertThat(lag).isZero();
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        // The probe can't connect, so the lag is unknown and reads must not be sent to the replica
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:postgresql://127.0.0.1:1/none", "x", "x");
+        DataSource dataSource = routing(probedGuard(unreachable, 0));
+        assertThat(servedBy(dataSource, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void unprobedReplicaIsNotUsed() {
+        DataSource dataSource = routing(new ReplicaLagGuard(replica, 5000, 0));
+        assertThat(servedBy(dataSource, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void userReadsTheirOwnWriteFromThePrimary() {
+        DataSource dataSource = routing(probedGuard(replica, 60_000));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        assertThat(servedBy(dataSource, true)).isEqualTo("replica");
+        assertThat(servedBy(dataSource, false)).isEqualTo("primary");
+        assertThat(servedBy(dataSource, true)).isEqualTo("primary");
+
+        // Other users are not affected by alice's write
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertThat(servedBy(dataSource, true)).isEqualTo("replica");
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.student_management_system.Filter;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Util.JwtUtil;
+import com.example.student_management_system.service.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// TenantFilter followed by JwtAuthFilter, as in the servlet chain: the tenant an authenticated request runs as
+// comes from its token, never from X-Tenant-ID
+class TenantIsolationTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+    private TenantFilter tenantFilter;
+    private JwtAuthFilter jwtAuthFilter;
+
+    @BeforeEach
+    void setUp() {
+        TenancyProperties properties = new TenancyProperties();
+        properties.setDefaultTenant("default");
+        tenantFilter = new TenantFilter();
+        jwtAuthFilter = new JwtAuthFilter(jwtUtil, mock(UserDetailsService.class), mock(TokenRevocationService.class),
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    // Runs the request through both filters and returns the tenant seen by the controller
+    private String tenantSeenBy(MockHttpServletRequest request) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        Filter controller = (req, res, chain) -> seen.set(TenantContext.get());
+        tenantFilter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                }, jwtAuthFilter, controller));
+        return seen.get();
+    }
+
+    private MockHttpServletRequest request(String path, String token, String headerTenant) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (token != null) request.addHeader("Authorization", "Bearer " + token);
+        if (headerTenant != null) request.addHeader(TenantFilter.TENANT_HEADER, headerTenant);
+        return request;
+    }
+
+    @Test
+    void headerCannotSwitchTheTokensTenant() throws Exception {
+        String token = jwtUtil.generateToken("alice", List.of("MANAGER"), "north-high");
+        assertThat(tenantSeenBy(request("/api/students", token, "city-college"))).isEqualTo("north-high");
+    }
+
+    @Test
+    void tokenWithoutTenantRunsAsDefaultTenantDespiteHeader() throws Exception {
+        String token = jwtUtil.generateToken("bob", List.of("MANAGER"), null);
+        assertThat(tenantSeenBy(request("/api/students", token, "city-college"))).isEqualTo("default");
+    }
+
+    @Test
+    void legacyRolesTokenRunsAsDefaultTenantDespiteHeader() throws Exception {
+        String legacy = Jwts.builder()
+                .setSubject("carol")
+                .claim("roles", List.of("MANAGER"))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+        assertThat(tenantSeenBy(request("/api/students", legacy, "city-college"))).isEqualTo("default");
+    }
+
+    @Test
+    void headerIgnoredWithoutToken() throws Exception {
+        assertThat(tenantSeenBy(request("/api/students", null, "city-college"))).isNull();
+    }
+
+    @Test
+    void headerHonouredOnLoginAndSignup() throws Exception {
+        assertThat(tenantSeenBy(request("/api/auth/login", null, "city-college"))).isEqualTo("city-college");
+        assertThat(tenantSeenBy(request("/api/auth/signup", null, "city-college"))).isEqualTo("city-college");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.student_management_system.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final double RATE = 0.01;
+
+    private static BloomFilter filled(long expectedInsertions, double falsePositiveRate, int count) {
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        for (int i = 0; i < count; i++) filter.put("user" + i);
+        return filter;
+    }
+
+    @Test
+    void everyAddedValueIsFound() {
+        BloomFilter filter = filled(INSERTIONS, RATE, INSERTIONS);
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void addedValuesAreFoundEvenWhenTheFilterIsOverfilled() {
+        BloomFilter filter = filled(100, RATE, 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRateAtTheConfiguredSize() {
+        BloomFilter filter = filled(INSERTIONS, RATE, INSERTIONS);
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent" + i)) falsePositives++;
+        }
+        assertThat((double) falsePositives / probes).isLessThan(RATE * 1.5);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, RATE);
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("user0")).isFalse();
+        filter.put("");
+        assertThat(filter.mightContain("")).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.Config.RoleMaskAuthorizationManager;
+import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.Filter.RoleMaskAuthentication;
+import com.example.student_management_system.Util.RoleMask;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Per-request cost of building the authentication from the token's roles and checking a URL's role, before
+// (role names -> new authorities -> hierarchy expanded on the check) and after (role mask -> shared authorities
+// -> bit test). JWT verification is the same for both and left out. Run with:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.example.student_management_system.benchmark.RoleCheckBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    // Caller's role; every check asks for TEACHER (granted to a manager, denied to a student)
+    @Param({"STUDENT", "MANAGER", "SUPER_MANAGER"})
+    public String role;
+
+    private List<String> roleNames;
+    private int roleMask;
+    private AuthorityAuthorizationManager<Object> hierarchyCheck;
+    private RoleMaskAuthorizationManager<Object> maskCheck;
+
+    @Setup
+    public void setup() {
+        // Claims as the token carries them: a list of names before, a mask after
+        roleNames = List.of(role);
+        roleMask = RoleMask.of(roleNames);
+        RoleHierarchyImpl hierarchy = new RoleHierarchyImpl();
+        hierarchy.setHierarchy(RoleMask.HIERARCHY);
+        hierarchyCheck = AuthorityAuthorizationManager.hasRole("TEACHER");
+        hierarchyCheck.setRoleHierarchy(hierarchy);
+        maskCheck = RoleMaskAuthorizationManager.hasRole(Role.TEACHER);
+    }
+
+    @Benchmark
+    public boolean roleNamesAndHierarchy() {
+        var authorities = roleNames.stream()
+                .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
+                .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", null, authorities);
+        return hierarchyCheck.check(() -> authentication, null).isGranted();
+    }
+
+    @Benchmark
+    public boolean roleMaskAndBitTest() {
+        Authentication authentication = new RoleMaskAuthentication("user", roleMask);
+        return maskCheck.check(() -> authentication, null).isGranted();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RoleCheckBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.student_management_system.benchmark;
+
+import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.model.Exam;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.Teacher;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Payload size and encode/decode throughput of JSON vs CBOR vs Smile for the lists returned by
+// /api/exams and /api/students. Run with:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.example.student_management_system.benchmark.SerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Exam> exams;
+    private List<Student> students;
+    private byte[] examBytes;
+    private byte[] studentBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = mapper(format);
+        exams = exams(size);
+        students = students(size);
+        examBytes = mapper.writeValueAsBytes(exams);
+        studentBytes = mapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] writeExams() throws IOException {
+        return mapper.writeValueAsBytes(exams);
+    }
+
+    @Benchmark
+    public List<Exam> readExams() throws IOException {
+        return mapper.readValue(examBytes, new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] writeStudents() throws IOException {
+        return mapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public List<Student> readStudents() throws IOException {
+        return mapper.readValue(studentBytes, new TypeReference<>() {
+        });
+    }
+
+    // Same relevant settings as the application's mapper
+    static ObjectMapper mapper(String format) {
+        MapperBuilder<?, ?> builder = switch (format) {
+            case "json" -> JsonMapper.builder();
+            case "cbor" -> CBORMapper.builder();
+            case "smile" -> SmileMapper.builder();
+            default -> throw new IllegalArgumentException(format);
+        };
+        return builder.addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(MapperFeature.USE_GETTERS_AS_SETTERS)
+                .build();
+    }
+
+    static List<Exam> exams(int count) {
+        Random random = new Random(42);
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            subjects.add(Subject.builder().id((long) i).tenantId("default").name("Subject " + i).level(1 + i % 5).build());
+        }
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            teachers.add(Teacher.builder().id(10_000L + i).tenantId("default").name("Teacher " + i)
+                    .username("teacher" + i).password("$2a$10$abcdefghijklmnopqrstuv").role(Role.TEACHER)
+                    .salary(5000.0 + i).department("Science").subject("Subject " + i).build());
+        }
+        List<Student> students = students(Math.max(1, count / 10));
+        List<Exam> exams = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 9, 0);
+        for (int i = 0; i < count; i++) {
+            exams.add(Exam.builder()
+                    .id((long) i + 1)
+                    .tenantId("default")
+                    .student(students.get(random.nextInt(students.size())))
+                    .subject(subjects.get(random.nextInt(subjects.size())))
+                    .teacher(teachers.get(random.nextInt(teachers.size())))
+                    .examDate(start.plusMinutes(random.nextInt(200_000)))
+                    .term(20251)
+                    .passed(random.nextBoolean())
+                    .score(Math.round(random.nextDouble() * 1000) / 10.0)
+                    .build());
+        }
+        return exams;
+    }
+
+    static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder()
+                    .id((long) i + 1)
+                    .tenantId("default")
+                    .name("Student " + i)
+                    .username("student" + i)
+                    .password("$2a$10$abcdefghijklmnopqrstuv")
+                    .role(Role.STUDENT)
+                    .gpa(String.format("%.2f", 2 + (i % 200) / 100.0))
+                    .level(1 + i % 5)
+                    .build());
+        }
+        return students;
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        List<Exam> exams = exams(1000);
+        List<Student> students = students(1000);
+        System.out.printf("%-6s %14s %14s %14s %14s%n", "format", "exams", "exams (gzip)", "students", "students (gzip)");
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = mapper(format);
+            byte[] examBytes = mapper.writeValueAsBytes(exams);
+            byte[] studentBytes = mapper.writeValueAsBytes(students);
+            System.out.printf("%-6s %14d %14d %14d %14d%n", format, examBytes.length, gzipped(examBytes),
+                    studentBytes.length, gzipped(studentBytes));
+        }
+        new Runner(new OptionsBuilder().include(SerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
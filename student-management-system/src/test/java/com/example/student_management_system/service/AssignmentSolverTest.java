@@ -0,0 +1,120 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The incremental path (updateDemand on a solved flow) must land on an optimum as good as solving the new
+// demand from scratch. Optima can differ in which subject is short when capacity runs out, so they are compared
+// by total cost and by the total left unassigned.
+class AssignmentSolverTest {
+
+    private static final int LOAD_WEIGHT = 3;
+    private static final int MAX_CYCLES = 10_000;
+
+    // Three subjects, three teachers; teacher 2 is the cheap fit for subjects 0 and 1
+    private static final int[] CAPACITY = {3, 2, 4};
+    private static final int[][] CANDIDATES = {{0, 2}, {1, 2}, {0, 1}};
+    private static final int[][] COSTS = {{5, 0}, {5, 0}, {0, 2}};
+
+    private static AssignmentSolver solved(int[] demand, int[] capacity, int[][] candidates, int[][] costs) {
+        AssignmentSolver solver = new AssignmentSolver(demand, capacity, candidates, costs, LOAD_WEIGHT);
+        solver.solve();
+        return solver;
+    }
+
+    private static void assertSameOptimum(AssignmentSolver incremental, AssignmentSolver fresh, int[] demand,
+                                          int[] capacity, int[][] candidates) {
+        assertThat(incremental.totalCost()).isEqualTo(fresh.totalCost());
+        int incrementalUnassigned = 0;
+        int freshUnassigned = 0;
+        for (int s = 0; s < demand.length; s++) {
+            incrementalUnassigned += incremental.unassigned(s);
+            freshUnassigned += fresh.unassigned(s);
+            int sections = 0;
+            for (int i = 0; i < candidates[s].length; i++) sections += incremental.sections(s, i);
+            assertThat(sections).isEqualTo(demand[s] - incremental.unassigned(s));
+        }
+        assertThat(incrementalUnassigned).isEqualTo(freshUnassigned);
+        for (int t = 0; t < capacity.length; t++) {
+            assertThat(incremental.load(t)).isLessThanOrEqualTo(capacity[t]);
+        }
+    }
+
+    @Test
+    void demandIncreaseReachesTheFreshOptimum() {
+        AssignmentSolver solver = solved(new int[]{1, 1, 1}, CAPACITY, CANDIDATES, COSTS);
+        int[] demand = {3, 2, 3};
+        assertThat(solver.updateDemand(demand, MAX_CYCLES)).isTrue();
+        assertSameOptimum(solver, solved(demand, CAPACITY, CANDIDATES, COSTS), demand, CAPACITY, CANDIDATES);
+    }
+
+    @Test
+    void demandDecreaseReachesTheFreshOptimum() {
+        AssignmentSolver solver = solved(new int[]{3, 3, 3}, CAPACITY, CANDIDATES, COSTS);
+        int[] demand = {0, 2, 1};
+        assertThat(solver.updateDemand(demand, MAX_CYCLES)).isTrue();
+        assertSameOptimum(solver, solved(demand, CAPACITY, CANDIDATES, COSTS), demand, CAPACITY, CANDIDATES);
+    }
+
+    @Test
+    void mixedChangesOnRandomInstancesReachTheFreshOptimum() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int subjects = 1 + random.nextInt(6);
+            int teachers = 1 + random.nextInt(5);
+            int[] capacity = new int[teachers];
+            for (int t = 0; t < teachers; t++) capacity[t] = random.nextInt(5);
+            int[][] candidates = new int[subjects][];
+            int[][] costs = new int[subjects][];
+            for (int s = 0; s < subjects; s++) {
+                candidates[s] = random.ints(0, teachers).distinct().limit(random.nextInt(teachers + 1)).toArray();
+                costs[s] = random.ints(candidates[s].length, 0, 10).toArray();
+            }
+
+            AssignmentSolver solver = solved(randomDemand(random, subjects), capacity, candidates, costs);
+            for (int step = 0; step < 5; step++) {
+                int[] demand = randomDemand(random, subjects);
+                if (!solver.updateDemand(demand, MAX_CYCLES)) {
+                    throw new AssertionError("Repair gave up in round " + round + " on " + Arrays.toString(demand));
+                }
+                assertSameOptimum(solver, solved(demand, capacity, candidates, costs), demand, capacity, candidates);
+            }
+        }
+    }
+
+    private static int[] randomDemand(Random random, int subjects) {
+        return random.ints(subjects, 0, 6).toArray();
+    }
+
+    @Test
+    void unassignedReportsTheShortfallWhenCapacityRunsOut() {
+        // Teachers 0 and 1 can take three sections between them; subject 2 has nobody qualified
+        int[] capacity = {2, 1};
+        int[][] candidates = {{0, 1}, {0}, {}};
+        int[][] costs = {{0, 0}, {0}, {}};
+        AssignmentSolver solver = solved(new int[]{3, 2, 2}, capacity, candidates, costs);
+        assertThat(solver.unassigned(0) + solver.unassigned(1)).isEqualTo(2);
+        assertThat(solver.unassigned(2)).isEqualTo(2);
+        assertThat(solver.load(0)).isEqualTo(2);
+        assertThat(solver.load(1)).isEqualTo(1);
+
+        // Dropping demand below capacity clears the shortfall of the subjects that can be taught
+        assertThat(solver.updateDemand(new int[]{2, 1, 2}, MAX_CYCLES)).isTrue();
+        assertThat(solver.unassigned(0)).isZero();
+        assertThat(solver.unassigned(1)).isZero();
+        assertThat(solver.unassigned(2)).isEqualTo(2);
+    }
+
+    @Test
+    void sectionsAreSpreadOverEquallyGoodTeachers() {
+        // Load costs grow quadratically, so four sections go two and two rather than three and one
+        AssignmentSolver solver = solved(new int[]{4}, new int[]{4, 4}, new int[][]{{0, 1}}, new int[][]{{0, 0}});
+        assertThat(solver.load(0)).isEqualTo(2);
+        assertThat(solver.load(1)).isEqualTo(2);
+        assertThat(solver.totalCost()).isEqualTo(2L * LOAD_WEIGHT * 4);
+    }
+}
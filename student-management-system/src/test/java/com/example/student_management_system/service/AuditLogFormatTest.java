@@ -0,0 +1,152 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.DTOS.AuditRecord;
+import com.example.student_management_system.Enum.AuditAction;
+import com.example.student_management_system.Enum.AuditEntityType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogFormatTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    // Direct and little endian, like the mapped segments
+    private static ByteBuffer segment(int bytes) {
+        ByteBuffer segment = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        AuditLogFormat.writeSegmentHeader(segment, T0);
+        return segment;
+    }
+
+    // Appends a record at offset and returns the offset after it
+    private static int append(ByteBuffer segment, int offset, long at, AuditEntityType entity, long entityId,
+                              String tenant, List<AuditRecord.Change> changes) {
+        ByteBuffer record = AuditLogFormat.encode(at, entity, entityId, AuditAction.UPDATE, tenant, "admin", changes);
+        AuditLogFormat.write(segment, offset, record);
+        return offset + record.limit();
+    }
+
+    private static List<AuditRecord> scanAll(ByteBuffer segment, int end) {
+        List<AuditRecord> out = new ArrayList<>();
+        AuditLogFormat.scan(segment, end, null, null, null, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, out);
+        return out;
+    }
+
+    @Test
+    void recordRoundTripsEveryValueKind() {
+        ByteBuffer segment = segment(4096);
+        int end = append(segment, AuditLogFormat.FIRST_RECORD, T0 + 5, AuditEntityType.EXAM, 42L, "north-high", List.of(
+                new AuditRecord.Change("score", 41.5, 77.25),
+                new AuditRecord.Change("level", 2, 3L),
+                new AuditRecord.Change("passed", false, true),
+                new AuditRecord.Change("name", null, "Zoë"),
+                new AuditRecord.Change("status", AuditAction.CREATE, AuditAction.DELETE)));
+        assertThat(end % 8).isZero();
+
+        List<AuditRecord> records = scanAll(segment, end);
+        assertThat(records).hasSize(1);
+        AuditRecord record = records.get(0);
+        assertThat(record.getAt()).isEqualTo(LocalDateTime.ofInstant(Instant.ofEpochMilli(T0 + 5), ZoneId.systemDefault()));
+        assertThat(record.getEntity()).isEqualTo(AuditEntityType.EXAM);
+        assertThat(record.getEntityId()).isEqualTo(42L);
+        assertThat(record.getAction()).isEqualTo(AuditAction.UPDATE);
+        assertThat(record.getTenantId()).isEqualTo("north-high");
+        assertThat(record.getActor()).isEqualTo("admin");
+        // Integers come back as longs and enums by name
+        assertThat(record.getChanges()).containsExactly(
+                new AuditRecord.Change("score", 41.5, 77.25),
+                new AuditRecord.Change("level", 2L, 3L),
+                new AuditRecord.Change("passed", false, true),
+                new AuditRecord.Change("name", null, "Zoë"),
+                new AuditRecord.Change("status", "CREATE", "DELETE"));
+    }
+
+    @Test
+    void scanFiltersByEntityIdTenantAndTimeAndStopsAtTheLimit() {
+        ByteBuffer segment = segment(8192);
+        List<AuditRecord.Change> none = List.of();
+        int end = AuditLogFormat.FIRST_RECORD;
+        end = append(segment, end, T0, AuditEntityType.EXAM, 1L, "a", none);
+        end = append(segment, end, T0 + 10, AuditEntityType.ENROLLMENT, 1L, "a", none);
+        end = append(segment, end, T0 + 20, AuditEntityType.EXAM, 2L, "b", none);
+        end = append(segment, end, T0 + 30, AuditEntityType.EXAM, 1L, "b", none);
+
+        List<AuditRecord> out = new ArrayList<>();
+        AuditLogFormat.scan(segment, end, AuditEntityType.EXAM, 1L, null, Long.MIN_VALUE, Long.MAX_VALUE, 10, out);
+        assertThat(out).extracting(AuditRecord::getTenantId).containsExactly("a", "b");
+
+        out.clear();
+        AuditLogFormat.scan(segment, end, AuditEntityType.EXAM, null, "b", Long.MIN_VALUE, Long.MAX_VALUE, 10, out);
+        assertThat(out).extracting(AuditRecord::getEntityId).containsExactly(2L, 1L);
+
+        // [from, to)
+        out.clear();
+        AuditLogFormat.scan(segment, end, null, null, null, T0 + 10, T0 + 30, 10, out);
+        assertThat(out).extracting(AuditRecord::getEntity)
+                .containsExactly(AuditEntityType.ENROLLMENT, AuditEntityType.EXAM);
+
+        out.clear();
+        AuditLogFormat.scan(segment, end, null, null, null, Long.MIN_VALUE, Long.MAX_VALUE, 3, out);
+        assertThat(out).hasSize(3);
+    }
+
+    @Test
+    void unpublishedSlotsAreSteppedOverAndRecoverEndFindsTheLastRecord() {
+        ByteBuffer segment = segment(4096);
+        int first = append(segment, AuditLogFormat.FIRST_RECORD, T0, AuditEntityType.USER, 1L, "a", List.of());
+        // A writer reserved the next slot but never published its header word
+        ByteBuffer reserved = AuditLogFormat.encode(T0, AuditEntityType.USER, 2L, AuditAction.CREATE, "a", null, List.of());
+        int second = first + reserved.limit();
+        int third = append(segment, second, T0 + 1, AuditEntityType.USER, 3L, "a", List.of());
+
+        assertThat(scanAll(segment, third)).extracting(AuditRecord::getEntityId).containsExactly(1L, 3L);
+        assertThat(AuditLogFormat.recoverEnd(segment)).isEqualTo(third);
+        assertThat(AuditLogFormat.recordLength(segment, first, third)).isZero();
+    }
+
+    @Test
+    void longStringsAreCutAtACharacterBoundary() {
+        ByteBuffer segment = segment(4096);
+        // 2-byte characters: 255 bytes would split the 128th, so 127 are kept
+        String accented = "é".repeat(200);
+        String ascii = "x".repeat(300);
+        int end = append(segment, AuditLogFormat.FIRST_RECORD, T0, AuditEntityType.USER, 1L, accented,
+                List.of(new AuditRecord.Change(ascii, accented, ascii)));
+
+        AuditRecord record = scanAll(segment, end).get(0);
+        assertThat(record.getTenantId()).isEqualTo("é".repeat(127));
+        assertThat(record.getChanges().get(0).getField()).isEqualTo("x".repeat(255));
+        assertThat(record.getChanges().get(0).getOldValue()).isEqualTo("é".repeat(127));
+        assertThat(record.getChanges().get(0).getNewValue()).isEqualTo("x".repeat(255));
+    }
+
+    @Test
+    void theLargestPossibleRecordFitsInMaxRecord() {
+        String longest = "€".repeat(100); // 300 bytes in UTF-8, cut to 255
+        assertThat(longest.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(255);
+        List<AuditRecord.Change> changes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            changes.add(new AuditRecord.Change(longest, longest, longest));
+        }
+        ByteBuffer record = AuditLogFormat.encode(T0, AuditEntityType.ENROLLMENT, Long.MAX_VALUE, AuditAction.DELETE,
+                longest, longest, changes);
+        assertThat(record.limit()).isLessThanOrEqualTo(AuditLogFormat.MAX_RECORD);
+        assertThat(record.limit() % 8).isZero();
+
+        ByteBuffer segment = segment(AuditLogFormat.FIRST_RECORD + AuditLogFormat.MAX_RECORD);
+        AuditLogFormat.write(segment, AuditLogFormat.FIRST_RECORD, record);
+        AuditRecord decoded = scanAll(segment, AuditLogFormat.FIRST_RECORD + record.limit()).get(0);
+        // Changes beyond the limit are dropped
+        assertThat(decoded.getChanges()).hasSize(32);
+        assertThat(decoded.getActor()).isEqualTo("€".repeat(85));
+    }
+}
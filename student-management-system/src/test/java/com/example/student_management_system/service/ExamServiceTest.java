@@ -0,0 +1,174 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.model.Exam;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.model.Subject;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.repositiory.ExamRepository;
+import com.example.student_management_system.repositiory.ExamSlotRepository;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import com.example.student_management_system.repositiory.TeacherRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Exam submissions against a connection pool smaller than the burst: the lookups are coalesced by EntityLoaders
+// and must not be waited for while the submitting thread holds a connection
+class ExamServiceTest {
+
+    private static final int POOL_SIZE = 3;
+    private static final int SUBMISSIONS = 24;
+
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final SubjectRepository subjectRepository = mock(SubjectRepository.class);
+    private final TeacherRepository teacherRepository = mock(TeacherRepository.class);
+    private final ExamRepository examRepository = mock(ExamRepository.class);
+    private final PooledTransactionManager transactionManager = new PooledTransactionManager(POOL_SIZE);
+    private EntityLoaders entityLoaders;
+    private ExamService examService;
+
+    // Each transaction holds one of a fixed number of connections; like Hikari, waiting too long for one fails
+    private static class PooledTransactionManager implements PlatformTransactionManager {
+        private final Semaphore connections;
+
+        PooledTransactionManager(int size) {
+            this.connections = new Semaphore(size);
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            try {
+                if (!connections.tryAcquire(2, TimeUnit.SECONDS)) {
+                    throw new CannotCreateTransactionException("Connection is not available, request timed out");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CannotCreateTransactionException("Interrupted", e);
+            }
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            connections.release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            connections.release();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.findAllById(anyCollection())).thenAnswer(inv -> slowly(() ->
+                idsOf(inv.getArgument(0)).stream().map(id -> {
+                    Student student = new Student();
+                    student.setId(id);
+                    return student;
+                }).toList()));
+        when(subjectRepository.findAllById(anyCollection())).thenAnswer(inv -> slowly(() ->
+                idsOf(inv.getArgument(0)).stream().map(id -> {
+                    Subject subject = new Subject();
+                    subject.setId(id);
+                    return subject;
+                }).toList()));
+        when(teacherRepository.findAllById(anyCollection())).thenAnswer(inv -> slowly(() ->
+                idsOf(inv.getArgument(0)).stream().map(id -> {
+                    Teacher teacher = new Teacher();
+                    teacher.setId(id);
+                    return teacher;
+                }).toList()));
+        AtomicLong examIds = new AtomicLong();
+        when(examRepository.save(any(Exam.class))).thenAnswer(inv -> {
+            Exam exam = inv.getArgument(0);
+            exam.setId(examIds.incrementAndGet());
+            return exam;
+        });
+
+        entityLoaders = new EntityLoaders(studentRepository, subjectRepository, teacherRepository,
+                new TenancyProperties(), transactionManager, new SimpleMeterRegistry(), 2000, 200, 2, 5000);
+        examService = new ExamService(examRepository, studentRepository, subjectRepository, teacherRepository,
+                mock(StudentSubjectRepository.class), mock(OutboxService.class), mock(ExamSlotRepository.class),
+                entityLoaders, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityLoaders.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> idsOf(Object ids) {
+        return new ArrayList<>((Collection<Long>) ids);
+    }
+
+    // A lookup that takes long enough for the burst to pile up behind it
+    private static <T> T slowly(Callable<T> query) throws Exception {
+        Thread.sleep(50);
+        return query.call();
+    }
+
+    @Test
+    void burstLargerThanThePoolIsCoalescedInsteadOfTimingOut() throws Exception {
+        ExecutorService requests = Executors.newFixedThreadPool(SUBMISSIONS);
+        try {
+            List<Future<Exam>> results = new ArrayList<>();
+            for (int i = 0; i < SUBMISSIONS; i++) {
+                long studentId = 1 + i % 4;
+                results.add(requests.submit(() -> examService.createExam(studentId, 10L, 20L, false, 55.0)));
+            }
+            for (Future<Exam> result : results) {
+                Exam exam = result.get(10, TimeUnit.SECONDS);
+                assertThat(exam.getId()).isNotNull();
+                assertThat(exam.getSubject().getId()).isEqualTo(10L);
+                assertThat(exam.getTeacher().getId()).isEqualTo(20L);
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+        // Far fewer lookups than submissions, and every connection is back in the pool
+        verify(subjectRepository, atMost(SUBMISSIONS / 4)).findAllById(anyCollection());
+        assertThat(transactionManager.connections.availablePermits()).isEqualTo(POOL_SIZE);
+    }
+
+    @Test
+    void missingStudentFailsBeforeAnythingIsSaved() {
+        doReturn(List.of()).when(studentRepository).findAllById(anyCollection());
+        assertThatThrownBy(() -> examService.createExam(99L, 10L, 20L, false, 40.0))
+                .hasMessage("Student not found");
+        verify(examRepository, never()).save(any(Exam.class));
+        assertThat(transactionManager.connections.availablePermits()).isEqualTo(POOL_SIZE);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxGapsTest {
+
+    private static List<OutboxEvent> batch(long... ids) {
+        return Arrays.stream(ids).mapToObj(id -> OutboxEvent.builder().id(id).build()).toList();
+    }
+
+    @Test
+    void recordKeepsTheIdsABatchSkipped() {
+        OutboxGaps gaps = new OutboxGaps();
+        assertThat(gaps.record(10, batch(12, 15, 16), 1_000)).isZero();
+        assertThat(gaps.ids()).containsExactly(11L, 13L, 14L);
+
+        // A contiguous batch adds nothing
+        assertThat(gaps.record(16, batch(17, 18), 2_000)).isZero();
+        assertThat(gaps.ids()).containsExactly(11L, 13L, 14L);
+    }
+
+    @Test
+    void recordIdsMatchesRecord() {
+        OutboxGaps fromEvents = new OutboxGaps();
+        fromEvents.record(0, batch(3, 4, 9), 1_000);
+        OutboxGaps fromIds = new OutboxGaps();
+        fromIds.recordIds(0, List.of(3L, 4L, 9L), 1_000);
+        assertThat(fromIds.encode()).isEqualTo(fromEvents.encode());
+    }
+
+    @Test
+    void resolvedIdsAreForgotten() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.record(0, batch(5), 1_000);
+        gaps.resolved(List.of(2L, 4L, 99L));
+        assertThat(gaps.ids()).containsExactly(1L, 3L);
+        gaps.resolved(List.of(1L, 3L));
+        assertThat(gaps.isEmpty()).isTrue();
+    }
+
+    @Test
+    void expireGivesUpOnlyOnIdsMissingLongerThanTheTimeout() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.record(0, batch(3), 1_000);   // 1 and 2 seen at 1000
+        gaps.record(3, batch(5), 4_000);   // 4 seen at 4000
+
+        assertThat(gaps.expire(5_000, 5_000)).isEmpty();
+        assertThat(gaps.expire(6_001, 5_000)).containsExactly(1L, 2L);
+        assertThat(gaps.ids()).containsExactly(4L);
+        assertThat(gaps.expire(9_001, 5_000)).containsExactly(4L);
+        assertThat(gaps.isEmpty()).isTrue();
+    }
+
+    @Test
+    void encodeAndParseRoundTripWithFirstSeenTimes() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.record(0, batch(2), 1_000);
+        gaps.record(2, batch(4), 2_000);
+        String encoded = gaps.encode();
+        assertThat(encoded).isEqualTo("1@1000,3@2000");
+
+        OutboxGaps parsed = OutboxGaps.parse(encoded);
+        assertThat(parsed.ids()).containsExactly(1L, 3L);
+        assertThat(parsed.encode()).isEqualTo(encoded);
+        // The first-seen times survive, so the timeout still counts from the first sighting
+        assertThat(parsed.expire(6_500, 5_000)).containsExactly(1L);
+    }
+
+    @Test
+    void emptyGapsEncodeAsNull() {
+        assertThat(new OutboxGaps().encode()).isNull();
+        assertThat(OutboxGaps.parse(null).isEmpty()).isTrue();
+        assertThat(OutboxGaps.parse("").isEmpty()).isTrue();
+    }
+
+    @Test
+    void recordStopsAtMaxGapsAndReportsTheRest() {
+        OutboxGaps gaps = new OutboxGaps();
+        long last = OutboxGaps.MAX_GAPS + 100L;
+        // ids 1 .. last - 1 are missing; the lowest MAX_GAPS are kept
+        assertThat(gaps.record(0, batch(last), 1_000)).isEqualTo(99);
+        assertThat(gaps.ids()).hasSize(OutboxGaps.MAX_GAPS);
+        assertThat(gaps.ids().iterator().next()).isEqualTo(1L);
+
+        // Once full, further gaps are only counted
+        assertThat(gaps.record(last, batch(last + 3), 2_000)).isEqualTo(2);
+        assertThat(gaps.ids()).hasSize(OutboxGaps.MAX_GAPS);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrerequisiteGraphTest {
+
+    private static Object[] subject(long id, Integer level) {
+        return new Object[]{id, level, "Subject " + id};
+    }
+
+    // (subjectId, prerequisiteId)
+    private static Object[] edge(long subjectId, long prerequisiteId) {
+        return new Object[]{subjectId, prerequisiteId};
+    }
+
+    // Subjects 1..count at level 1 with no edges between them, so positions follow ids (position = id - 1)
+    private static List<Object[]> subjects(int count) {
+        List<Object[]> subjects = new ArrayList<>();
+        for (long id = 1; id <= count; id++) subjects.add(subject(id, 1));
+        return subjects;
+    }
+
+    @Test
+    void prerequisitesAreNumberedBeforeTheSubjectsNeedingThem() {
+        // 10 needs 20 needs 30, against id order; 5 and 40 are free and keep their id order
+        PrerequisiteGraph graph = PrerequisiteGraph.build(
+                List.of(subject(10, 1), subject(20, 1), subject(30, 1), subject(40, 1), subject(5, 1)),
+                List.of(edge(10, 20), edge(20, 30)));
+        List<Long> order = new ArrayList<>();
+        for (int p = 0; p < graph.size(); p++) order.add(graph.subjectId(p));
+        assertThat(order.indexOf(30L)).isLessThan(order.indexOf(20L));
+        assertThat(order.indexOf(20L)).isLessThan(order.indexOf(10L));
+        assertThat(order.indexOf(5L)).isLessThan(order.indexOf(40L));
+        assertThat(graph.prerequisites(10, false)).containsExactly(20L);
+        assertThat(graph.prerequisites(10, true)).containsExactlyInAnyOrder(20L, 30L);
+    }
+
+    @Test
+    void buildRejectsACycle() {
+        assertThatThrownBy(() -> PrerequisiteGraph.build(subjects(3), List.of(edge(1, 2), edge(2, 3), edge(3, 1))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cycle");
+        assertThatThrownBy(() -> PrerequisiteGraph.build(subjects(1), List.<Object[]>of(edge(1, 1))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void edgesToUnknownSubjectsAreIgnored() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(subjects(2), List.of(edge(2, 1), edge(2, 99), edge(99, 1)));
+        assertThat(graph.contains(99)).isFalse();
+        assertThat(graph.prerequisites(2, false)).containsExactly(1L);
+    }
+
+    @Test
+    void wouldCycleDetectsDirectAndTransitiveBackEdges() {
+        // 3 needs 2 needs 1; 4 is unrelated
+        PrerequisiteGraph graph = PrerequisiteGraph.build(subjects(4), List.of(edge(3, 2), edge(2, 1)));
+        assertThat(graph.wouldCycle(1, 2)).isTrue();
+        assertThat(graph.wouldCycle(1, 3)).isTrue();
+        assertThat(graph.wouldCycle(2, 2)).isTrue();
+        assertThat(graph.wouldCycle(3, 1)).isFalse();
+        assertThat(graph.wouldCycle(4, 3)).isFalse();
+        assertThat(graph.wouldCycle(1, 4)).isFalse();
+        assertThat(graph.wouldCycle(1, 99)).isFalse();
+    }
+
+    @Test
+    void mayEnrollChecksPrerequisitesInEveryWord() {
+        // Subject 150 needs subjects at positions 0, 63, 64 and 128: bits in three different words
+        PrerequisiteGraph graph = PrerequisiteGraph.build(subjects(150),
+                List.of(edge(150, 1), edge(150, 64), edge(150, 65), edge(150, 129)));
+        long[] passed = graph.emptySet();
+        assertThat(graph.mayEnroll(150L, passed)).isFalse();
+        graph.add(passed, 1);
+        graph.add(passed, 64);
+        graph.add(passed, 129);
+        assertThat(graph.mayEnroll(150L, passed)).isFalse();
+        assertThat(graph.missingPrerequisites(150, passed)).containsExactly(65L);
+        graph.add(passed, 65);
+        assertThat(graph.mayEnroll(150L, passed)).isTrue();
+        assertThat(graph.missingPrerequisites(150, passed)).isEmpty();
+
+        // A subject without prerequisites, and one outside the snapshot, are always open
+        assertThat(graph.mayEnroll(2L, graph.emptySet())).isTrue();
+        assertThat(graph.mayEnroll(999L, graph.emptySet())).isTrue();
+    }
+
+    @Test
+    void passedLevelChecksEverySubjectAcrossTheWordBoundary() {
+        // Level 2 is subjects 60..70, positions 59..69 on both sides of the first word boundary
+        List<Object[]> subjects = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) subjects.add(subject(id, id >= 60 && id <= 70 ? 2 : 1));
+        PrerequisiteGraph graph = PrerequisiteGraph.build(subjects, List.of());
+
+        long[] passed = graph.setOf(LongStream.rangeClosed(60, 70).filter(id -> id != 66).boxed().toList());
+        assertThat(graph.passedLevel(2, passed)).isFalse();
+        graph.add(passed, 66);
+        assertThat(graph.passedLevel(2, passed)).isTrue();
+        assertThat(graph.passedLevel(1, passed)).isFalse();
+        assertThat(graph.passedLevel(3, graph.emptySet())).isTrue();
+
+        // The word holding only position 64 and up is checked too
+        long[] allButLast = graph.setOf(LongStream.rangeClosed(60, 69).boxed().toList());
+        assertThat(graph.passedLevel(2, allButLast)).isFalse();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RosterQueryParserTest {
+
+    private static final RoaringBitmap ALL = RoaringBitmap.bitmapOf(1, 2, 3, 4, 5, 6, 7, 8);
+    private static final Map<String, RoaringBitmap> ATOMS = Map.of(
+            "subject:1", RoaringBitmap.bitmapOf(1, 2, 3, 4),
+            "subject:2", RoaringBitmap.bitmapOf(3, 4, 5, 6),
+            "passed:1", RoaringBitmap.bitmapOf(2, 4),
+            "level:3", RoaringBitmap.bitmapOf(4, 5, 8));
+
+    private static int[] evaluate(String expression) {
+        return new RosterQueryParser(expression, atom -> {
+            RoaringBitmap bitmap = ATOMS.get(atom);
+            if (bitmap == null) throw new IllegalArgumentException("Unknown term '" + atom + "'");
+            return bitmap;
+        }, ALL).evaluate().toArray();
+    }
+
+    @Test
+    void singleAtom() {
+        assertThat(evaluate("subject:1")).containsExactly(1, 2, 3, 4);
+        assertThat(evaluate("  level:3  ")).containsExactly(4, 5, 8);
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        // subject:1 | (subject:2 & level:3)
+        assertThat(evaluate("subject:1 | subject:2 & level:3")).containsExactly(1, 2, 3, 4, 5);
+        // (subject:2 & level:3) | subject:1
+        assertThat(evaluate("subject:2 & level:3 | subject:1")).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void notBindsTighterThanAnd() {
+        // subject:1 & (!passed:1)
+        assertThat(evaluate("subject:1 & !passed:1")).containsExactly(1, 3);
+        // (!subject:1) | level:3
+        assertThat(evaluate("!subject:1 | level:3")).containsExactly(4, 5, 6, 7, 8);
+    }
+
+    @Test
+    void notIsRelativeToAllStudents() {
+        assertThat(evaluate("!subject:1")).containsExactly(5, 6, 7, 8);
+        assertThat(evaluate("!!subject:1")).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        assertThat(evaluate("(subject:1 | subject:2) & level:3")).containsExactly(4, 5);
+        assertThat(evaluate("!(subject:1 | subject:2)")).containsExactly(7, 8);
+        assertThat(evaluate("((subject:1))")).containsExactly(1, 2, 3, 4);
+        assertThat(evaluate("subject:1 & !(passed:1 | level:3)")).containsExactly(1, 3);
+    }
+
+    @Test
+    void evaluationDoesNotModifyTheAtoms() {
+        evaluate("subject:1 & subject:2 | !level:3");
+        assertThat(ATOMS.get("subject:1").toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(ALL.toArray()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        assertThatThrownBy(() -> evaluate("")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected a term");
+        assertThatThrownBy(() -> evaluate("subject:1 &")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected a term");
+        assertThatThrownBy(() -> evaluate("(subject:1 | subject:2")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Missing ')'");
+        assertThatThrownBy(() -> evaluate("subject:1)")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected ')'");
+        assertThatThrownBy(() -> evaluate("subject:1 subject:2")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected 's'");
+        assertThatThrownBy(() -> evaluate("subject:1 && subject:2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> evaluate("subject:1 ^ subject:2")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected '^'");
+        assertThatThrownBy(() -> evaluate("subject:9")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown term");
+    }
+
+    @Test
+    void deepNestingIsRejectedInsteadOfOverflowingTheStack() {
+        String deep = "(".repeat(100_000) + "subject:1" + ")".repeat(100_000);
+        assertThatThrownBy(() -> evaluate(deep)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nested deeper");
+        assertThatThrownBy(() -> evaluate("!".repeat(100_000) + "subject:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        String allowed = "(".repeat(RosterQueryParser.MAX_DEPTH - 1) + "subject:1" + ")".repeat(RosterQueryParser.MAX_DEPTH - 1);
+        assertThat(evaluate(allowed)).containsExactly(1, 2, 3, 4);
+    }
+}
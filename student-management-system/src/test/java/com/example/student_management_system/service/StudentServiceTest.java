@@ -0,0 +1,95 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.Enum.Role;
+import com.example.student_management_system.model.Student;
+import com.example.student_management_system.repositiory.StudentRepository;
+import com.example.student_management_system.repositiory.StudentSubjectRepository;
+import com.example.student_management_system.repositiory.SubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentServiceTest {
+
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private StudentService studentService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenAnswer(inv -> "encoded:" + inv.getArgument(0));
+        studentService = new StudentService(studentRepository, mock(SubjectRepository.class),
+                mock(StudentSubjectRepository.class), passwordEncoder, outboxService, mock(UserPatcher.class),
+                mock(PrerequisiteService.class));
+    }
+
+    private static Student student(Long id, Long version, String name, int level) {
+        Student student = new Student();
+        student.setId(id);
+        student.setVersion(version);
+        student.setName(name);
+        student.setUsername(name.toLowerCase());
+        student.setPassword("secret");
+        student.setGpa("3.1");
+        student.setLevel(level);
+        return student;
+    }
+
+    @Test
+    void updatingAMissingIdCreatesANewRowInsteadOfPersistingADetachedEntity() {
+        when(studentRepository.findById(42L)).thenReturn(Optional.empty());
+        List<Object> savedIdAndVersion = new ArrayList<>();
+        when(studentRepository.save(any(Student.class))).thenAnswer(inv -> {
+            Student student = inv.getArgument(0);
+            savedIdAndVersion.add(student.getId());
+            savedIdAndVersion.add(student.getVersion());
+            student.setId(7L);
+            student.setVersion(0L);
+            return student;
+        });
+
+        Student result = studentService.updateStudent(42L, student(42L, 3L, "Ada", 2));
+
+        // No id and no version, so save() persists a new row rather than treating it as detached
+        assertThat(savedIdAndVersion).containsExactly(null, null);
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getRole()).isEqualTo(Role.STUDENT);
+        assertThat(result.getPassword()).isEqualTo("encoded:secret");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).publish(eq(OutboxEventType.STUDENT_SAVED), eq(7L), payload.capture());
+        assertThat(payload.getValue()).containsEntry("created", true).containsEntry("level", 2);
+    }
+
+    @Test
+    void updatingAnExistingIdKeepsItsIdAndVersion() {
+        Student existing = student(42L, 3L, "Ada", 2);
+        when(studentRepository.findById(42L)).thenReturn(Optional.of(existing));
+        when(studentRepository.save(any(Student.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Student result = studentService.updateStudent(42L, student(null, null, "Grace", 3));
+
+        assertThat(result).isSameAs(existing);
+        assertThat(result.getId()).isEqualTo(42L);
+        assertThat(result.getVersion()).isEqualTo(3L);
+        assertThat(result.getName()).isEqualTo("Grace");
+        assertThat(result.getLevel()).isEqualTo(3);
+        verify(outboxService).publish(eq(OutboxEventType.STUDENT_SAVED), eq(42L), anyMap());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Enum.OutboxEventType;
+import com.example.student_management_system.model.Teacher;
+import com.example.student_management_system.repositiory.TeacherRepository;
+import com.example.student_management_system.repositiory.TeacherSubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeacherServiceTest {
+
+    private final TeacherRepository teacherRepository = mock(TeacherRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private TeacherService teacherService;
+
+    @BeforeEach
+    void setUp() {
+        teacherService = new TeacherService(teacherRepository, mock(TeacherSubjectRepository.class), outboxService,
+                mock(UserPatcher.class), new TenancyProperties());
+    }
+
+    private static Teacher teacher(Long id, Long version, String name) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        teacher.setVersion(version);
+        teacher.setName(name);
+        teacher.setUsername(name.toLowerCase());
+        teacher.setSubject("Maths");
+        teacher.setDepartment("Science");
+        teacher.setSalary(4000.0);
+        return teacher;
+    }
+
+    @Test
+    void updatingAMissingIdCreatesANewRowInsteadOfPersistingADetachedEntity() {
+        when(teacherRepository.findById(42L)).thenReturn(Optional.empty());
+        List<Object> savedIdAndVersion = new ArrayList<>();
+        when(teacherRepository.save(any(Teacher.class))).thenAnswer(inv -> {
+            Teacher teacher = inv.getArgument(0);
+            savedIdAndVersion.add(teacher.getId());
+            savedIdAndVersion.add(teacher.getVersion());
+            teacher.setId(7L);
+            teacher.setVersion(0L);
+            return teacher;
+        });
+
+        Teacher result = teacherService.updateTeacher(42L, teacher(42L, 3L, "Alan"));
+
+        // No id and no version, so save() persists a new row rather than treating it as detached
+        assertThat(savedIdAndVersion).containsExactly(null, null);
+        assertThat(result.getId()).isEqualTo(7L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).publish(eq(OutboxEventType.TEACHER_SAVED), eq(7L), payload.capture());
+        assertThat(payload.getValue()).containsEntry("created", true).containsEntry("department", "Science");
+    }
+
+    @Test
+    void updatingAnExistingIdKeepsItsIdAndVersion() {
+        Teacher existing = teacher(42L, 3L, "Alan");
+        when(teacherRepository.findById(42L)).thenReturn(Optional.of(existing));
+        when(teacherRepository.save(any(Teacher.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Teacher result = teacherService.updateTeacher(42L, teacher(null, null, "Barbara"));
+
+        assertThat(result).isSameAs(existing);
+        assertThat(result.getId()).isEqualTo(42L);
+        assertThat(result.getVersion()).isEqualTo(3L);
+        assertThat(result.getName()).isEqualTo("Barbara");
+        verify(outboxService).publish(eq(OutboxEventType.TEACHER_SAVED), eq(42L), anyMap());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.student_management_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableSolverTest {
+
+    private static final int ATTEMPTS = 4;
+    private static final int MAX_ITERATIONS = 20_000;
+
+    private static BitSet roster(int... students) {
+        BitSet roster = new BitSet();
+        for (int student : students) roster.set(student);
+        return roster;
+    }
+
+    // A clash-free result: no student sits two exams in one slot, no room holds two exams in one slot,
+    // and every exam is in a room large enough for its roster
+    private static void assertFeasible(TimetableSolver.Result result, BitSet[] rosters, int slotCount,
+                                       int[] capacities) {
+        assertThat(result.conflicts).isZero();
+        for (int slot = 0; slot < slotCount; slot++) {
+            BitSet seated = new BitSet();
+            boolean[] roomTaken = new boolean[capacities.length];
+            for (int subject = 0; subject < rosters.length; subject++) {
+                if (result.slotOf[subject] != slot) continue;
+                assertThat(seated.intersects(rosters[subject])).as("student clash in slot " + slot).isFalse();
+                seated.or(rosters[subject]);
+
+                int room = result.roomOf[subject];
+                assertThat(room).as("room of subject " + subject).isBetween(0, capacities.length - 1);
+                assertThat(roomTaken[room]).as("room " + room + " shared in slot " + slot).isFalse();
+                roomTaken[room] = true;
+                assertThat(rosters[subject].cardinality()).isLessThanOrEqualTo(capacities[room]);
+            }
+        }
+    }
+
+    @Test
+    void subjectsSharingAStudentGetDifferentSlots() {
+        // 0-1-2 form a triangle through shared students; 3 shares nobody
+        BitSet[] rosters = {roster(0, 1), roster(1, 2), roster(2, 0), roster(5, 6)};
+        int[] capacities = {10, 10};
+        TimetableSolver.Result result = new TimetableSolver(rosters, 3, capacities).solve(ATTEMPTS, MAX_ITERATIONS);
+        assertFeasible(result, rosters, 3, capacities);
+        assertThat(result.slotOf[0]).isNotEqualTo(result.slotOf[1]);
+        assertThat(result.slotOf[1]).isNotEqualTo(result.slotOf[2]);
+        assertThat(result.slotOf[0]).isNotEqualTo(result.slotOf[2]);
+    }
+
+    @Test
+    void roomCapacitySpreadsLargeExamsOverSlots() {
+        // Disjoint rosters, but only one room fits a 30-student exam, so the three large exams need three slots
+        BitSet[] rosters = new BitSet[5];
+        int next = 0;
+        int[] sizes = {30, 30, 30, 5, 5};
+        for (int subject = 0; subject < sizes.length; subject++) {
+            rosters[subject] = new BitSet();
+            rosters[subject].set(next, next + sizes[subject]);
+            next += sizes[subject];
+        }
+        int[] capacities = {8, 35};
+        TimetableSolver.Result result = new TimetableSolver(rosters, 3, capacities).solve(ATTEMPTS, MAX_ITERATIONS);
+        assertFeasible(result, rosters, 3, capacities);
+        assertThat(result.roomOf[0]).isEqualTo(1);
+        assertThat(result.roomOf[1]).isEqualTo(1);
+        assertThat(result.roomOf[2]).isEqualTo(1);
+    }
+
+    @Test
+    void randomInstancesWithEnoughSlotsAreSolvedClashFree() {
+        Random random = new Random(7);
+        for (int round = 0; round < 30; round++) {
+            int subjects = 5 + random.nextInt(25);
+            int students = 20 + random.nextInt(200);
+            BitSet[] rosters = new BitSet[subjects];
+            for (int subject = 0; subject < subjects; subject++) rosters[subject] = new BitSet();
+            // Each student takes two to four subjects
+            for (int student = 0; student < students; student++) {
+                int taken = 2 + random.nextInt(3);
+                for (int i = 0; i < taken; i++) rosters[random.nextInt(subjects)].set(student);
+            }
+            int[] capacities = {students, students, students};
+            // One slot per subject always has a clash-free answer
+            TimetableSolver.Result result = new TimetableSolver(rosters, subjects, capacities)
+                    .solve(ATTEMPTS, MAX_ITERATIONS);
+            assertFeasible(result, rosters, subjects, capacities);
+        }
+    }
+
+    @Test
+    void impossibleInstancesReportTheirConflicts() {
+        // Four subjects all sharing student 0 cannot fit in three slots
+        BitSet[] rosters = {roster(0, 1), roster(0, 2), roster(0, 3), roster(0, 4)};
+        TimetableSolver.Result tooFewSlots = new TimetableSolver(rosters, 3, new int[]{10, 10, 10, 10})
+                .solve(ATTEMPTS, MAX_ITERATIONS);
+        assertThat(tooFewSlots.conflicts).isPositive();
+
+        // Two disjoint exams in one slot with a single room: one of them has nowhere to sit
+        BitSet[] disjoint = {roster(0, 1), roster(2, 3)};
+        TimetableSolver.Result tooFewRooms = new TimetableSolver(disjoint, 1, new int[]{10})
+                .solve(ATTEMPTS, MAX_ITERATIONS);
+        assertThat(tooFewRooms.conflicts).isPositive();
+    }
+
+    @Test
+    void largestRosterIsReported() {
+        TimetableSolver solver = new TimetableSolver(new BitSet[]{roster(0, 1, 2), roster(3)}, 2, new int[]{5});
+        assertThat(solver.largestRoster()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.student_management_system.service;
+
+import com.example.student_management_system.Config.TenancyProperties;
+import com.example.student_management_system.Config.TenantContext;
+import com.example.student_management_system.Config.TenantPartitions;
+import com.example.student_management_system.repositiory.ArchivedUserRepository;
+import com.example.student_management_system.repositiory.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The shared database plus one tenant with its own schema; the repositories answer for whichever partition
+// rebuild() is visiting
+class UsernameFilterServiceTest {
+
+    private static final Map<String, List<String>> USERS = Map.of(
+            TenantContext.ROOT, List.of("alice", "bob"),
+            "north-high", List.of("carol"));
+    private static final Map<String, List<String>> ARCHIVED = Map.of(
+            TenantContext.ROOT, List.of("dave"),
+            "north-high", List.of("erin"));
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ArchivedUserRepository archivedUserRepository = mock(ArchivedUserRepository.class);
+    private UsernameFilterService service;
+
+    @BeforeEach
+    void setUp() {
+        TenancyProperties properties = new TenancyProperties();
+        TenancyProperties.Placement placement = new TenancyProperties.Placement();
+        placement.setSchema("north_high");
+        properties.getTenants().put("north-high", placement);
+
+        when(userRepository.count()).thenAnswer(inv -> (long) USERS.get(TenantContext.get()).size());
+        when(archivedUserRepository.count()).thenAnswer(inv -> (long) ARCHIVED.get(TenantContext.get()).size());
+        when(userRepository.streamAllUsernames()).thenAnswer(inv -> USERS.get(TenantContext.get()).stream());
+        when(archivedUserRepository.streamAllUsernames()).thenAnswer(inv -> ARCHIVED.get(TenantContext.get()).stream());
+
+        service = new UsernameFilterService(userRepository, archivedUserRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new TenantPartitions(properties),
+                1_000, 0.01);
+    }
+
+    @Test
+    void everyNameMightExistBeforeTheFirstRebuild() {
+        assertThat(service.mightExist("anyone")).isTrue();
+    }
+
+    @Test
+    void rebuildCoversCurrentAndArchivedUsersInEveryPartition() {
+        service.rebuild();
+        for (String username : List.of("alice", "bob", "carol", "dave", "erin")) {
+            assertThat(service.mightExist(username)).as(username).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (service.mightExist("free" + i)) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(20);
+    }
+
+    @Test
+    void namesAddedDuringARebuildSurviveTheSwap() {
+        service.rebuild();
+        doAnswer(inv -> {
+            // A signup committing while the new filter is being filled
+            service.add("frank");
+            return USERS.get(TenantContext.get()).stream();
+        }).when(userRepository).streamAllUsernames();
+        service.rebuild();
+        assertThat(service.mightExist("frank")).isTrue();
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousFilter() {
+        service.rebuild();
+        doThrow(new IllegalStateException("connection lost")).when(archivedUserRepository).streamAllUsernames();
+        assertThatThrownBy(service::rebuild).isInstanceOf(IllegalStateException.class);
+        assertThat(service.mightExist("alice")).isTrue();
+
+        service.add("grace");
+        assertThat(service.mightExist("grace")).isTrue();
+    }
+
+    @Test
+    void isTakenOnlyAsksTheDatabaseWhenTheFilterCannotRuleTheNameOut() {
+        service.rebuild();
+        String free = Stream.iterate(0, i -> i + 1).map(i -> "free" + i)
+                .filter(name -> !service.mightExist(name)).findFirst().orElseThrow();
+        assertThat(service.isTaken(free)).isFalse();
+        verify(userRepository, never()).existsUsernameInAnySchool(anyString());
+        verify(archivedUserRepository, never()).existsArchivedUsername(anyString());
+
+        when(archivedUserRepository.existsArchivedUsername("dave")).thenReturn(true);
+        assertThat(service.isTaken("dave")).isTrue();
+        when(userRepository.existsUsernameInAnySchool("alice")).thenReturn(true);
+        assertThat(service.isTaken("alice")).isTrue();
+    }
+}